@@ -0,0 +1,48 @@
+package com.autoflex.backend.benchmark;
+
+import com.autoflex.backend.dto.ProductImportMaterialRequest;
+import com.autoflex.backend.dto.ProductImportRequest;
+import com.autoflex.backend.dto.RawMaterialRequest;
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.ProductMaterial;
+import com.autoflex.backend.repository.ProductRepository;
+import com.autoflex.backend.service.BulkImportService;
+import org.springframework.context.ApplicationContext;
+
+import java.util.*;
+
+/** Catálogo sintético {@code BENCH-*} para os benchmarks que rodam contra o PostgreSQL. */
+final class BenchCatalog {
+
+    static final String PREFIX = "BENCH-";
+
+    private BenchCatalog() {
+    }
+
+    /** Importa o catálogo pelo {@link BulkImportService} se ainda não existir e devolve o produto {@code BENCH-P0}. */
+    static Product seedIfMissing(ApplicationContext context, int products, int materialsPerBom) {
+        ProductRepository productRepo = context.getBean(ProductRepository.class);
+        return productRepo.findByCode(PREFIX + "P0").orElseGet(() -> {
+            seed(context.getBean(BulkImportService.class), products, materialsPerBom);
+            return productRepo.findByCode(PREFIX + "P0").orElseThrow();
+        });
+    }
+
+    private static void seed(BulkImportService importer, int products, int materialsPerBom) {
+        CatalogGenerator.Catalog catalog = CatalogGenerator.generate(products, materialsPerBom,
+                CatalogGenerator.StockDistribution.UNIFORM, 42);
+
+        importer.importRawMaterials(catalog.rawMaterials().stream()
+                .map(rm -> new RawMaterialRequest(PREFIX + rm.getCode(), rm.getName(), rm.getStockQuantity()))
+                .toList());
+
+        Map<UUID, List<ProductImportMaterialRequest>> bom = new LinkedHashMap<>();
+        for (ProductMaterial pm : catalog.lines()) {
+            bom.computeIfAbsent(pm.getProduct().getId(), id -> new ArrayList<>())
+                    .add(new ProductImportMaterialRequest(PREFIX + pm.getRawMaterial().getCode(), pm.getRequiredQuantity()));
+        }
+        importer.importProducts(catalog.products().stream()
+                .map(p -> new ProductImportRequest(PREFIX + p.getCode(), p.getName(), p.getPrice(), bom.get(p.getId())))
+                .toList());
+    }
+}
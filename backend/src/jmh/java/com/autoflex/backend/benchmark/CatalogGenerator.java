@@ -0,0 +1,86 @@
+package com.autoflex.backend.benchmark;
+
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.ProductMaterial;
+import com.autoflex.backend.model.RawMaterial;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Gera catálogos sintéticos (produtos, matérias-primas e BOM) reprodutíveis para os benchmarks.
+ */
+public final class CatalogGenerator {
+
+    /** Quanto estoque existe em relação ao que os produtos consomem. */
+    public enum StockDistribution {
+        /** Estoque para poucas unidades: o guloso esgota as matérias-primas cedo. */
+        SCARCE(1, 50),
+        /** Estoque uniforme e moderado. */
+        UNIFORM(50, 5_000),
+        /** Estoque alto e concentrado em poucas matérias-primas (cauda longa). */
+        SKEWED(1, 100_000);
+
+        private final long minUnits;
+        private final long maxUnits;
+
+        StockDistribution(long minUnits, long maxUnits) {
+            this.minUnits = minUnits;
+            this.maxUnits = maxUnits;
+        }
+    }
+
+    public record Catalog(List<Product> products, List<RawMaterial> rawMaterials, List<ProductMaterial> lines) {
+    }
+
+    private CatalogGenerator() {
+    }
+
+    public static Catalog generate(int productCount, int materialsPerBom, StockDistribution distribution, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int materialCount = Math.max(materialsPerBom * 4, productCount / 10);
+
+        List<RawMaterial> materials = new ArrayList<>(materialCount);
+        for (int m = 0; m < materialCount; m++) {
+            long units = distribution == StockDistribution.SKEWED && random.nextInt(10) != 0
+                    ? distribution.minUnits + random.nextLong(50)
+                    : random.nextLong(distribution.minUnits, distribution.maxUnits + 1);
+            materials.add(RawMaterial.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .code("RM" + m)
+                    .name("Raw material " + m)
+                    // Estoque em unidades de 1.000 (quantidade necessária média) com 3 casas
+                    .stockQuantity(BigDecimal.valueOf(units * 1_000_000L + random.nextInt(1_000), 3))
+                    .build());
+        }
+
+        List<Product> products = new ArrayList<>(productCount);
+        List<ProductMaterial> lines = new ArrayList<>(productCount * materialsPerBom);
+        for (int p = 0; p < productCount; p++) {
+            Product product = Product.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .code("P" + p)
+                    .name("Product " + p)
+                    .price(BigDecimal.valueOf(100 + random.nextInt(1_000_000), 2))
+                    .build();
+            products.add(product);
+
+            int first = random.nextInt(materialCount);
+            for (int l = 0; l < materialsPerBom; l++) {
+                // Materiais distintos dentro do BOM (respeita uq_product_material)
+                RawMaterial rm = materials.get((first + l * 7919) % materialCount);
+                lines.add(ProductMaterial.builder()
+                        .id(new UUID(random.nextLong(), random.nextLong()))
+                        .product(product)
+                        .rawMaterial(rm)
+                        .requiredQuantity(BigDecimal.valueOf(1 + random.nextInt(2_000_000), 3))
+                        .build());
+            }
+        }
+
+        return new Catalog(products, materials, lines);
+    }
+}
@@ -0,0 +1,93 @@
+package com.autoflex.backend.benchmark;
+
+import com.autoflex.backend.dto.ProductResponse;
+import com.autoflex.backend.dto.ProductionSuggestionItemResponse;
+import com.autoflex.backend.dto.ProductionSuggestionResponse;
+import com.autoflex.backend.model.Product;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização das respostas grandes (listagem de produtos e sugestão) em JSON x CBOR x Smile,
+ * com os mappers padrão de cada formato (os mesmos que a negociação de conteúdo usa).
+ * <p>
+ * Além do tempo por operação, o contador {@code payloadBytes} soma os bytes gerados em cada
+ * iteração (zerado no início dela) e o JMH o normaliza pelo tempo, como a métrica principal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncodingBenchmark {
+
+    @Param({"10000", "100000"})
+    int products;
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    private ObjectMapper mapper;
+    private List<ProductResponse> productList;
+    private ProductionSuggestionResponse suggestion;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Payload {
+        public long payloadBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            payloadBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        mapper = switch (format) {
+            case "json" -> JsonMapper.builder().build();
+            case "cbor" -> CBORMapper.builder().build();
+            case "smile" -> SmileMapper.builder().build();
+            default -> throw new IllegalArgumentException(format);
+        };
+
+        CatalogGenerator.Catalog catalog = CatalogGenerator.generate(products, 5,
+                CatalogGenerator.StockDistribution.UNIFORM, 42);
+        SplittableRandom random = new SplittableRandom(7);
+        productList = new ArrayList<>(products);
+        List<ProductionSuggestionItemResponse> items = new ArrayList<>(products);
+        BigDecimal total = BigDecimal.ZERO;
+        for (Product p : catalog.products()) {
+            productList.add(new ProductResponse(p.getId(), p.getCode(), p.getName(), p.getPrice()));
+            int units = 1 + random.nextInt(50);
+            BigDecimal value = p.getPrice().multiply(BigDecimal.valueOf(units));
+            items.add(new ProductionSuggestionItemResponse(p.getId(), p.getCode(), p.getName(), p.getPrice(), units, value));
+            total = total.add(value);
+        }
+        suggestion = new ProductionSuggestionResponse(items, total);
+    }
+
+    @Benchmark
+    public byte[] productList(Payload payload) {
+        byte[] body = mapper.writeValueAsBytes(productList);
+        payload.payloadBytes += body.length;
+        return body;
+    }
+
+    @Benchmark
+    public byte[] suggestion(Payload payload) {
+        byte[] body = mapper.writeValueAsBytes(suggestion);
+        payload.payloadBytes += body.length;
+        return body;
+    }
+}
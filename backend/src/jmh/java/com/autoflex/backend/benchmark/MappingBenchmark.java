@@ -0,0 +1,66 @@
+package com.autoflex.backend.benchmark;
+
+import com.autoflex.backend.dto.ProductResponse;
+import com.autoflex.backend.dto.RawMaterialResponse;
+import com.autoflex.backend.repository.ProductJdbcRepository;
+import com.autoflex.backend.repository.ProductRepository;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import com.autoflex.backend.repository.RawMaterialRepository;
+import com.autoflex.backend.service.CatalogEntityCache;
+import com.autoflex.backend.service.CatalogRevision;
+import com.autoflex.backend.service.ProductService;
+import com.autoflex.backend.service.RawMaterialService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão entidade -> DTO nas listagens dos serviços, com repositórios em memória.
+ * O BOM de um produto já sai do banco como DTO (projeção), então fica em {@link ReadPathBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({"10000"})
+    int products;
+
+    @Param({"5"})
+    int materialsPerBom;
+
+    private ProductService productService;
+    private RawMaterialService rawMaterialService;
+
+    @Setup
+    public void setup() {
+        CatalogGenerator.Catalog catalog = CatalogGenerator.generate(products, materialsPerBom,
+                CatalogGenerator.StockDistribution.UNIFORM, 42);
+
+        ProductRepository productRepo = RepositoryStubs.stub(ProductRepository.class, Map.of(
+                "findAll", args -> catalog.products()));
+        RawMaterialRepository rawMaterialRepo = RepositoryStubs.stub(RawMaterialRepository.class, Map.of(
+                "findAll", args -> catalog.rawMaterials()));
+
+        CatalogRevision revision = new CatalogRevision();
+        CatalogEntityCache entityCache = new CatalogEntityCache(revision, new SimpleMeterRegistry(), 10_000, 300_000);
+        productService = new ProductService(productRepo, new ProductJdbcRepository(null), revision, entityCache);
+        rawMaterialService = new RawMaterialService(rawMaterialRepo, new RawMaterialJdbcRepository(null), null, null, revision, entityCache);
+    }
+
+    @Benchmark
+    public List<ProductResponse> listProducts() {
+        return productService.findAll();
+    }
+
+    @Benchmark
+    public List<RawMaterialResponse> listRawMaterials() {
+        return rawMaterialService.findAll();
+    }
+}
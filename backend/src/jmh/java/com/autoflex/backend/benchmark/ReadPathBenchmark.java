@@ -0,0 +1,93 @@
+package com.autoflex.backend.benchmark;
+
+import com.autoflex.backend.BackendApplication;
+import com.autoflex.backend.dto.ProductMaterialItemResponse;
+import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.SolverLine;
+import com.autoflex.backend.service.BulkImportService;
+import com.autoflex.backend.solver.SolverModel;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura do catálogo contra um PostgreSQL real: grafo de entidades
+ * ({@code findAllWithProductAndRawMaterial} + compilação) x projeção achatada
+ * ({@code findAllSolverLines}), e BOM de um produto por entidades x projeção em DTO.
+ * <p>
+ * Sobe o contexto Spring sem web com {@code DATABASE_URL}/{@code DATABASE_USERNAME}/{@code DATABASE_PASSWORD}
+ * e, se o catálogo sintético ainda não existir, importa-o pelo {@link BulkImportService} (códigos
+ * {@code BENCH-*}). Use um banco descartável e rode com {@code -prof gc} para comparar a alocação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadPathBenchmark {
+
+    @Param({"10000"})
+    int products;
+
+    @Param({"5"})
+    int materialsPerBom;
+
+    private ConfigurableApplicationContext context;
+    private ProductMaterialRepository repo;
+    private TransactionTemplate readOnly;
+    private UUID productId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.org.hibernate.SQL=WARN");
+        repo = context.getBean(ProductMaterialRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        productId = BenchCatalog.seedIfMissing(context, products, materialsPerBom).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SolverModel solverEntityGraph() {
+        return SolverModel.compile(repo.findAllWithProductAndRawMaterial());
+    }
+
+    @Benchmark
+    public SolverModel solverProjection() {
+        SolverModel.Builder builder = SolverModel.builder();
+        for (SolverLine l : repo.findAllSolverLines()) {
+            builder.addLine(l.productId(), l.productCode(), l.productName(), l.price(),
+                    l.rawMaterialId(), l.stockQuantity(), l.requiredQuantity());
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public List<ProductMaterialItemResponse> bomEntities() {
+        // Caminho antigo: entidades + lazy load de cada matéria-prima dentro da transação
+        return readOnly.execute(status -> repo.findByProductId(productId).stream()
+                .map(pm -> new ProductMaterialItemResponse(pm.getId(), pm.getRawMaterial().getId(),
+                        pm.getRawMaterial().getCode(), pm.getRawMaterial().getName(), pm.getRequiredQuantity()))
+                .toList());
+    }
+
+    @Benchmark
+    public List<ProductMaterialItemResponse> bomProjection() {
+        return repo.findItemsByProductId(productId);
+    }
+}
@@ -0,0 +1,100 @@
+package com.autoflex.backend.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo de startup até a instância ficar pronta ({@code /actuator/health/readiness} = UP, ou seja,
+ * com o snapshot da sugestão já carregado), em um processo novo por medição.
+ * <p>
+ * {@code default} sobe o jar como hoje; {@code fast-start} usa o perfil fast-start, as definições
+ * geradas por AOT e o arquivo AppCDS. Os dois usam o mesmo jar extraído em {@code target/fast-start},
+ * então rode com {@code -Pbenchmark,fast-start} e um PostgreSQL em {@code DATABASE_URL}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private static final Path DIR = Path.of("target", "fast-start");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"default", "fast-start"})
+    String mode;
+
+    private HttpClient client;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        if (!Files.exists(DIR.resolve("application.jsa"))) {
+            throw new IllegalStateException("Missing " + DIR + "; build with -Pbenchmark,fast-start");
+        }
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process == null) return;
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+        process = null;
+    }
+
+    @Benchmark
+    public int startUntilReady() throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        URI readiness = URI.create("http://localhost:" + port + "/actuator/health/readiness");
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.equals("fast-start")) {
+            command.add("-XX:SharedArchiveFile=application.jsa");
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add("backend-0.0.1-SNAPSHOT.jar");
+        command.add("--server.port=" + port);
+        command.add("--spring.jpa.show-sql=false");
+        if (mode.equals("fast-start")) command.add("--spring.profiles.active=fast-start");
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .directory(DIR.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        builder.environment().remove("SPRING_PROFILES_ACTIVE");
+        process = builder.start();
+
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            if (!process.isAlive()) throw new IllegalStateException("Backend exited with " + process.exitValue());
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(readiness).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) return port;
+            } catch (IOException e) {
+                // Ainda sem porta aberta
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("Backend not ready after " + TIMEOUT);
+    }
+}
@@ -0,0 +1,95 @@
+package com.autoflex.backend.benchmark;
+
+import com.autoflex.backend.BackendApplication;
+import com.autoflex.backend.dto.StockAdjustmentBatchResponse;
+import com.autoflex.backend.dto.StockAdjustmentRequest;
+import com.autoflex.backend.dto.StockMovementRequest;
+import com.autoflex.backend.model.StockMovementKind;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import com.autoflex.backend.service.StockAdjustmentService;
+import com.autoflex.backend.service.StockLedgerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Variações de estoque contra um PostgreSQL real: {@code changes} movimentos gravados um por
+ * transação (como um PUT/POST por leitura do coletor) x o mesmo volume em um lote de
+ * {@code POST /api/raw-materials/stock-adjustments}. Metade das variações é débito.
+ * <p>
+ * Usa o catálogo sintético {@code BENCH-*} (importado na primeira vez) e grava movimentos de
+ * verdade: rode em um banco descartável.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StockAdjustmentBenchmark {
+
+    @Param({"500"})
+    int changes;
+
+    @Param({"50"})
+    int materials;
+
+    private ConfigurableApplicationContext context;
+    private StockLedgerService stockLedger;
+    private StockAdjustmentService stockAdjustments;
+    private List<UUID> materialIds;
+    private final String run = UUID.randomUUID().toString().substring(0, 8);
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.org.hibernate.SQL=WARN");
+        stockLedger = context.getBean(StockLedgerService.class);
+        stockAdjustments = context.getBean(StockAdjustmentService.class);
+
+        BenchCatalog.seedIfMissing(context, 10_000, 5);
+        List<String> codes = IntStream.range(0, materials).mapToObj(m -> BenchCatalog.PREFIX + "RM" + m).toList();
+        materialIds = List.copyOf(context.getBean(RawMaterialJdbcRepository.class).findIdsByCodes(codes).values());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int oneMovementPerChange() {
+        for (int i = 0; i < changes; i++) {
+            UUID id = materialIds.get(i % materialIds.size());
+            StockMovementKind kind = debit(i) ? StockMovementKind.CONSUMPTION : StockMovementKind.RECEIPT;
+            stockLedger.record(id, new StockMovementRequest(kind, BigDecimal.ONE, "bench"));
+        }
+        return changes;
+    }
+
+    @Benchmark
+    public StockAdjustmentBatchResponse batch() {
+        List<StockAdjustmentRequest> rows = new ArrayList<>(changes);
+        for (int i = 0; i < changes; i++) {
+            UUID id = materialIds.get(i % materialIds.size());
+            BigDecimal delta = debit(i) ? BigDecimal.ONE.negate() : BigDecimal.ONE;
+            rows.add(new StockAdjustmentRequest(id, null, delta, "bench-" + run + "-" + sequence++, null, "bench"));
+        }
+        return stockAdjustments.apply(rows);
+    }
+
+    // Cada matéria-prima recebe e perde uma unidade em voltas alternadas: o saldo não muda entre as medições
+    private boolean debit(int i) {
+        return (i / materialIds.size()) % 2 == 1;
+    }
+}
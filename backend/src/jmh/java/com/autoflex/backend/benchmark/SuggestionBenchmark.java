@@ -0,0 +1,96 @@
+package com.autoflex.backend.benchmark;
+
+import com.autoflex.backend.dto.ProductionSuggestionResponse;
+import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.SolverLine;
+import com.autoflex.backend.repository.SolverLines;
+import com.autoflex.backend.service.CatalogRevision;
+import com.autoflex.backend.service.ProductionSuggestionService;
+import com.autoflex.backend.solver.GreedySolver;
+import com.autoflex.backend.solver.ProductionPlan;
+import com.autoflex.backend.solver.SolverModel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da sugestão de produção por etapa: compilação do modelo, guloso, varredura do BOM
+ * ({@code maxProducibleUnits}/{@code consumeStock}) e o {@code suggest()} completo, com e sem cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SuggestionBenchmark {
+
+    @Param({"1000", "10000"})
+    int products;
+
+    @Param({"5"})
+    int materialsPerBom;
+
+    @Param({"UNIFORM", "SCARCE"})
+    CatalogGenerator.StockDistribution distribution;
+
+    private CatalogGenerator.Catalog catalog;
+    private SolverModel model;
+    private CatalogRevision revision;
+    private ProductionSuggestionService service;
+
+    @Setup
+    public void setup() {
+        catalog = CatalogGenerator.generate(products, materialsPerBom, distribution, 42);
+        model = SolverModel.compile(catalog.lines());
+        List<SolverLine> lines = SolverLines.of(catalog.lines());
+
+        ProductMaterialRepository repo = RepositoryStubs.stub(ProductMaterialRepository.class,
+                Map.of("findAllSolverLines", args -> lines,
+                        "findAllComponentLines", args -> List.of()));
+        revision = new CatalogRevision();
+        service = new ProductionSuggestionService(repo, revision, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public ProductionSuggestionResponse suggestUncached() {
+        revision.bump();
+        return service.suggest();
+    }
+
+    @Benchmark
+    public ProductionSuggestionResponse suggestCached() {
+        return service.suggest();
+    }
+
+    @Benchmark
+    public SolverModel compileModel() {
+        return SolverModel.compile(catalog.lines());
+    }
+
+    @Benchmark
+    public ProductionPlan greedySolve() {
+        return GreedySolver.solve(model);
+    }
+
+    @Benchmark
+    public void maxProducibleUnits(Blackhole bh) {
+        long[] stock = model.newStock();
+        for (int p = 0; p < model.productCount(); p++) {
+            bh.consume(GreedySolver.maxProducibleUnits(model, p, stock));
+        }
+    }
+
+    @Benchmark
+    public long[] consumeStock() {
+        long[] stock = model.newStock();
+        for (int p = 0; p < model.productCount(); p++) {
+            GreedySolver.consumeStock(model, p, stock, 1);
+        }
+        return stock;
+    }
+}
@@ -0,0 +1,35 @@
+package com.autoflex.backend.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Perfil {@code fast-start} (pods que sobem sob autoscaling): os beans do springdoc viram lazy e
+ * só são criados no primeiro acesso a {@code /v3/api-docs} ou ao Swagger UI, em vez de no startup.
+ * Com AOT, o processamento do build roda com este perfil e grava as definições já lazy.
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    @Bean
+    static BeanFactoryPostProcessor lazySpringdoc() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (fromSpringdoc(definition.getBeanClassName()) || fromSpringdoc(definition.getFactoryBeanName())) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean fromSpringdoc(String name) {
+        return name != null && name.startsWith(SPRINGDOC_PACKAGE);
+    }
+}
@@ -0,0 +1,10 @@
+package com.autoflex.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Snapshots periódicos do razão de estoque (StockLedgerService)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,17 @@
+package com.autoflex.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class SolverPoolConfig {
+
+    // Um só pool para as resoluções em paralelo (cenários, depósitos e valor marginal)
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool solverPool(@Value("${suggestion.scenarios.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
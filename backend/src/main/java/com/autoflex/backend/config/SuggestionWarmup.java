@@ -0,0 +1,53 @@
+package com.autoflex.backend.config;
+
+import com.autoflex.backend.service.ProductionSuggestionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Aquece o snapshot da sugestão logo depois que a aplicação sobe, fora da thread de startup, e
+ * segura a prontidão ({@code /actuator/health/readiness}) até ele existir: o pod só recebe
+ * tráfego quando a primeira sugestão já não paga a carga do catálogo. Se o aquecimento falhar
+ * (banco fora, por exemplo), a próxima checagem de prontidão tenta de novo.
+ */
+@Slf4j
+@Component("suggestionSnapshotHealthIndicator")
+@RequiredArgsConstructor
+public class SuggestionWarmup implements HealthIndicator {
+
+    private final ProductionSuggestionService suggestionService;
+    private final AtomicBoolean warming = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (suggestionService.isWarm() || !warming.compareAndSet(false, true)) return;
+
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                suggestionService.suggest();
+                log.info("Suggestion snapshot warm in {} ms", (System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException e) {
+                log.warn("Suggestion warm-up failed: {}", e.getMessage());
+            } finally {
+                warming.set(false);
+            }
+        }, "suggestion-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public Health health() {
+        if (suggestionService.isWarm()) return Health.up().build();
+        warmUp();
+        return Health.outOfService().withDetail("reason", "suggestion snapshot not loaded yet").build();
+    }
+}
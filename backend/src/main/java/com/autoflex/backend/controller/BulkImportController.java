@@ -0,0 +1,42 @@
+package com.autoflex.backend.controller;
+
+import com.autoflex.backend.dto.BulkImportResponse;
+import com.autoflex.backend.dto.ProductImportRequest;
+import com.autoflex.backend.dto.RawMaterialRequest;
+import com.autoflex.backend.service.BulkImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class BulkImportController {
+
+    private static final String TEXT_CSV = "text/csv";
+
+    private final BulkImportService service;
+
+    @PostMapping(value = "/api/raw-materials:bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResponse importRawMaterials(@RequestBody List<RawMaterialRequest> rows) {
+        return service.importRawMaterials(rows);
+    }
+
+    @PostMapping(value = "/api/raw-materials:bulk", consumes = TEXT_CSV)
+    public BulkImportResponse importRawMaterialsCsv(@RequestBody String csv) {
+        return service.importRawMaterialsCsv(csv);
+    }
+
+    @PostMapping(value = "/api/products:bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResponse importProducts(@RequestBody List<ProductImportRequest> rows) {
+        return service.importProducts(rows);
+    }
+
+    @PostMapping(value = "/api/products:bulk", consumes = TEXT_CSV)
+    public BulkImportResponse importProductsCsv(@RequestBody String csv) {
+        return service.importProductsCsv(csv);
+    }
+}
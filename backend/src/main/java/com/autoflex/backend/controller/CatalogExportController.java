@@ -0,0 +1,87 @@
+package com.autoflex.backend.controller;
+
+import com.autoflex.backend.service.CatalogExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Exportação completa em NDJSON ({@code Accept: application/x-ndjson}) ou CSV (qualquer outro
+ * Accept). O corpo é escrito enquanto o cursor do banco é lido, em resposta chunked.
+ */
+@RestController
+@RequiredArgsConstructor
+public class CatalogExportController {
+
+    private final CatalogExportService service;
+    private final JsonMapper jsonMapper;
+
+    @GetMapping("/api/products:export")
+    public ResponseEntity<StreamingResponseBody> exportProductsCsv() {
+        return csv(out -> {
+            try (CsvWriter writer = new CsvWriter(out, "id", "code", "name", "price")) {
+                service.products(p -> writer.row(p.id(), p.code(), p.name(), p.price()));
+            }
+        });
+    }
+
+    @GetMapping(value = "/api/products:export", produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProductsNdjson() {
+        return ndjson(out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(jsonMapper, out)) {
+                service.products(writer::write);
+            }
+        });
+    }
+
+    @GetMapping("/api/raw-materials:export")
+    public ResponseEntity<StreamingResponseBody> exportRawMaterialsCsv() {
+        return csv(out -> {
+            try (CsvWriter writer = new CsvWriter(out, "id", "code", "name", "stock_quantity")) {
+                service.rawMaterials(rm -> writer.row(rm.id(), rm.code(), rm.name(), rm.stockQuantity()));
+            }
+        });
+    }
+
+    @GetMapping(value = "/api/raw-materials:export", produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRawMaterialsNdjson() {
+        return ndjson(out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(jsonMapper, out)) {
+                service.rawMaterials(writer::write);
+            }
+        });
+    }
+
+    @GetMapping("/api/product-materials:export")
+    public ResponseEntity<StreamingResponseBody> exportProductMaterialsCsv() {
+        return csv(out -> {
+            try (CsvWriter writer = new CsvWriter(out, "id", "product_id", "product_code",
+                    "raw_material_id", "raw_material_code", "required_quantity",
+                    "component_product_id", "component_product_code")) {
+                service.productMaterials(pm -> writer.row(pm.id(), pm.productId(), pm.productCode(),
+                        pm.rawMaterialId(), pm.rawMaterialCode(), pm.requiredQuantity(),
+                        pm.componentProductId(), pm.componentProductCode()));
+            }
+        });
+    }
+
+    @GetMapping(value = "/api/product-materials:export", produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProductMaterialsNdjson() {
+        return ndjson(out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(jsonMapper, out)) {
+                service.productMaterials(writer::write);
+            }
+        });
+    }
+
+    private static ResponseEntity<StreamingResponseBody> csv(StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(CsvWriter.TEXT_CSV).body(body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(NdjsonWriter.APPLICATION_NDJSON).body(body);
+    }
+}
@@ -0,0 +1,64 @@
+package com.autoflex.backend.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * GET condicional pelas revisões do catálogo ({@code CatalogRevision.etag}): se o
+ * {@code If-None-Match} bate com o ETag atual a resposta é 304, antes de qualquer consulta.
+ * <p>
+ * O ETag forte vale para uma representação: quem pede CBOR, Smile ou NDJSON recebe o ETag com o
+ * formato como sufixo, e a resposta leva {@code Vary: Accept}.
+ */
+final class ConditionalGet {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final List<MediaType> VARIANTS = List.of(MediaType.APPLICATION_CBOR, SMILE, NdjsonWriter.APPLICATION_NDJSON);
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Marca a resposta com o ETag e {@code Cache-Control: no-cache} (o navegador guarda e sempre
+     * revalida). Devolve true se já respondeu 304; o controller então retorna {@code null}.
+     */
+    static boolean notModified(ServletWebRequest request, String etag) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return request.checkNotModified(variant(etag, request.getHeader(HttpHeaders.ACCEPT)));
+    }
+
+    // O primeiro tipo aceito (por qualidade) que a aplicação produz decide; JSON mantém o ETag sem sufixo
+    static String variant(String etag, String accept) {
+        if (accept == null || accept.isBlank()) return etag;
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return etag;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) continue;
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) return etag;
+            for (MediaType variant : VARIANTS) {
+                if (type.isCompatibleWith(variant)) {
+                    String suffix = variant.equals(SMILE) ? "smile" : variant.equals(MediaType.APPLICATION_CBOR) ? "cbor" : "ndjson";
+                    return etag.substring(0, etag.length() - 1) + "-" + suffix + "\"";
+                }
+            }
+        }
+        return etag;
+    }
+}
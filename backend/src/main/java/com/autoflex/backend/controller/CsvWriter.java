@@ -0,0 +1,72 @@
+package com.autoflex.backend.controller;
+
+import org.springframework.http.MediaType;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escreve CSV (RFC 4180, UTF-8, fim de linha CRLF) direto no corpo da resposta, com flush a
+ * cada lote. Campos com vírgula, aspas ou quebra de linha vão entre aspas; nulo vira vazio.
+ * Os cabeçalhos seguem as colunas aceitas pela importação em lote.
+ */
+final class CsvWriter implements AutoCloseable {
+
+    static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private static final int FLUSH_EVERY = 256;
+
+    private final BufferedWriter out;
+    private long written;
+
+    CsvWriter(OutputStream out, String... header) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        row((Object[]) header);
+        flush();
+    }
+
+    void row(Object... values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.write(',');
+                Object value = values[i];
+                if (value != null) out.write(escape(value instanceof BigDecimal d ? d.toPlainString() : value.toString()));
+            }
+            out.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (++written % FLUSH_EVERY == 0) flush();
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String escape(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    private void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.autoflex.backend.controller;
+
+import org.springframework.http.MediaType;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+
+/**
+ * Escreve um registro JSON por linha (NDJSON) direto no corpo da resposta, com flush a cada
+ * lote para que o cliente receba os primeiros registros sem esperar o fim.
+ */
+final class NdjsonWriter implements AutoCloseable {
+
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int FLUSH_EVERY = 256;
+
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+    private long written;
+
+    NdjsonWriter(JsonMapper jsonMapper, OutputStream out) {
+        this.writer = jsonMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        this.generator = writer.createGenerator(out);
+    }
+
+    void write(Object record) {
+        writer.writeValue(generator, record);
+        written++;
+        // Primeiro registro sai imediatamente; depois em lotes
+        if (written == 1 || written % FLUSH_EVERY == 0) generator.flush();
+    }
+
+    @Override
+    public void close() {
+        if (written > 0) generator.writeRaw('\n');
+        generator.close();
+    }
+}
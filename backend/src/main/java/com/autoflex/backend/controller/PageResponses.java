@@ -0,0 +1,32 @@
+package com.autoflex.backend.controller;
+
+import com.autoflex.backend.repository.Keyset;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Resposta das listagens paginadas: o corpo continua sendo o array de itens e o cursor
+ * da próxima página vai em {@code X-Next-Cursor} e num {@code Link rel="next"}.
+ */
+public final class PageResponses {
+
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private PageResponses() {
+    }
+
+    static <T> ResponseEntity<List<T>> ok(Keyset.Page<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            response.header(NEXT_CURSOR, page.nextCursor())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
+    }
+}
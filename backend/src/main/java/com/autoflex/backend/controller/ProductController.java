@@ -1,11 +1,15 @@
 package com.autoflex.backend.controller;
 
+import com.autoflex.backend.dto.ProductListQuery;
 import com.autoflex.backend.dto.ProductRequest;
 import com.autoflex.backend.dto.ProductResponse;
+import com.autoflex.backend.service.CatalogRevision;
 import com.autoflex.backend.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,6 +20,7 @@ import java.util.UUID;
 public class ProductController {
 
     private final ProductService service;
+    private final CatalogRevision catalogRevision;
 
     @PostMapping
     public ProductResponse create(@RequestBody @Valid ProductRequest request) {
@@ -23,8 +28,9 @@ public class ProductController {
     }
 
     @GetMapping
-    public List<ProductResponse> list() {
-        return service.findAll();
+    public ResponseEntity<List<ProductResponse>> list(ProductListQuery query, ServletWebRequest request) {
+        if (ConditionalGet.notModified(request, catalogRevision.etag(CatalogRevision.Table.PRODUCTS))) return null;
+        return PageResponses.ok(service.list(query));
     }
 
     @GetMapping("/{id}")
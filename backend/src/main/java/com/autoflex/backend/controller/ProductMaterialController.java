@@ -2,10 +2,12 @@ package com.autoflex.backend.controller;
 
 import com.autoflex.backend.dto.ProductMaterialItemRequest;
 import com.autoflex.backend.dto.ProductMaterialItemResponse;
+import com.autoflex.backend.service.CatalogRevision;
 import com.autoflex.backend.service.ProductMaterialService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,6 +18,7 @@ import java.util.UUID;
 public class ProductMaterialController {
 
     private final ProductMaterialService service;
+    private final CatalogRevision catalogRevision;
 
     @PutMapping
     public List<ProductMaterialItemResponse> replace(
@@ -26,7 +29,11 @@ public class ProductMaterialController {
     }
 
     @GetMapping
-    public List<ProductMaterialItemResponse> list(@PathVariable UUID productId) {
+    public List<ProductMaterialItemResponse> list(@PathVariable UUID productId, ServletWebRequest request) {
+        // Os itens trazem código e nome da matéria-prima ou do produto usado como submontagem
+        String etag = catalogRevision.etag(CatalogRevision.Table.PRODUCT_MATERIALS,
+                CatalogRevision.Table.RAW_MATERIALS, CatalogRevision.Table.PRODUCTS);
+        if (ConditionalGet.notModified(request, etag)) return null;
         return service.listMaterials(productId);
     }
 }
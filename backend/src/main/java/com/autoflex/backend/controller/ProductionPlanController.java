@@ -0,0 +1,44 @@
+package com.autoflex.backend.controller;
+
+import com.autoflex.backend.dto.ProductionPlanItemRequest;
+import com.autoflex.backend.dto.ProductionPlanRequest;
+import com.autoflex.backend.dto.ProductionPlanResponse;
+import com.autoflex.backend.dto.SuggestionMode;
+import com.autoflex.backend.model.Warehouse;
+import com.autoflex.backend.service.ProductionPlanService;
+import com.autoflex.backend.service.SiteSuggestionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/production-plans")
+@RequiredArgsConstructor
+public class ProductionPlanController {
+
+    private final ProductionPlanService service;
+    private final SiteSuggestionService siteSuggestionService;
+    private final SuggestionBudget suggestionBudget;
+
+    // Sem itens no corpo, efetiva a sugestão atual do depósito (calculada fora da transação de baixa).
+    // Sem depósito, vale o principal: a sugestão precisa ser do mesmo estoque de onde sai a baixa.
+    @PostMapping
+    public ProductionPlanResponse commit(
+            @RequestBody(required = false) @Valid ProductionPlanRequest request,
+            @RequestParam(defaultValue = "greedy") String mode,
+            @RequestParam(required = false) Long budgetMs,
+            @RequestParam(required = false) UUID warehouseId
+    ) {
+        UUID warehouse = warehouseId == null ? Warehouse.DEFAULT_ID : warehouseId;
+        List<ProductionPlanItemRequest> items = request == null || request.items() == null || request.items().isEmpty()
+                ? siteSuggestionService.suggest(warehouse, SuggestionMode.from(mode), suggestionBudget.resolve(budgetMs))
+                    .items().stream()
+                    .map(item -> new ProductionPlanItemRequest(item.productId(), item.suggestedQuantity()))
+                    .toList()
+                : request.items();
+        return service.commit(items, warehouse);
+    }
+}
@@ -1,9 +1,30 @@
 package com.autoflex.backend.controller;
 
+import com.autoflex.backend.dto.BottleneckResponse;
+import com.autoflex.backend.dto.MarginalValuesResponse;
 import com.autoflex.backend.dto.ProductionSuggestionResponse;
+import com.autoflex.backend.dto.ProductionSuggestionSummaryResponse;
+import com.autoflex.backend.dto.ScenarioBatchRequest;
+import com.autoflex.backend.dto.ScenarioComparisonResponse;
+import com.autoflex.backend.dto.SiteSuggestionsResponse;
+import com.autoflex.backend.dto.SuggestionMode;
+import com.autoflex.backend.service.CatalogRevision;
+import com.autoflex.backend.service.MarginalValueService;
+import com.autoflex.backend.service.MaterialUsageService;
+import com.autoflex.backend.service.ProductionScenarioService;
 import com.autoflex.backend.service.ProductionSuggestionService;
+import com.autoflex.backend.service.SiteSuggestionService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/production-suggestions")
@@ -11,9 +32,102 @@ import org.springframework.web.bind.annotation.*;
 public class ProductionSuggestionController {
 
     private final ProductionSuggestionService service;
+    private final ProductionScenarioService scenarioService;
+    private final MaterialUsageService materialUsageService;
+    private final MarginalValueService marginalValueService;
+    private final SiteSuggestionService siteSuggestionService;
+    private final JsonMapper jsonMapper;
+    private final SuggestionBudget suggestionBudget;
+    private final CatalogRevision catalogRevision;
 
     @GetMapping
-    public ProductionSuggestionResponse suggest() {
-        return service.suggest();
+    public ProductionSuggestionResponse suggest(
+            @RequestParam(defaultValue = "greedy") String mode,
+            @RequestParam(required = false) Long budgetMs,
+            @RequestParam(required = false) UUID warehouseId,
+            ServletWebRequest request
+    ) {
+        if (ConditionalGet.notModified(request, planEtag(warehouseId))) return null;
+        // Com depósito, só o estoque dele entra no plano
+        if (warehouseId != null) {
+            return siteSuggestionService.suggest(warehouseId, SuggestionMode.from(mode), suggestionBudget.resolve(budgetMs));
+        }
+        return service.suggest(SuggestionMode.from(mode), suggestionBudget.resolve(budgetMs));
+    }
+
+    // Todos os depósitos, resolvidos em paralelo, com os itens somados por produto
+    @GetMapping(params = "warehouseId=all")
+    public SiteSuggestionsResponse suggestAll(
+            @RequestParam(defaultValue = "greedy") String mode,
+            @RequestParam(required = false) Long budgetMs,
+            ServletWebRequest request
+    ) {
+        String etag = catalogRevision.etag(CatalogRevision.Table.PRODUCTS, CatalogRevision.Table.PRODUCT_MATERIALS,
+                CatalogRevision.Table.WAREHOUSES, CatalogRevision.Table.STOCK_MOVEMENTS);
+        if (ConditionalGet.notModified(request, etag)) return null;
+        return siteSuggestionService.suggestAll(SuggestionMode.from(mode), suggestionBudget.resolve(budgetMs));
+    }
+
+    // Matérias-primas que limitam o plano guloso atual e quanto cada uma bloqueia
+    @GetMapping("/bottlenecks")
+    public List<BottleneckResponse> bottlenecks(ServletWebRequest request) {
+        String etag = catalogRevision.etag(CatalogRevision.Table.PRODUCTS, CatalogRevision.Table.RAW_MATERIALS,
+                CatalogRevision.Table.PRODUCT_MATERIALS, CatalogRevision.Table.STOCK_MOVEMENTS);
+        if (ConditionalGet.notModified(request, etag)) return null;
+        return materialUsageService.bottlenecks();
+    }
+
+    // Valor de uma unidade a mais de cada matéria-prima (preço-sombra), do maior para o menor
+    @GetMapping("/marginal-values")
+    public MarginalValuesResponse marginalValues(@RequestParam(required = false) Long budgetMs,
+                                                 ServletWebRequest request) {
+        String etag = catalogRevision.etag(CatalogRevision.Table.PRODUCTS, CatalogRevision.Table.RAW_MATERIALS,
+                CatalogRevision.Table.PRODUCT_MATERIALS, CatalogRevision.Table.STOCK_MOVEMENTS);
+        if (ConditionalGet.notModified(request, etag)) return null;
+        return marginalValueService.marginalValues(suggestionBudget.resolve(budgetMs));
+    }
+
+    // Uma linha por item, na ordem de prioridade, e o resumo com o total por último
+    @GetMapping(produces = NdjsonWriter.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream(
+            @RequestParam(defaultValue = "greedy") String mode,
+            @RequestParam(required = false) Long budgetMs,
+            @RequestParam(required = false) UUID warehouseId,
+            ServletWebRequest request
+    ) {
+        if (ConditionalGet.notModified(request, planEtag(warehouseId))) return null;
+        SuggestionMode suggestionMode = SuggestionMode.from(mode);
+        Duration budget = suggestionBudget.resolve(budgetMs);
+        // Depois do primeiro byte não dá mais para responder 404
+        if (warehouseId != null) siteSuggestionService.requireSite(warehouseId);
+
+        StreamingResponseBody body = out -> {
+            try (NdjsonWriter writer = new NdjsonWriter(jsonMapper, out)) {
+                ProductionSuggestionSummaryResponse summary = warehouseId == null
+                        ? service.stream(suggestionMode, budget, writer::write)
+                        : siteSuggestionService.stream(warehouseId, suggestionMode, budget, writer::write);
+                writer.write(summary);
+            }
+        };
+        return ResponseEntity.ok().contentType(NdjsonWriter.APPLICATION_NDJSON).body(body);
+    }
+
+    // O plano só mostra produtos (preço e BOM) e usa o estoque de um depósito ou de todos
+    private String planEtag(UUID warehouseId) {
+        if (warehouseId == null) {
+            return catalogRevision.etag(CatalogRevision.Table.PRODUCTS, CatalogRevision.Table.PRODUCT_MATERIALS,
+                    CatalogRevision.Table.STOCK_MOVEMENTS);
+        }
+        return catalogRevision.etag(warehouseId, CatalogRevision.Table.PRODUCTS, CatalogRevision.Table.PRODUCT_MATERIALS);
+    }
+
+    // Cenários "e se" sobre o catálogo atual; o orçamento do modo optimal vale por cenário
+    @PostMapping("/scenarios")
+    public ScenarioComparisonResponse simulate(
+            @RequestBody @Valid ScenarioBatchRequest request,
+            @RequestParam(defaultValue = "greedy") String mode,
+            @RequestParam(required = false) Long budgetMs
+    ) {
+        return scenarioService.simulate(request.scenarios(), SuggestionMode.from(mode), suggestionBudget.resolve(budgetMs));
     }
 }
@@ -1,12 +1,26 @@
 package com.autoflex.backend.controller;
 
+import com.autoflex.backend.dto.RawMaterialListQuery;
 import com.autoflex.backend.dto.RawMaterialRequest;
 import com.autoflex.backend.dto.RawMaterialResponse;
+import com.autoflex.backend.dto.RawMaterialUsageResponse;
+import com.autoflex.backend.dto.StockAdjustmentBatchResponse;
+import com.autoflex.backend.dto.StockAdjustmentRequest;
+import com.autoflex.backend.dto.StockMovementRequest;
+import com.autoflex.backend.dto.StockMovementResponse;
+import com.autoflex.backend.service.CatalogRevision;
+import com.autoflex.backend.service.MaterialUsageService;
 import com.autoflex.backend.service.RawMaterialService;
+import com.autoflex.backend.service.StockAdjustmentService;
+import com.autoflex.backend.service.StockLedgerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,6 +30,10 @@ import java.util.UUID;
 public class RawMaterialController {
 
     private final RawMaterialService service;
+    private final CatalogRevision catalogRevision;
+    private final StockLedgerService stockLedger;
+    private final MaterialUsageService materialUsageService;
+    private final StockAdjustmentService stockAdjustments;
 
     @PostMapping
     public RawMaterialResponse create(@RequestBody @Valid RawMaterialRequest request) {
@@ -23,8 +41,16 @@ public class RawMaterialController {
     }
 
     @GetMapping
-    public List<RawMaterialResponse> list() {
-        return service.findAll();
+    public ResponseEntity<List<RawMaterialResponse>> list(RawMaterialListQuery query, ServletWebRequest request) {
+        String etag = catalogRevision.etag(CatalogRevision.Table.RAW_MATERIALS, CatalogRevision.Table.STOCK_MOVEMENTS);
+        if (ConditionalGet.notModified(request, etag)) return null;
+        return PageResponses.ok(service.list(query));
+    }
+
+    // Estoque histórico: saldo de cada matéria-prima no instante informado (ISO-8601)
+    @GetMapping("/stock")
+    public List<RawMaterialResponse> stockAt(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime at) {
+        return stockLedger.stockAt(at);
     }
 
     @GetMapping("/{id}")
@@ -37,6 +63,31 @@ public class RawMaterialController {
         return service.update(id, request);
     }
 
+    @GetMapping("/{id}/movements")
+    public List<StockMovementResponse> movements(@PathVariable UUID id, @RequestParam(required = false) Integer limit) {
+        return stockLedger.history(id, limit);
+    }
+
+    // Produtos que usam a matéria-prima (BOM explodido) e quanto o plano atual consome dela
+    @GetMapping("/{id}/usage")
+    public RawMaterialUsageResponse usage(@PathVariable UUID id, ServletWebRequest request) {
+        String etag = catalogRevision.etag(CatalogRevision.Table.PRODUCTS, CatalogRevision.Table.RAW_MATERIALS,
+                CatalogRevision.Table.PRODUCT_MATERIALS, CatalogRevision.Table.STOCK_MOVEMENTS);
+        if (ConditionalGet.notModified(request, etag)) return null;
+        return materialUsageService.usage(id);
+    }
+
+    @PostMapping("/{id}/movements")
+    public StockMovementResponse recordMovement(@PathVariable UUID id, @RequestBody @Valid StockMovementRequest request) {
+        return stockLedger.record(id, request);
+    }
+
+    // Lote de variações dos coletores, com chave de idempotência por linha (reenvio seguro)
+    @PostMapping("/stock-adjustments")
+    public StockAdjustmentBatchResponse adjustStock(@RequestBody List<StockAdjustmentRequest> adjustments) {
+        return stockAdjustments.apply(adjustments);
+    }
+
     @DeleteMapping("/{id}")
     public void delete(@PathVariable UUID id) {
         service.delete(id);
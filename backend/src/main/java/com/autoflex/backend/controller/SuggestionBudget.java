@@ -0,0 +1,38 @@
+package com.autoflex.backend.controller;
+
+import com.autoflex.backend.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Orçamento de tempo do modo optimal: padrão e teto configuráveis em {@code suggestion.optimal}.
+ * Jobs assíncronos não seguram a requisição, então têm um teto próprio ({@code suggestion.jobs}).
+ */
+@Component
+class SuggestionBudget {
+
+    @Value("${suggestion.optimal.default-budget-ms:2000}")
+    private long defaultBudgetMs;
+
+    @Value("${suggestion.optimal.max-budget-ms:30000}")
+    private long maxBudgetMs;
+
+    @Value("${suggestion.jobs.max-budget-ms:300000}")
+    private long maxJobBudgetMs;
+
+    Duration resolve(Long budgetMs) {
+        return resolve(budgetMs, maxBudgetMs);
+    }
+
+    Duration resolveForJob(Long budgetMs) {
+        return resolve(budgetMs, maxJobBudgetMs);
+    }
+
+    private Duration resolve(Long budgetMs, long max) {
+        if (budgetMs == null) return Duration.ofMillis(defaultBudgetMs);
+        if (budgetMs <= 0) throw new BadRequestException("budgetMs must be positive");
+        return Duration.ofMillis(Math.min(budgetMs, max));
+    }
+}
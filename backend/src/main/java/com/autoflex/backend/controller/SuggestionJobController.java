@@ -0,0 +1,44 @@
+package com.autoflex.backend.controller;
+
+import com.autoflex.backend.dto.SuggestionJobResponse;
+import com.autoflex.backend.dto.SuggestionMode;
+import com.autoflex.backend.service.SuggestionJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/production-suggestions/jobs")
+@RequiredArgsConstructor
+public class SuggestionJobController {
+
+    private final SuggestionJobService service;
+    private final SuggestionBudget suggestionBudget;
+
+    // Responde na hora com o id; o cálculo roda no pool de jobs
+    @PostMapping
+    public ResponseEntity<SuggestionJobResponse> submit(
+            @RequestParam(defaultValue = "greedy") String mode,
+            @RequestParam(required = false) Long budgetMs,
+            @RequestParam(required = false) UUID warehouseId
+    ) {
+        SuggestionJobResponse job = service.submit(SuggestionMode.from(mode),
+                suggestionBudget.resolveForJob(budgetMs), warehouseId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/production-suggestions/jobs/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping("/{id}")
+    public SuggestionJobResponse get(@PathVariable UUID id) {
+        return service.get(id);
+    }
+
+    @DeleteMapping("/{id}")
+    public SuggestionJobResponse cancel(@PathVariable UUID id) {
+        return service.cancel(id);
+    }
+}
@@ -0,0 +1,28 @@
+package com.autoflex.backend.controller;
+
+import com.autoflex.backend.dto.WarehouseRequest;
+import com.autoflex.backend.dto.WarehouseResponse;
+import com.autoflex.backend.service.WarehouseService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/warehouses")
+@RequiredArgsConstructor
+public class WarehouseController {
+
+    private final WarehouseService service;
+
+    @GetMapping
+    public List<WarehouseResponse> list() {
+        return service.findAll();
+    }
+
+    @PostMapping
+    public WarehouseResponse create(@RequestBody @Valid WarehouseRequest request) {
+        return service.create(request);
+    }
+}
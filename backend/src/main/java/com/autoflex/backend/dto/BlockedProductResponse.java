@@ -0,0 +1,17 @@
+package com.autoflex.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Produto que não sai mais uma unidade por falta da matéria-prima. {@code soleConstraint} indica
+ * que ela é a única que falta: repor {@code missingQuantity} libera mais uma unidade.
+ */
+public record BlockedProductResponse(
+        UUID productId,
+        String productCode,
+        String productName,
+        BigDecimal missingQuantity,
+        BigDecimal unitValue,
+        boolean soleConstraint
+) {}
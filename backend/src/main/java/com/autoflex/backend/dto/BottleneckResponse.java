@@ -0,0 +1,20 @@
+package com.autoflex.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Matéria-prima limitante no plano atual: sobra menos do que uma unidade de algum produto que a usa.
+ * {@code blockedValue} soma o preço de uma unidade dos produtos em que ela é a única restrição.
+ */
+public record BottleneckResponse(
+        UUID rawMaterialId,
+        String rawMaterialCode,
+        String rawMaterialName,
+        BigDecimal stockQuantity,
+        BigDecimal consumedQuantity,
+        BigDecimal remainingQuantity,
+        BigDecimal blockedValue,
+        List<BlockedProductResponse> blockedProducts
+) {}
@@ -0,0 +1,7 @@
+package com.autoflex.backend.dto;
+
+public record BulkImportError(
+        int row,
+        String code,
+        String message
+) {}
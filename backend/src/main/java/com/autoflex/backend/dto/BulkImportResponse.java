@@ -0,0 +1,9 @@
+package com.autoflex.backend.dto;
+
+import java.util.List;
+
+public record BulkImportResponse(
+        int received,
+        int imported,
+        List<BulkImportError> errors
+) {}
@@ -0,0 +1,18 @@
+package com.autoflex.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/** Como os valores marginais foram obtidos. */
+public enum MarginalValueMethod {
+    /** Preços-sombra (duais) da relaxação linear, em uma resolução do simplex. */
+    LP_DUAL,
+    /** Fallback para catálogos grandes demais para o tableau: guloso com estoque perturbado, em paralelo. */
+    GREEDY_PERTURBATION;
+
+    @JsonValue
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,9 @@
+package com.autoflex.backend.dto;
+
+import java.util.List;
+
+/** Valores marginais de todas as matérias-primas usadas em BOMs, do maior para o menor. */
+public record MarginalValuesResponse(
+        MarginalValueMethod method,
+        List<MaterialMarginalValueResponse> materials
+) {}
@@ -0,0 +1,11 @@
+package com.autoflex.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record MaterialConsumptionResponse(
+        UUID rawMaterialId,
+        String rawMaterialCode,
+        BigDecimal consumed,
+        BigDecimal remainingStock
+) {}
@@ -0,0 +1,13 @@
+package com.autoflex.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** Quanto uma unidade a mais da matéria-prima acrescenta ao valor da produção. */
+public record MaterialMarginalValueResponse(
+        UUID rawMaterialId,
+        String rawMaterialCode,
+        String rawMaterialName,
+        BigDecimal stockQuantity,
+        BigDecimal marginalValue
+) {}
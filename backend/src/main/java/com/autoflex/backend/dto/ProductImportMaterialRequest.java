@@ -0,0 +1,12 @@
+package com.autoflex.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+public record ProductImportMaterialRequest(
+        @NotBlank String rawMaterialCode,
+        @NotNull @Positive BigDecimal requiredQuantity
+) {}
@@ -0,0 +1,16 @@
+package com.autoflex.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ProductImportRequest(
+        @NotBlank String code,
+        @NotBlank String name,
+        @NotNull @Positive BigDecimal price,
+        List<@Valid @NotNull ProductImportMaterialRequest> materials
+) {}
@@ -0,0 +1,7 @@
+package com.autoflex.backend.dto;
+
+/**
+ * Parâmetros de {@code GET /api/products}: prefixos de código/nome, ordenação
+ * ({@code code|name|price[,asc|desc]}), cursor da página anterior e tamanho da página.
+ */
+public record ProductListQuery(String code, String name, String sort, String cursor, Integer limit) {}
@@ -0,0 +1,21 @@
+package com.autoflex.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** Linha de BOM exportada; nas submontagens os campos de matéria-prima vêm nulos e os de componente preenchidos. */
+public record ProductMaterialExportResponse(
+        UUID id,
+        UUID productId,
+        String productCode,
+        UUID rawMaterialId,
+        String rawMaterialCode,
+        BigDecimal requiredQuantity,
+        UUID componentProductId,
+        String componentProductCode
+) {
+    public ProductMaterialExportResponse(UUID id, UUID productId, String productCode, UUID rawMaterialId,
+                                         String rawMaterialCode, BigDecimal requiredQuantity) {
+        this(id, productId, productCode, rawMaterialId, rawMaterialCode, requiredQuantity, null, null);
+    }
+}
@@ -6,7 +6,13 @@ import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 import java.util.UUID;
 
+/** Linha de BOM: uma matéria-prima ou, com {@code componentProductId}, uma submontagem (quantidade inteira). */
 public record ProductMaterialItemRequest(
-        @NotNull UUID rawMaterialId,
+        UUID rawMaterialId,
+        UUID componentProductId,
         @NotNull @Positive BigDecimal requiredQuantity
-) {}
+) {
+    public ProductMaterialItemRequest(UUID rawMaterialId, BigDecimal requiredQuantity) {
+        this(rawMaterialId, null, requiredQuantity);
+    }
+}
@@ -3,10 +3,19 @@ package com.autoflex.backend.dto;
 import java.math.BigDecimal;
 import java.util.UUID;
 
+/** Linha de BOM; nas submontagens os campos de matéria-prima vêm nulos e os de componente preenchidos. */
 public record ProductMaterialItemResponse(
         UUID id,
         UUID rawMaterialId,
         String rawMaterialCode,
         String rawMaterialName,
-        BigDecimal requiredQuantity
-) {}
+        BigDecimal requiredQuantity,
+        UUID componentProductId,
+        String componentProductCode,
+        String componentProductName
+) {
+    public ProductMaterialItemResponse(UUID id, UUID rawMaterialId, String rawMaterialCode, String rawMaterialName,
+                                       BigDecimal requiredQuantity) {
+        this(id, rawMaterialId, rawMaterialCode, rawMaterialName, requiredQuantity, null, null, null);
+    }
+}
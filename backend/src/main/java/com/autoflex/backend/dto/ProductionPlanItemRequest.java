@@ -0,0 +1,11 @@
+package com.autoflex.backend.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.util.UUID;
+
+public record ProductionPlanItemRequest(
+        @NotNull UUID productId,
+        @NotNull @Positive Integer quantity
+) {}
@@ -0,0 +1,11 @@
+package com.autoflex.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/** Plano a efetivar; sem itens, a sugestão de produção atual é usada. */
+public record ProductionPlanRequest(
+        List<@Valid @NotNull ProductionPlanItemRequest> items
+) {}
@@ -0,0 +1,10 @@
+package com.autoflex.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ProductionPlanResponse(
+        List<ProductionSuggestionItemResponse> items,
+        BigDecimal totalValue,
+        List<MaterialConsumptionResponse> consumption
+) {}
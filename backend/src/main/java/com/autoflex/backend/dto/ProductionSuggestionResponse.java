@@ -1,9 +1,19 @@
 package com.autoflex.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.math.BigDecimal;
 import java.util.List;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record ProductionSuggestionResponse(
         List<ProductionSuggestionItemResponse> items,
-        BigDecimal totalValue
-) {}
+        BigDecimal totalValue,
+        SuggestionMode mode,
+        BigDecimal upperBound,
+        BigDecimal optimalityGap
+) {
+    public ProductionSuggestionResponse(List<ProductionSuggestionItemResponse> items, BigDecimal totalValue) {
+        this(items, totalValue, SuggestionMode.GREEDY, null, null);
+    }
+}
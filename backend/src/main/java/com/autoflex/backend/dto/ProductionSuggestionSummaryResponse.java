@@ -0,0 +1,14 @@
+package com.autoflex.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductionSuggestionSummaryResponse(
+        int itemCount,
+        BigDecimal totalValue,
+        SuggestionMode mode,
+        BigDecimal upperBound,
+        BigDecimal optimalityGap
+) {}
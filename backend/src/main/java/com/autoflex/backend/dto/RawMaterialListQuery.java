@@ -0,0 +1,10 @@
+package com.autoflex.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Parâmetros de {@code GET /api/raw-materials}: prefixos de código/nome, faixa de estoque,
+ * ordenação ({@code code|name|stockQuantity[,asc|desc]}), cursor e tamanho da página.
+ */
+public record RawMaterialListQuery(String code, String name, BigDecimal minStock, BigDecimal maxStock,
+                                   String sort, String cursor, Integer limit) {}
@@ -0,0 +1,14 @@
+package com.autoflex.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** Produto que usa a matéria-prima: quantidade por unidade (BOM explodido) e o que o plano atual consome. */
+public record RawMaterialUsageItemResponse(
+        UUID productId,
+        String productCode,
+        String productName,
+        BigDecimal requiredQuantity,
+        int plannedQuantity,
+        BigDecimal plannedConsumption
+) {}
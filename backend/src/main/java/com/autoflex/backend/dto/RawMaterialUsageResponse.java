@@ -0,0 +1,14 @@
+package com.autoflex.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public record RawMaterialUsageResponse(
+        UUID rawMaterialId,
+        String rawMaterialCode,
+        String rawMaterialName,
+        BigDecimal stockQuantity,
+        BigDecimal plannedConsumption,
+        List<RawMaterialUsageItemResponse> products
+) {}
@@ -0,0 +1,12 @@
+package com.autoflex.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ScenarioBatchRequest(
+        @NotEmpty @Size(max = 100) List<@Valid @NotNull ScenarioRequest> scenarios
+) {}
@@ -0,0 +1,10 @@
+package com.autoflex.backend.dto;
+
+import java.util.List;
+
+/** Plano atual, plano de cada cenário e o nome do cenário de maior valor total. */
+public record ScenarioComparisonResponse(
+        ProductionSuggestionResponse baseline,
+        List<ScenarioResultResponse> scenarios,
+        String bestScenario
+) {}
@@ -0,0 +1,11 @@
+package com.autoflex.backend.dto;
+
+import java.util.UUID;
+
+public record ScenarioItemChange(
+        UUID productId,
+        String productCode,
+        String productName,
+        int baselineQuantity,
+        int scenarioQuantity
+) {}
@@ -0,0 +1,13 @@
+package com.autoflex.backend.dto;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record ScenarioPriceOverride(
+        @NotNull UUID productId,
+        @NotNull @Positive @Digits(integer = 10, fraction = 2) BigDecimal price
+) {}
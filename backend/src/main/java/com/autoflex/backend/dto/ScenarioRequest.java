@@ -0,0 +1,12 @@
+package com.autoflex.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record ScenarioRequest(
+        String name,
+        List<@Valid @NotNull ScenarioStockOverride> stock,
+        List<@Valid @NotNull ScenarioPriceOverride> prices
+) {}
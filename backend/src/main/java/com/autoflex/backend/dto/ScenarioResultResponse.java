@@ -0,0 +1,11 @@
+package com.autoflex.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ScenarioResultResponse(
+        String name,
+        ProductionSuggestionResponse plan,
+        BigDecimal valueDelta,
+        List<ScenarioItemChange> changes
+) {}
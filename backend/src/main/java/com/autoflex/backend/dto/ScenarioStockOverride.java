@@ -0,0 +1,15 @@
+package com.autoflex.backend.dto;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** Estoque hipotético: valor absoluto ({@code stockQuantity}) ou variação ({@code delta}). */
+public record ScenarioStockOverride(
+        @NotNull UUID rawMaterialId,
+        @PositiveOrZero @Digits(integer = 11, fraction = 3) BigDecimal stockQuantity,
+        @Digits(integer = 11, fraction = 3) BigDecimal delta
+) {}
@@ -0,0 +1,10 @@
+package com.autoflex.backend.dto;
+
+import java.util.UUID;
+
+public record SiteSuggestionResponse(
+        UUID warehouseId,
+        String warehouseCode,
+        String warehouseName,
+        ProductionSuggestionResponse suggestion
+) {}
@@ -0,0 +1,12 @@
+package com.autoflex.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** Sugestão de todos os depósitos: itens somados por produto e o plano de cada depósito. */
+public record SiteSuggestionsResponse(
+        List<ProductionSuggestionItemResponse> items,
+        BigDecimal totalValue,
+        SuggestionMode mode,
+        List<SiteSuggestionResponse> sites
+) {}
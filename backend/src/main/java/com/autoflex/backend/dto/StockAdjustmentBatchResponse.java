@@ -0,0 +1,10 @@
+package com.autoflex.backend.dto;
+
+import java.util.List;
+
+public record StockAdjustmentBatchResponse(
+        int received,
+        int applied,
+        List<String> duplicateKeys,
+        List<StockAdjustmentError> errors
+) {}
@@ -0,0 +1,7 @@
+package com.autoflex.backend.dto;
+
+public record StockAdjustmentError(
+        int row,
+        String idempotencyKey,
+        String message
+) {}
@@ -0,0 +1,23 @@
+package com.autoflex.backend.dto;
+
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Variação de estoque vinda de um coletor: {@code delta} positivo é entrada, negativo é consumo.
+ * A matéria-prima vem por {@code rawMaterialId} ou por {@code code} (o id prevalece). Sem
+ * {@code warehouseId}, vale o depósito principal.
+ */
+public record StockAdjustmentRequest(
+        UUID rawMaterialId,
+        String code,
+        @NotNull @Digits(integer = 11, fraction = 3) BigDecimal delta,
+        @NotBlank @Size(max = 100) String idempotencyKey,
+        UUID warehouseId,
+        @Size(max = 255) String reference
+) {}
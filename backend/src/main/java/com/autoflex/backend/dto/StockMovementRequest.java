@@ -0,0 +1,23 @@
+package com.autoflex.backend.dto;
+
+import com.autoflex.backend.model.StockMovementKind;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Movimento manual de estoque. {@code RECEIPT} e {@code CONSUMPTION} recebem quantidade positiva;
+ * {@code ADJUSTMENT} recebe a diferença com sinal. Sem {@code warehouseId}, vale o depósito principal.
+ */
+public record StockMovementRequest(
+        @NotNull StockMovementKind kind,
+        @NotNull BigDecimal quantity,
+        @Size(max = 255) String reference,
+        UUID warehouseId
+) {
+    public StockMovementRequest(StockMovementKind kind, BigDecimal quantity, String reference) {
+        this(kind, quantity, reference, null);
+    }
+}
@@ -0,0 +1,17 @@
+package com.autoflex.backend.dto;
+
+import com.autoflex.backend.model.StockMovementKind;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record StockMovementResponse(
+        Long id,
+        UUID rawMaterialId,
+        UUID warehouseId,
+        StockMovementKind kind,
+        BigDecimal quantity,
+        String reference,
+        OffsetDateTime createdAt
+) {}
@@ -0,0 +1,11 @@
+package com.autoflex.backend.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record StockShortage(
+        UUID rawMaterialId,
+        String rawMaterialCode,
+        BigDecimal required,
+        BigDecimal available
+) {}
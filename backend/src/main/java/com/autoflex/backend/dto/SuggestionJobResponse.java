@@ -0,0 +1,28 @@
+package com.autoflex.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Estado de um job de sugestão. {@code progress} vai de 0 a 1 (fração do orçamento já usada no
+ * modo optimal); {@code bestValue} é o valor do melhor plano encontrado até o momento.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SuggestionJobResponse(
+        UUID id,
+        SuggestionJobStatus status,
+        SuggestionMode mode,
+        UUID warehouseId,
+        long catalogVersion,
+        double progress,
+        Long nodesExplored,
+        BigDecimal bestValue,
+        OffsetDateTime createdAt,
+        OffsetDateTime startedAt,
+        OffsetDateTime finishedAt,
+        ProductionSuggestionResponse result,
+        String error
+) {}
@@ -0,0 +1,23 @@
+package com.autoflex.backend.dto;
+
+import com.autoflex.backend.exception.BadRequestException;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+public enum SuggestionMode {
+    GREEDY,
+    OPTIMAL;
+
+    @JsonValue
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static SuggestionMode from(String value) {
+        for (SuggestionMode mode : values()) {
+            if (mode.value().equalsIgnoreCase(value.trim())) return mode;
+        }
+        throw new BadRequestException("Invalid suggestion mode: " + value);
+    }
+}
@@ -0,0 +1,9 @@
+package com.autoflex.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record WarehouseRequest(
+        @NotBlank @Size(max = 50) String code,
+        @NotBlank @Size(max = 255) String name
+) {}
@@ -0,0 +1,5 @@
+package com.autoflex.backend.dto;
+
+import java.util.UUID;
+
+public record WarehouseResponse(UUID id, String code, String name) {}
@@ -0,0 +1,19 @@
+package com.autoflex.backend.exception;
+
+import com.autoflex.backend.dto.StockShortage;
+
+import java.util.List;
+
+public class InsufficientStockException extends RuntimeException {
+
+    private final List<StockShortage> shortages;
+
+    public InsufficientStockException(List<StockShortage> shortages) {
+        super("Insufficient stock");
+        this.shortages = List.copyOf(shortages);
+    }
+
+    public List<StockShortage> getShortages() {
+        return shortages;
+    }
+}
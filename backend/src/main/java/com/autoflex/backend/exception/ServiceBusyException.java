@@ -0,0 +1,5 @@
+package com.autoflex.backend.exception;
+
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) { super(message); }
+}
@@ -0,0 +1,34 @@
+package com.autoflex.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/** Linha de BOM que aponta para outro produto (submontagem), em unidades inteiras. */
+@Entity
+@Table(name = "product_components",
+        uniqueConstraints = @UniqueConstraint(name = "uq_product_component", columnNames = {"product_id", "component_id"}))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+public class ProductComponent {
+
+    @Id
+    private UUID id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "component_id", nullable = false)
+    private Product component;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @PrePersist
+    public void prePersist() {
+        if (id == null) id = UUID.randomUUID();
+    }
+}
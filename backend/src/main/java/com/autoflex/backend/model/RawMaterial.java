@@ -2,6 +2,9 @@ package com.autoflex.backend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -10,6 +13,9 @@ import java.util.UUID;
 @Table(name = "raw_materials")
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor @Builder
+// Exclusão lógica: o histórico de estoque continua referenciando a linha
+@SQLDelete(sql = "update raw_materials set deleted_at = now() where id = ?")
+@SQLRestriction("deleted_at is null")
 public class RawMaterial {
 
     @Id
@@ -21,7 +27,8 @@ public class RawMaterial {
     @Column(nullable = false, length = 255)
     private String name;
 
-    @Column(name = "stock_quantity", nullable = false, precision = 14, scale = 3)
+    // Saldo do razão de estoque (snapshot + movimentos); só leitura, escrito via StockLedgerService
+    @Formula("raw_material_balance(id)")
     private BigDecimal stockQuantity;
 
     @PrePersist
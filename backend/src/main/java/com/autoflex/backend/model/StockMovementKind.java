@@ -0,0 +1,8 @@
+package com.autoflex.backend.model;
+
+/** Tipo de movimento do razão de estoque ({@code stock_movements.kind}). */
+public enum StockMovementKind {
+    RECEIPT,
+    CONSUMPTION,
+    ADJUSTMENT
+}
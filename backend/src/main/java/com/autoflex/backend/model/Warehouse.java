@@ -0,0 +1,31 @@
+package com.autoflex.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/** Depósito/planta com estoque próprio. */
+@Entity
+@Table(name = "warehouses")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor @Builder
+public class Warehouse {
+
+    /** Depósito principal criado pela migração; recebe os movimentos sem depósito informado. */
+    public static final UUID DEFAULT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false, unique = true, length = 50)
+    private String code;
+
+    @Column(nullable = false, length = 255)
+    private String name;
+
+    @PrePersist
+    public void prePersist() {
+        if (id == null) id = UUID.randomUUID();
+    }
+}
@@ -0,0 +1,7 @@
+package com.autoflex.backend.repository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** Linha de BOM só com as chaves e a quantidade por unidade do produto. */
+public record BomLine(UUID productId, UUID rawMaterialId, BigDecimal requiredQuantity) {}
@@ -0,0 +1,4 @@
+package com.autoflex.backend.repository;
+
+/** Linhas de cada parte do catálogo; o BOM soma matérias-primas e submontagens. */
+public record CatalogCounts(long products, long rawMaterials, long bomLines) {}
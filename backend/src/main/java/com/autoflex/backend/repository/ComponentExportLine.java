@@ -0,0 +1,7 @@
+package com.autoflex.backend.repository;
+
+import java.util.UUID;
+
+/** Submontagem de um produto, para a exportação do BOM (projeção por construtor). */
+public record ComponentExportLine(UUID id, UUID productId, String productCode, UUID componentId, String componentCode,
+                                  int quantity) {}
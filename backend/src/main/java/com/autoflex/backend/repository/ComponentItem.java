@@ -0,0 +1,6 @@
+package com.autoflex.backend.repository;
+
+import java.util.UUID;
+
+/** Submontagem do BOM de um produto, para a listagem (projeção por construtor). */
+public record ComponentItem(UUID id, UUID componentId, String componentCode, String componentName, int quantity) {}
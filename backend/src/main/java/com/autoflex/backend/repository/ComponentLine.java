@@ -0,0 +1,17 @@
+package com.autoflex.backend.repository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Linha de submontagem com os dados do produto pai que a sugestão de produção usa
+ * (projeção por construtor, como {@link SolverLine}).
+ */
+public record ComponentLine(
+        UUID productId,
+        String productCode,
+        String productName,
+        BigDecimal price,
+        UUID componentId,
+        int quantity
+) {}
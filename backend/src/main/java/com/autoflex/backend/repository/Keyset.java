@@ -0,0 +1,176 @@
+package com.autoflex.backend.repository;
+
+import com.autoflex.backend.exception.BadRequestException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Paginação por keyset (cursor) para as listagens do catálogo.
+ * <p>
+ * A próxima página começa depois da última chave lida, comparando {@code (coluna, id)} como
+ * tupla. Com índice em {@code (coluna, id)} o custo é o mesmo em qualquer profundidade, ao
+ * contrário de {@code OFFSET}. O cursor é opaco para o cliente e amarrado à ordenação.
+ */
+public final class Keyset {
+
+    private Keyset() {
+    }
+
+    /** Coluna ordenável exposta na API; {@code unique} dispensa o desempate por id. */
+    public record Column(String key, String sql, boolean unique, boolean numeric) {
+    }
+
+    public record Sort(Column column, boolean descending) {
+
+        /** Interpreta {@code "campo"} ou {@code "campo,asc|desc"}; nulo usa a primeira coluna. */
+        public static Sort parse(String value, List<Column> allowed) {
+            if (value == null || value.isBlank()) return new Sort(allowed.get(0), false);
+
+            String[] parts = value.trim().split(",", 2);
+            String key = parts[0].trim();
+            String direction = parts.length > 1 ? parts[1].trim().toLowerCase(Locale.ROOT) : "asc";
+            if (!direction.equals("asc") && !direction.equals("desc")) {
+                throw new BadRequestException("Invalid sort direction: " + parts[1].trim());
+            }
+            for (Column column : allowed) {
+                if (column.key().equals(key)) return new Sort(column, direction.equals("desc"));
+            }
+            throw new BadRequestException("Invalid sort field: " + key);
+        }
+
+        String token() {
+            return column.key() + (descending ? ",desc" : ",asc");
+        }
+    }
+
+    public record Cursor(String sort, UUID id, String value) {
+
+        public String encode() {
+            String raw = sort + "\n" + id + "\n" + value;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\n", 3);
+                if (parts.length != 3) throw new IllegalArgumentException();
+                return new Cursor(parts[0], UUID.fromString(parts[1]), parts[2]);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+    }
+
+    public record Page<T>(List<T> items, String nextCursor) {
+
+        public <R> Page<R> map(Function<T, R> mapper) {
+            return new Page<>(items.stream().map(mapper).toList(), nextCursor);
+        }
+    }
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * Tamanho da página pedida. Sem {@code limit} e sem cursor a listagem volta inteira
+     * (compatível com os clientes atuais); com cursor aplica o limite padrão.
+     */
+    public static Integer pageSize(Integer limit, Cursor after) {
+        if (limit == null) return after == null ? null : DEFAULT_LIMIT;
+        if (limit < 1) throw new BadRequestException("limit must be positive");
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /** Corta a linha extra lida além do limite e gera o cursor da próxima página. */
+    static <T> Page<T> page(List<T> rows, Integer limit, Sort sort,
+                            Function<T, UUID> id, BiFunction<T, String, Object> value) {
+        if (limit == null || rows.size() <= limit) return new Page<>(rows, null);
+
+        List<T> items = rows.subList(0, limit);
+        T last = items.get(limit - 1);
+        Object key = value.apply(last, sort.column().key());
+        String text = key instanceof BigDecimal number ? number.toPlainString() : String.valueOf(key);
+        return new Page<>(List.copyOf(items), new Cursor(sort.token(), id.apply(last), text).encode());
+    }
+
+    /** Monta o {@code SELECT} com filtros, posição do cursor, ordenação e limite. */
+    static final class Query {
+
+        private final StringBuilder sql;
+        private final List<Object> args = new ArrayList<>();
+        private boolean hasWhere;
+
+        Query(String select) {
+            this.sql = new StringBuilder(select);
+        }
+
+        Query where(String condition, Object... values) {
+            sql.append(hasWhere ? " and " : " where ").append(condition);
+            hasWhere = true;
+            args.addAll(List.of(values));
+            return this;
+        }
+
+        Query startsWith(String expression, String prefix) {
+            if (prefix == null || prefix.isBlank()) return this;
+            return where(expression + " like ? escape '\\'", escapeLike(prefix.trim()) + "%");
+        }
+
+        Query after(Sort sort, Cursor cursor) {
+            if (cursor == null) return this;
+            if (!cursor.sort().equals(sort.token())) {
+                throw new BadRequestException("Cursor does not match sort " + sort.token());
+            }
+            Object value = sort.column().numeric() ? parseNumber(cursor.value()) : cursor.value();
+            String op = sort.descending() ? "<" : ">";
+            if (sort.column().unique()) {
+                return where(sort.column().sql() + " " + op + " ?", value);
+            }
+            return where("(" + sort.column().sql() + ", id) " + op + " (?, ?)", value, cursor.id());
+        }
+
+        Query orderBy(Sort sort) {
+            String direction = sort.descending() ? " desc" : " asc";
+            sql.append(" order by ").append(sort.column().sql()).append(direction);
+            if (!sort.column().unique()) sql.append(", id").append(direction);
+            return this;
+        }
+
+        Query limit(Integer limit) {
+            if (limit != null) {
+                sql.append(" limit ?");
+                args.add(limit);
+            }
+            return this;
+        }
+
+        String sql() {
+            return sql.toString();
+        }
+
+        Object[] args() {
+            return args.toArray();
+        }
+
+        private static BigDecimal parseNumber(String value) {
+            try {
+                return new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+        }
+
+        private static String escapeLike(String value) {
+            return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        }
+    }
+}
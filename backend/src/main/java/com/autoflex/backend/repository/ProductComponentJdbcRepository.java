@@ -0,0 +1,47 @@
+package com.autoflex.backend.repository;
+
+import com.autoflex.backend.model.ProductComponent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * Acesso às submontagens ({@code product_components}) via JDBC: escrita em lote e o grafo
+ * produto -> componente usado na checagem de ciclo.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductComponentJdbcRepository {
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * Serializa as escritas de submontagens até o fim da transação. Duas escritas concorrentes
+     * (A usa B e B usa A) passariam cada uma na checagem de ciclo; em fila, a segunda enxerga a primeira.
+     * Leituras não são bloqueadas.
+     */
+    public void lockForWrite() {
+        jdbc.execute("lock table product_components in share row exclusive mode");
+    }
+
+    public void insertAll(List<ProductComponent> lines) {
+        jdbc.batchUpdate("insert into product_components (id, product_id, component_id, quantity) values (?, ?, ?, ?)",
+                lines, RawMaterialJdbcRepository.BATCH_SIZE, (ps, pc) -> {
+                    ps.setObject(1, pc.getId());
+                    ps.setObject(2, pc.getProduct().getId());
+                    ps.setObject(3, pc.getComponent().getId());
+                    ps.setInt(4, pc.getQuantity());
+                });
+    }
+
+    /** Componentes diretos de cada produto que tem submontagens. */
+    public Map<UUID, List<UUID>> findEdges() {
+        Map<UUID, List<UUID>> edges = new HashMap<>();
+        jdbc.query("select product_id, component_id from product_components", rs -> {
+            edges.computeIfAbsent(rs.getObject(1, UUID.class), id -> new ArrayList<>()).add(rs.getObject(2, UUID.class));
+        });
+        return edges;
+    }
+}
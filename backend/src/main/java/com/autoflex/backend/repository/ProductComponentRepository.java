@@ -0,0 +1,47 @@
+package com.autoflex.backend.repository;
+
+import com.autoflex.backend.model.ProductComponent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface ProductComponentRepository extends JpaRepository<ProductComponent, UUID> {
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("delete from ProductComponent pc where pc.product.id = :productId")
+    int deleteAllByProductIdInBulk(@Param("productId") UUID productId);
+
+    @Query("""
+        select new com.autoflex.backend.repository.ComponentItem(
+            pc.id, c.id, c.code, c.name, pc.quantity)
+        from ProductComponent pc
+        join pc.component c
+        where pc.product.id = :productId
+        order by c.code
+    """)
+    List<ComponentItem> findItemsByProductId(@Param("productId") UUID productId);
+
+    // Sem ORDER BY, como a exportação das linhas de matéria-prima
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + ProductRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        select new com.autoflex.backend.repository.ComponentExportLine(
+            pc.id, p.id, p.code, c.id, c.code, pc.quantity)
+        from ProductComponent pc
+        join pc.product p
+        join pc.component c
+    """)
+    Stream<ComponentExportLine> streamAllForExport();
+}
@@ -0,0 +1,78 @@
+package com.autoflex.backend.repository;
+
+import com.autoflex.backend.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * Acesso a {@code products} via JDBC: listagem paginada por keyset e operações em lote
+ * para importações grandes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductJdbcRepository {
+
+    public static final List<Keyset.Column> SORTS = List.of(
+            new Keyset.Column("code", "code", true, false),
+            new Keyset.Column("name", "name", false, false),
+            new Keyset.Column("price", "price", false, true));
+
+    private final JdbcTemplate jdbc;
+
+    /** Uma página da listagem; lê uma linha a mais para saber se há próxima página. */
+    public Keyset.Page<Product> findPage(String codePrefix, String namePrefix,
+                                         Keyset.Sort sort, Keyset.Cursor after, Integer limit) {
+        Keyset.Query query = new Keyset.Query("select id, code, name, price from products")
+                .startsWith("code", codePrefix)
+                .startsWith("lower(name)", namePrefix == null ? null : namePrefix.toLowerCase(Locale.ROOT))
+                .after(sort, after)
+                .orderBy(sort)
+                .limit(limit == null ? null : limit + 1);
+
+        List<Product> rows = jdbc.query(query.sql(), (rs, i) -> Product.builder()
+                .id(rs.getObject(1, UUID.class))
+                .code(rs.getString(2))
+                .name(rs.getString(3))
+                .price(rs.getBigDecimal(4))
+                .build(), query.args());
+
+        return Keyset.page(rows, limit, sort, Product::getId, (p, key) -> switch (key) {
+            case "name" -> p.getName();
+            case "price" -> p.getPrice();
+            default -> p.getCode();
+        });
+    }
+
+    public Set<String> findExistingCodes(Collection<String> codes) {
+        if (codes.isEmpty()) return Set.of();
+        Set<String> existing = new HashSet<>();
+        jdbc.query("select code from products where code = any(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", codes.toArray())),
+                rs -> {
+                    existing.add(rs.getString(1));
+                });
+        return existing;
+    }
+
+    /** Tamanho do catálogo numa consulta (gauge {@code production.catalog.size}). */
+    public CatalogCounts countCatalog() {
+        return jdbc.queryForObject("""
+                select (select count(*) from products),
+                       (select count(*) from raw_materials where deleted_at is null),
+                       (select count(*) from product_materials) + (select count(*) from product_components)
+                """, (rs, i) -> new CatalogCounts(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+    }
+
+    public void insertAll(List<Product> products) {
+        jdbc.batchUpdate("insert into products (id, code, name, price) values (?, ?, ?, ?)",
+                products, RawMaterialJdbcRepository.BATCH_SIZE, (ps, p) -> {
+                    ps.setObject(1, p.getId());
+                    ps.setString(2, p.getCode());
+                    ps.setString(3, p.getName());
+                    ps.setBigDecimal(4, p.getPrice());
+                });
+    }
+}
@@ -0,0 +1,54 @@
+package com.autoflex.backend.repository;
+
+import com.autoflex.backend.model.ProductMaterial;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Acesso às linhas de BOM ({@code product_materials}) via JDBC: escrita em lote e leitura por produto
+ * (com as submontagens explodidas).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductMaterialJdbcRepository {
+
+    private final JdbcTemplate jdbc;
+
+    public void insertAll(List<ProductMaterial> lines) {
+        jdbc.batchUpdate("insert into product_materials (id, product_id, raw_material_id, required_quantity) values (?, ?, ?, ?)",
+                lines, RawMaterialJdbcRepository.BATCH_SIZE, (ps, pm) -> {
+                    ps.setObject(1, pm.getId());
+                    ps.setObject(2, pm.getProduct().getId());
+                    ps.setObject(3, pm.getRawMaterial().getId());
+                    ps.setBigDecimal(4, pm.getRequiredQuantity());
+                });
+    }
+
+    /**
+     * Matérias-primas por unidade de cada produto, já explodidas pelas submontagens
+     * (quantidade do componente vezes o BOM dele, em qualquer profundidade).
+     */
+    public List<BomLine> findExplodedByProductIds(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) return List.of();
+        return jdbc.query("""
+                with recursive tree (root_id, product_id, factor) as (
+                    select r.id, r.id, 1::numeric from unnest(?) as r(id)
+                  union all
+                    select t.root_id, pc.component_id, t.factor * pc.quantity
+                    from tree t
+                    join product_components pc on pc.product_id = t.product_id
+                )
+                select t.root_id, pm.raw_material_id, sum(t.factor * pm.required_quantity)
+                from tree t
+                join product_materials pm on pm.product_id = t.product_id
+                group by t.root_id, pm.raw_material_id
+                """,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", productIds.toArray())),
+                (rs, i) -> new BomLine(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class), rs.getBigDecimal(3)));
+    }
+}
@@ -1,19 +1,32 @@
 package com.autoflex.backend.repository;
 
+import com.autoflex.backend.dto.ProductMaterialExportResponse;
+import com.autoflex.backend.dto.ProductMaterialItemResponse;
 import com.autoflex.backend.model.ProductMaterial;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ProductMaterialRepository extends JpaRepository<ProductMaterial, UUID> {
 
     List<ProductMaterial> findByProductId(UUID productId);
 
+    boolean existsByRawMaterialId(UUID rawMaterialId);
+
+    // DELETE único; o derivado deleteByProductId carrega e remove linha a linha
     @Transactional
-    void deleteByProductId(UUID productId);
+    @Modifying(flushAutomatically = true)
+    @Query("delete from ProductMaterial pm where pm.product.id = :productId")
+    int deleteAllByProductIdInBulk(@Param("productId") UUID productId);
 
     @Query("""
         select pm from ProductMaterial pm
@@ -21,4 +34,53 @@ public interface ProductMaterialRepository extends JpaRepository<ProductMaterial
         join fetch pm.rawMaterial rm
     """)
     List<ProductMaterial> findAllWithProductAndRawMaterial();
+
+    // Projeções de leitura: só as colunas usadas, sem entidades gerenciadas.
+    // O saldo sai uma vez por matéria-prima (CTE materializada), não uma vez por linha de BOM.
+    @Query(nativeQuery = true, value = """
+        with stock as materialized (
+            select rm.id, raw_material_balance(rm.id) as balance
+            from raw_materials rm
+            where exists (select 1 from product_materials x where x.raw_material_id = rm.id)
+        )
+        select p.id as productId, p.code as productCode, p.name as productName, p.price as price,
+               pm.raw_material_id as rawMaterialId, s.balance as stockQuantity, pm.required_quantity as requiredQuantity
+        from product_materials pm
+        join products p on p.id = pm.product_id
+        join stock s on s.id = pm.raw_material_id
+    """)
+    List<SolverLine> findAllSolverLines();
+
+    @Query("""
+        select new com.autoflex.backend.repository.ComponentLine(
+            p.id, p.code, p.name, p.price, c.id, pc.quantity)
+        from ProductComponent pc
+        join pc.product p
+        join pc.component c
+    """)
+    List<ComponentLine> findAllComponentLines();
+
+    @Query("""
+        select new com.autoflex.backend.dto.ProductMaterialItemResponse(
+            pm.id, rm.id, rm.code, rm.name, pm.requiredQuantity)
+        from ProductMaterial pm
+        join pm.rawMaterial rm
+        where pm.product.id = :productId
+        order by rm.code
+    """)
+    List<ProductMaterialItemResponse> findItemsByProductId(@Param("productId") UUID productId);
+
+    // Sem ORDER BY: a ordem é a da tabela, para não ordenar milhões de linhas no banco
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + ProductRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        select new com.autoflex.backend.dto.ProductMaterialExportResponse(
+            pm.id, p.id, p.code, rm.id, rm.code, pm.requiredQuantity)
+        from ProductMaterial pm
+        join pm.product p
+        join pm.rawMaterial rm
+    """)
+    Stream<ProductMaterialExportResponse> streamAllForExport();
 }
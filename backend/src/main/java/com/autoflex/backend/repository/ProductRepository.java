@@ -1,12 +1,34 @@
 package com.autoflex.backend.repository;
 
+import com.autoflex.backend.dto.ProductResponse;
 import com.autoflex.backend.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, UUID> {
+
+    /** Linhas por ida ao banco nas exportações. */
+    int EXPORT_FETCH_SIZE = 1_000;
+
     boolean existsByCode(String code);
     Optional<Product> findByCode(String code);
+
+    @Query("select count(pc) > 0 from ProductComponent pc where pc.component.id = :id")
+    boolean isUsedAsComponent(@Param("id") UUID id);
+
+    // Exportação: cursor do banco lido em blocos, projeção sem entidades gerenciadas
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.autoflex.backend.dto.ProductResponse(p.id, p.code, p.name, p.price) from Product p order by p.code")
+    Stream<ProductResponse> streamAllForExport();
 }
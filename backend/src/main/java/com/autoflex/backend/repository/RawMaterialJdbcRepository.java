@@ -0,0 +1,129 @@
+package com.autoflex.backend.repository;
+
+import com.autoflex.backend.model.RawMaterial;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Acesso a {@code raw_materials} via JDBC: listagem paginada por keyset e operações em lote
+ * para importações grandes. O estoque vem do saldo materializado ({@code raw_material_balances}),
+ * mantido pelo razão na mesma transação de cada movimento.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RawMaterialJdbcRepository {
+
+    static final int BATCH_SIZE = 1_000;
+
+    public static final List<Keyset.Column> SORTS = List.of(
+            new Keyset.Column("code", "code", true, false),
+            new Keyset.Column("name", "name", false, false),
+            new Keyset.Column("stockQuantity", "stock_quantity", false, true));
+
+    private final JdbcTemplate jdbc;
+
+    /** Uma página da listagem; lê uma linha a mais para saber se há próxima página. */
+    public Keyset.Page<RawMaterial> findPage(String codePrefix, String namePrefix,
+                                             BigDecimal minStock, BigDecimal maxStock,
+                                             Keyset.Sort sort, Keyset.Cursor after, Integer limit) {
+        // Ordenando por estoque, o id vem de raw_material_balances para usar o índice (balance, raw_material_id)
+        String id = sort.column().key().equals("stockQuantity") ? "b.raw_material_id" : "m.id";
+        Keyset.Query query = new Keyset.Query("select * from (select " + id + " as id, m.code, m.name, b.balance as stock_quantity"
+                + " from raw_materials m join raw_material_balances b on b.raw_material_id = m.id"
+                + " where m.deleted_at is null) rm")
+                .startsWith("code", codePrefix)
+                .startsWith("lower(name)", namePrefix == null ? null : namePrefix.toLowerCase(Locale.ROOT));
+        if (minStock != null) query.where("stock_quantity >= ?", minStock);
+        if (maxStock != null) query.where("stock_quantity <= ?", maxStock);
+        query.after(sort, after)
+                .orderBy(sort)
+                .limit(limit == null ? null : limit + 1);
+
+        List<RawMaterial> rows = jdbc.query(query.sql(), (rs, i) -> RawMaterial.builder()
+                .id(rs.getObject(1, UUID.class))
+                .code(rs.getString(2))
+                .name(rs.getString(3))
+                .stockQuantity(rs.getBigDecimal(4))
+                .build(), query.args());
+
+        return Keyset.page(rows, limit, sort, RawMaterial::getId, (rm, key) -> switch (key) {
+            case "name" -> rm.getName();
+            case "stockQuantity" -> rm.getStockQuantity();
+            default -> rm.getCode();
+        });
+    }
+
+    public Set<String> findExistingCodes(Collection<String> codes) {
+        if (codes.isEmpty()) return Set.of();
+        Set<String> existing = new HashSet<>();
+        jdbc.query("select code from raw_materials where code = any(?) and deleted_at is null",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", codes.toArray())),
+                rs -> {
+                    existing.add(rs.getString(1));
+                });
+        return existing;
+    }
+
+    public Map<String, UUID> findIdsByCodes(Collection<String> codes) {
+        if (codes.isEmpty()) return Map.of();
+        Map<String, UUID> ids = new HashMap<>();
+        jdbc.query("select code, id from raw_materials where code = any(?) and deleted_at is null",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", codes.toArray())),
+                rs -> {
+                    ids.put(rs.getString(1), rs.getObject(2, UUID.class));
+                });
+        return ids;
+    }
+
+    public Set<UUID> findExistingIds(Collection<UUID> ids) {
+        if (ids.isEmpty()) return Set.of();
+        Set<UUID> existing = new HashSet<>();
+        jdbc.query("select id from raw_materials where id = any(?) and deleted_at is null",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray())),
+                rs -> {
+                    existing.add(rs.getObject(1, UUID.class));
+                });
+        return existing;
+    }
+
+    /**
+     * Trava a matéria-prima ativa para excluir; {@code false} se não existe. {@code FOR UPDATE}
+     * conflita com a checagem de FK de quem grava um BOM com ela, então um dos dois espera o outro.
+     */
+    public boolean lockForDelete(UUID id) {
+        return !jdbc.queryForList("select id from raw_materials where id = ? and deleted_at is null for update",
+                UUID.class, id).isEmpty();
+    }
+
+    public void insertAll(List<RawMaterial> rawMaterials) {
+        // O estoque inicial não é coluna: vai para o razão (StockLedgerService.open)
+        jdbc.batchUpdate("insert into raw_materials (id, code, name) values (?, ?, ?)",
+                rawMaterials, BATCH_SIZE, (ps, rm) -> {
+                    ps.setObject(1, rm.getId());
+                    ps.setString(2, rm.getCode());
+                    ps.setString(3, rm.getName());
+                });
+    }
+
+    /** Código e estoque atual das matérias-primas informadas. */
+    public Map<UUID, RawMaterial> findStock(Collection<UUID> ids) {
+        if (ids.isEmpty()) return Map.of();
+        Map<UUID, RawMaterial> stock = new HashMap<>();
+        jdbc.query("select id, code, name, raw_material_balance(id) from raw_materials where id = any(?) and deleted_at is null",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray())),
+                rs -> {
+                    UUID id = rs.getObject(1, UUID.class);
+                    stock.put(id, RawMaterial.builder()
+                            .id(id)
+                            .code(rs.getString(2))
+                            .name(rs.getString(3))
+                            .stockQuantity(rs.getBigDecimal(4))
+                            .build());
+                });
+        return stock;
+    }
+}
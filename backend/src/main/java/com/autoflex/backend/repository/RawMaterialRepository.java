@@ -1,10 +1,27 @@
 package com.autoflex.backend.repository;
 
+import com.autoflex.backend.dto.RawMaterialResponse;
 import com.autoflex.backend.model.RawMaterial;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface RawMaterialRepository extends JpaRepository<RawMaterial, UUID> {
     boolean existsByCode(String code);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + ProductRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        select new com.autoflex.backend.dto.RawMaterialResponse(rm.id, rm.code, rm.name, rm.stockQuantity)
+        from RawMaterial rm
+        order by rm.code
+    """)
+    Stream<RawMaterialResponse> streamAllForExport();
 }
@@ -0,0 +1,18 @@
+package com.autoflex.backend.repository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Linha de BOM achatada com as colunas que a sugestão de produção usa. Vem de uma projeção
+ * por construtor: não passa pelo contexto de persistência nem guarda snapshot para dirty-checking.
+ */
+public record SolverLine(
+        UUID productId,
+        String productCode,
+        String productName,
+        BigDecimal price,
+        UUID rawMaterialId,
+        BigDecimal stockQuantity,
+        BigDecimal requiredQuantity
+) {}
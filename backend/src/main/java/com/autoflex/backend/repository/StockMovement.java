@@ -0,0 +1,17 @@
+package com.autoflex.backend.repository;
+
+import com.autoflex.backend.model.StockMovementKind;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** Linha de {@code stock_movements}; {@code quantity} tem sinal (consumo é negativo). */
+public record StockMovement(Long id, UUID rawMaterialId, UUID warehouseId, StockMovementKind kind, BigDecimal quantity,
+                            String reference, OffsetDateTime createdAt) {
+
+    public static StockMovement of(UUID rawMaterialId, UUID warehouseId, StockMovementKind kind, BigDecimal quantity,
+                                   String reference) {
+        return new StockMovement(null, rawMaterialId, warehouseId, kind, quantity, reference, null);
+    }
+}
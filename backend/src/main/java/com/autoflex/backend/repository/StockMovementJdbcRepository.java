@@ -0,0 +1,206 @@
+package com.autoflex.backend.repository;
+
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.model.StockMovementKind;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.*;
+
+/**
+ * Razão de estoque via JDBC: {@code stock_movements} (só INSERT) e {@code stock_snapshots}.
+ * O saldo é calculado pelas funções {@code raw_material_balance} / {@code raw_material_balance_at},
+ * por depósito ou somando todos.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockMovementJdbcRepository {
+
+    static final int BATCH_SIZE = 1_000;
+
+    // Chave da trava consultiva que serializa os snapshots
+    private static final long SNAPSHOT_LOCK = 0x5354_4f43_4bL;
+
+    private static final RowMapper<StockMovement> MAPPER = (rs, i) -> new StockMovement(
+            rs.getLong(1),
+            rs.getObject(2, UUID.class),
+            rs.getObject(3, UUID.class),
+            StockMovementKind.valueOf(rs.getString(4)),
+            rs.getBigDecimal(5),
+            rs.getString(6),
+            rs.getObject(7, OffsetDateTime.class));
+
+    private final JdbcTemplate jdbc;
+
+    public StockMovement insert(StockMovement m) {
+        return jdbc.queryForObject("""
+                        insert into stock_movements (raw_material_id, warehouse_id, kind, quantity, reference)
+                        values (?, ?, ?, ?, ?)
+                        returning id, raw_material_id, warehouse_id, kind, quantity, reference, created_at""",
+                MAPPER, m.rawMaterialId(), m.warehouseId(), m.kind().name(), m.quantity(), m.reference());
+    }
+
+    public void insertAll(List<StockMovement> movements) {
+        jdbc.batchUpdate("insert into stock_movements (raw_material_id, warehouse_id, kind, quantity, reference) values (?, ?, ?, ?, ?)",
+                movements, BATCH_SIZE, (ps, m) -> {
+                    ps.setObject(1, m.rawMaterialId());
+                    ps.setObject(2, m.warehouseId());
+                    ps.setString(3, m.kind().name());
+                    ps.setBigDecimal(4, m.quantity());
+                    ps.setString(5, m.reference());
+                });
+    }
+
+    /**
+     * Insere os movimentos (por chave de idempotência) em um único comando; chaves que já existem,
+     * inclusive as gravadas por uma transação concorrente, são ignoradas. Devolve as chaves inseridas.
+     */
+    public Set<String> insertAllIdempotent(Map<String, StockMovement> byKey) {
+        if (byKey.isEmpty()) return Set.of();
+        int size = byKey.size();
+        Object[] materials = new Object[size];
+        Object[] warehouses = new Object[size];
+        Object[] kinds = new Object[size];
+        Object[] quantities = new Object[size];
+        Object[] references = new Object[size];
+        Object[] keys = new Object[size];
+        int i = 0;
+        for (Map.Entry<String, StockMovement> entry : byKey.entrySet()) {
+            StockMovement m = entry.getValue();
+            materials[i] = m.rawMaterialId();
+            warehouses[i] = m.warehouseId();
+            kinds[i] = m.kind().name();
+            quantities[i] = m.quantity();
+            references[i] = m.reference();
+            keys[i++] = entry.getKey();
+        }
+
+        Set<String> inserted = new HashSet<>();
+        jdbc.query("""
+                        insert into stock_movements (raw_material_id, warehouse_id, kind, quantity, reference, idempotency_key)
+                        select * from unnest(?::uuid[], ?::uuid[], ?::varchar[], ?::numeric[], ?::varchar[], ?::varchar[])
+                        on conflict (idempotency_key) where idempotency_key is not null do nothing
+                        returning idempotency_key""",
+                ps -> {
+                    var connection = ps.getConnection();
+                    ps.setArray(1, connection.createArrayOf("uuid", materials));
+                    ps.setArray(2, connection.createArrayOf("uuid", warehouses));
+                    ps.setArray(3, connection.createArrayOf("varchar", kinds));
+                    ps.setArray(4, connection.createArrayOf("numeric", quantities));
+                    ps.setArray(5, connection.createArrayOf("varchar", references));
+                    ps.setArray(6, connection.createArrayOf("varchar", keys));
+                },
+                rs -> {
+                    inserted.add(rs.getString(1));
+                });
+        return inserted;
+    }
+
+    /** Chaves de idempotência que já têm movimento gravado. */
+    public Set<String> findExistingKeys(Collection<String> keys) {
+        if (keys.isEmpty()) return Set.of();
+        Set<String> existing = new HashSet<>();
+        jdbc.query("select idempotency_key from stock_movements where idempotency_key = any(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", keys.toArray())),
+                rs -> {
+                    existing.add(rs.getString(1));
+                });
+        return existing;
+    }
+
+    /**
+     * Trava as matérias-primas (em ordem de id) e devolve o saldo atual de cada uma no depósito
+     * informado (ou a soma de todos, com {@code warehouseId} nulo).
+     * <p>
+     * {@code FOR NO KEY UPDATE} serializa apenas quem debita o mesmo material; entradas não
+     * passam por aqui e a checagem de FK delas ({@code FOR KEY SHARE}) não conflita com essa trava.
+     * O saldo é lido em outro comando para enxergar o que foi commitado enquanto esperava.
+     */
+    public Map<UUID, BigDecimal> lockBalances(Collection<UUID> ids, UUID warehouseId) {
+        if (ids.isEmpty()) return Map.of();
+        lock(ids);
+        return findBalances(ids, warehouseId);
+    }
+
+    /** Só a trava de {@link #lockBalances}, para quem lê saldos de vários depósitos depois. */
+    public void lock(Collection<UUID> ids) {
+        if (ids.isEmpty()) return;
+        jdbc.query("select id from raw_materials where id = any(?) order by id for no key update",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray())),
+                rs -> {
+                });
+    }
+
+    /** Saldo atual das matérias-primas em um depósito (ou em todos, com {@code warehouseId} nulo), sem travar. */
+    public Map<UUID, BigDecimal> findBalances(Collection<UUID> ids, UUID warehouseId) {
+        if (ids.isEmpty()) return Map.of();
+        Map<UUID, BigDecimal> balances = new HashMap<>();
+        String balance = warehouseId == null ? "raw_material_balance(id)" : "raw_material_balance(id, ?)";
+        jdbc.query("select id, " + balance + " from raw_materials where id = any(?)",
+                ps -> {
+                    int i = 1;
+                    if (warehouseId != null) ps.setObject(i++, warehouseId);
+                    ps.setArray(i, ps.getConnection().createArrayOf("uuid", ids.toArray()));
+                },
+                rs -> {
+                    balances.put(rs.getObject(1, UUID.class), rs.getBigDecimal(2));
+                });
+        return balances;
+    }
+
+    /** Movimentos mais recentes da matéria-prima, do mais novo para o mais antigo. */
+    public List<StockMovement> findRecent(UUID rawMaterialId, int limit) {
+        return jdbc.query("""
+                        select id, raw_material_id, warehouse_id, kind, quantity, reference, created_at
+                        from stock_movements where raw_material_id = ? order by id desc limit ?""",
+                MAPPER, rawMaterialId, limit);
+    }
+
+    /** Saldo de cada matéria-prima que já tinha movimento no instante informado (e não estava excluída). */
+    public List<RawMaterial> findBalancesAt(OffsetDateTime at) {
+        return jdbc.query("""
+                        select rm.id, rm.code, rm.name, raw_material_balance_at(rm.id, ?)
+                        from raw_materials rm
+                        where exists (select 1 from stock_movements m where m.raw_material_id = rm.id and m.created_at <= ?)
+                          and (rm.deleted_at is null or rm.deleted_at > ?)
+                        order by rm.code""",
+                (rs, i) -> RawMaterial.builder()
+                        .id(rs.getObject(1, UUID.class))
+                        .code(rs.getString(2))
+                        .name(rs.getString(3))
+                        .stockQuantity(rs.getBigDecimal(4))
+                        .build(),
+                at, at, at);
+    }
+
+    /**
+     * Consolida os movimentos desde o último snapshot em um novo snapshot por matéria-prima e depósito,
+     * sem travar quem grava movimentos.
+     * <p>
+     * O horizonte é o xmin do MVCC, lido em um comando anterior ao INSERT: toda transação com xid
+     * abaixo dele já terminou, então o INSERT (com snapshot mais novo) enxerga todos os movimentos
+     * commitados que o novo snapshot cobre, e os que ainda estão em andamento ficam para o próximo.
+     * Só um snapshot roda por vez (trava consultiva, também entre instâncias). {@code taken_at} usa
+     * {@code clock_timestamp()} para que o saldo histórico nunca inclua movimentos criados após o
+     * instante consultado.
+     */
+    public int snapshot() {
+        jdbc.execute("select pg_advisory_xact_lock(" + SNAPSHOT_LOCK + ")");
+        String horizon = jdbc.queryForObject("select pg_snapshot_xmin(pg_current_snapshot())::text", String.class);
+        return jdbc.update("""
+                insert into stock_snapshots (raw_material_id, warehouse_id, movement_id, balance, taken_at, horizon)
+                select m.raw_material_id, m.warehouse_id, max(m.id),
+                       coalesce((select s.balance from stock_snapshots s
+                                 where s.raw_material_id = m.raw_material_id and s.warehouse_id = m.warehouse_id
+                                 order by s.horizon desc limit 1), 0) + sum(m.quantity),
+                       clock_timestamp(), ?::xid8
+                from stock_movements m
+                where m.created_xid >= (select coalesce(max(horizon), '0') from stock_snapshots)
+                  and m.created_xid < ?::xid8
+                group by m.raw_material_id, m.warehouse_id""", horizon, horizon);
+    }
+}
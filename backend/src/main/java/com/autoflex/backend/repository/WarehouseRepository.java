@@ -0,0 +1,10 @@
+package com.autoflex.backend.repository;
+
+import com.autoflex.backend.model.Warehouse;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface WarehouseRepository extends JpaRepository<Warehouse, UUID> {
+    boolean existsByCode(String code);
+}
@@ -0,0 +1,248 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.*;
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.ProductMaterial;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.repository.ProductJdbcRepository;
+import com.autoflex.backend.repository.ProductMaterialJdbcRepository;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Importação em lote de matérias-primas e produtos (com BOM por código de matéria-prima).
+ * <p>
+ * Linhas inválidas são reportadas individualmente e não impedem a importação das demais.
+ * Códigos duplicados são verificados em conjunto, com uma consulta por lote, e a escrita usa
+ * batch JDBC em uma única transação.
+ */
+@Service
+@RequiredArgsConstructor
+public class BulkImportService {
+
+    private final RawMaterialJdbcRepository rawMaterialJdbc;
+    private final ProductJdbcRepository productJdbc;
+    private final ProductMaterialJdbcRepository productMaterialJdbc;
+    private final StockLedgerService stockLedger;
+    private final CatalogRevision catalogRevision;
+    private final Validator validator;
+
+    @Transactional
+    public BulkImportResponse importRawMaterials(List<RawMaterialRequest> rows) {
+        return importRawMaterials(rows, nullRows(rows));
+    }
+
+    // Colunas: code,name,stock_quantity
+    @Transactional
+    public BulkImportResponse importRawMaterialsCsv(String csv) {
+        CsvReader reader = CsvReader.parse(csv);
+        reader.requireColumns("code", "name", "stock_quantity");
+
+        List<BulkImportError> errors = new ArrayList<>();
+        List<RawMaterialRequest> rows = new ArrayList<>(reader.size());
+        for (int i = 0; i < reader.size(); i++) {
+            try {
+                rows.add(new RawMaterialRequest(reader.get(i, "code"), reader.get(i, "name"),
+                        decimal(reader.get(i, "stock_quantity"), "stock_quantity")));
+            } catch (IllegalArgumentException e) {
+                errors.add(new BulkImportError(i + 1, reader.get(i, "code"), e.getMessage()));
+                rows.add(null);
+            }
+        }
+        return importRawMaterials(rows, errors);
+    }
+
+    @Transactional
+    public BulkImportResponse importProducts(List<ProductImportRequest> rows) {
+        return importProducts(rows, nullRows(rows));
+    }
+
+    // Colunas: code,name,price,materials (BOM no formato "RM01:2.500|RM02:1")
+    @Transactional
+    public BulkImportResponse importProductsCsv(String csv) {
+        CsvReader reader = CsvReader.parse(csv);
+        reader.requireColumns("code", "name", "price");
+
+        List<BulkImportError> errors = new ArrayList<>();
+        List<ProductImportRequest> rows = new ArrayList<>(reader.size());
+        for (int i = 0; i < reader.size(); i++) {
+            try {
+                rows.add(new ProductImportRequest(reader.get(i, "code"), reader.get(i, "name"),
+                        decimal(reader.get(i, "price"), "price"), materials(reader.get(i, "materials"))));
+            } catch (IllegalArgumentException e) {
+                errors.add(new BulkImportError(i + 1, reader.get(i, "code"), e.getMessage()));
+                rows.add(null);
+            }
+        }
+        return importProducts(rows, errors);
+    }
+
+    private BulkImportResponse importRawMaterials(List<RawMaterialRequest> rows, List<BulkImportError> errors) {
+        Map<String, Integer> rowByCode = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            RawMaterialRequest row = rows.get(i);
+            if (row == null || !valid(i, row, row.code(), errors)) continue;
+            if (rowByCode.putIfAbsent(row.code().trim(), i) != null) {
+                errors.add(new BulkImportError(i + 1, row.code(), "Duplicate code in request"));
+            }
+        }
+
+        for (String code : rawMaterialJdbc.findExistingCodes(rowByCode.keySet())) {
+            errors.add(new BulkImportError(rowByCode.remove(code) + 1, code, "Raw material code already exists"));
+        }
+
+        List<RawMaterial> toInsert = new ArrayList<>(rowByCode.size());
+        rowByCode.forEach((code, i) -> toInsert.add(RawMaterial.builder()
+                .id(UUID.randomUUID())
+                .code(code)
+                .name(rows.get(i).name().trim())
+                .stockQuantity(rows.get(i).stockQuantity())
+                .build()));
+        rawMaterialJdbc.insertAll(toInsert);
+
+        Map<UUID, BigDecimal> initialStock = new LinkedHashMap<>();
+        toInsert.forEach(rm -> initialStock.put(rm.getId(), rm.getStockQuantity()));
+        stockLedger.open(initialStock);
+        if (!toInsert.isEmpty()) catalogRevision.changed(CatalogRevision.Table.RAW_MATERIALS);
+
+        return response(rows.size(), toInsert.size(), errors);
+    }
+
+    private BulkImportResponse importProducts(List<ProductImportRequest> rows, List<BulkImportError> errors) {
+        Map<String, Integer> rowByCode = new LinkedHashMap<>();
+        Set<String> materialCodes = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ProductImportRequest row = rows.get(i);
+            if (row == null || !valid(i, row, row.code(), errors)) continue;
+            if (!distinctMaterials(i, row, errors)) continue;
+            if (rowByCode.putIfAbsent(row.code().trim(), i) != null) {
+                errors.add(new BulkImportError(i + 1, row.code(), "Duplicate code in request"));
+                continue;
+            }
+            materials(row).forEach(m -> materialCodes.add(m.rawMaterialCode().trim()));
+        }
+
+        for (String code : productJdbc.findExistingCodes(rowByCode.keySet())) {
+            errors.add(new BulkImportError(rowByCode.remove(code) + 1, code, "Product code already exists"));
+        }
+
+        // Resolve todas as matérias-primas do BOM com uma única consulta
+        Map<String, UUID> materialIds = rawMaterialJdbc.findIdsByCodes(materialCodes);
+
+        List<Product> products = new ArrayList<>(rowByCode.size());
+        List<ProductMaterial> lines = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : rowByCode.entrySet()) {
+            int i = entry.getValue();
+            ProductImportRequest row = rows.get(i);
+
+            Optional<String> missing = materials(row).stream()
+                    .map(m -> m.rawMaterialCode().trim())
+                    .filter(code -> !materialIds.containsKey(code))
+                    .findFirst();
+            if (missing.isPresent()) {
+                errors.add(new BulkImportError(i + 1, entry.getKey(), "Raw material not found: " + missing.get()));
+                continue;
+            }
+
+            Product product = Product.builder()
+                    .id(UUID.randomUUID())
+                    .code(entry.getKey())
+                    .name(row.name().trim())
+                    .price(row.price())
+                    .build();
+            products.add(product);
+
+            for (ProductImportMaterialRequest m : materials(row)) {
+                lines.add(ProductMaterial.builder()
+                        .id(UUID.randomUUID())
+                        .product(product)
+                        .rawMaterial(RawMaterial.builder().id(materialIds.get(m.rawMaterialCode().trim())).build())
+                        .requiredQuantity(m.requiredQuantity())
+                        .build());
+            }
+        }
+
+        productJdbc.insertAll(products);
+        productMaterialJdbc.insertAll(lines);
+        if (!products.isEmpty()) catalogRevision.changed(CatalogRevision.Table.PRODUCTS);
+        if (!lines.isEmpty()) {
+            catalogRevision.changed(CatalogRevision.Table.PRODUCT_MATERIALS);
+            catalogRevision.bump();
+        }
+
+        return response(rows.size(), products.size(), errors);
+    }
+
+    private <T> boolean valid(int i, T row, String code, List<BulkImportError> errors) {
+        Set<ConstraintViolation<T>> violations = validator.validate(row);
+        if (violations.isEmpty()) return true;
+
+        String message = violations.stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .reduce((a, b) -> a + "; " + b)
+                .orElseThrow();
+        errors.add(new BulkImportError(i + 1, code, message));
+        return false;
+    }
+
+    private static boolean distinctMaterials(int i, ProductImportRequest row, List<BulkImportError> errors) {
+        Set<String> seen = new HashSet<>();
+        for (ProductImportMaterialRequest m : materials(row)) {
+            if (!seen.add(m.rawMaterialCode().trim())) {
+                errors.add(new BulkImportError(i + 1, row.code(), "Duplicate raw material in BOM: " + m.rawMaterialCode()));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<ProductImportMaterialRequest> materials(ProductImportRequest row) {
+        return row.materials() == null ? List.of() : row.materials();
+    }
+
+    private static BulkImportResponse response(int received, int imported, List<BulkImportError> errors) {
+        errors.sort(Comparator.comparingInt(BulkImportError::row));
+        return new BulkImportResponse(received, imported, errors);
+    }
+
+    // Linhas nulas no JSON ("[{...}, null]") são reportadas e ignoradas
+    private static List<BulkImportError> nullRows(List<?> rows) {
+        List<BulkImportError> errors = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i) == null) errors.add(new BulkImportError(i + 1, null, "Empty row"));
+        }
+        return errors;
+    }
+
+    private static BigDecimal decimal(String value, String column) {
+        if (value == null) return null;
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + column);
+        }
+    }
+
+    private static List<ProductImportMaterialRequest> materials(String value) {
+        if (value == null) return List.of();
+        List<ProductImportMaterialRequest> materials = new ArrayList<>();
+        for (String item : value.split("\\|")) {
+            String[] parts = item.split(":");
+            if (parts.length != 2) throw new IllegalArgumentException("Invalid materials entry: " + item);
+            try {
+                materials.add(new ProductImportMaterialRequest(parts[0].trim(), new BigDecimal(parts[1].trim())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number in materials entry: " + item);
+            }
+        }
+        return materials;
+    }
+}
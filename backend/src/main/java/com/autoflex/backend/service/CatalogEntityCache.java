@@ -0,0 +1,44 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Caches de leitura de produtos e matérias-primas usados pelos serviços de CRUD. Da matéria-prima
+ * só fica o cadastro: o saldo muda a cada movimento e é lido do razão, então movimentos de
+ * estoque não invalidam as entradas.
+ */
+@Component
+public class CatalogEntityCache {
+
+    private final EntityCache<ProductResponse> products;
+    private final EntityCache<RawMaterialEntry> rawMaterials;
+
+    public CatalogEntityCache(CatalogRevision catalogRevision,
+                              MeterRegistry meterRegistry,
+                              @Value("${catalog.entity-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${catalog.entity-cache.ttl-ms:300000}") long ttlMs) {
+        Duration ttl = Duration.ofMillis(ttlMs);
+        this.products = new EntityCache<>("products", CatalogRevision.Table.PRODUCTS,
+                catalogRevision, meterRegistry, maximumSize, ttl);
+        this.rawMaterials = new EntityCache<>("raw_materials", CatalogRevision.Table.RAW_MATERIALS,
+                catalogRevision, meterRegistry, maximumSize, ttl);
+    }
+
+    EntityCache<ProductResponse> products() {
+        return products;
+    }
+
+    EntityCache<RawMaterialEntry> rawMaterials() {
+        return rawMaterials;
+    }
+
+    /** Matéria-prima em cache, sem o saldo. */
+    record RawMaterialEntry(UUID id, String code, String name) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.ProductMaterialExportResponse;
+import com.autoflex.backend.dto.ProductResponse;
+import com.autoflex.backend.dto.RawMaterialResponse;
+import com.autoflex.backend.repository.ProductComponentRepository;
+import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.ProductRepository;
+import com.autoflex.backend.repository.RawMaterialRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Exportação completa do catálogo para integração (ERP).
+ * <p>
+ * Cada método lê um cursor do banco dentro de uma transação só de leitura (o driver do
+ * PostgreSQL só respeita o fetch size fora do autocommit) e entrega linha a linha ao
+ * {@code sink}. As linhas são projeções, não entidades, então nada se acumula no contexto de
+ * persistência e a memória fica constante seja qual for o tamanho do catálogo.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogExportService {
+
+    private final ProductRepository productRepo;
+    private final RawMaterialRepository rawMaterialRepo;
+    private final ProductMaterialRepository productMaterialRepo;
+    private final ProductComponentRepository productComponentRepo;
+
+    /** Produtos por código; devolve quantas linhas foram escritas. */
+    @Transactional(readOnly = true)
+    public long products(Consumer<ProductResponse> sink) {
+        return drain(productRepo.streamAllForExport(), sink);
+    }
+
+    /** Matérias-primas por código, com o saldo atual do razão. */
+    @Transactional(readOnly = true)
+    public long rawMaterials(Consumer<RawMaterialResponse> sink) {
+        return drain(rawMaterialRepo.streamAllForExport(), sink);
+    }
+
+    /** Todas as linhas de BOM, sem ordem definida: as de matéria-prima e depois as de submontagem. */
+    @Transactional(readOnly = true)
+    public long productMaterials(Consumer<ProductMaterialExportResponse> sink) {
+        long count = drain(productMaterialRepo.streamAllForExport(), sink);
+        return count + drain(productComponentRepo.streamAllForExport().map(c -> new ProductMaterialExportResponse(
+                c.id(), c.productId(), c.productCode(), null, null, BigDecimal.valueOf(c.quantity()),
+                c.componentId(), c.componentCode())), sink);
+    }
+
+    // Fecha o cursor mesmo se o cliente desconectar no meio
+    private static <T> long drain(Stream<T> rows, Consumer<T> sink) {
+        long count = 0;
+        try (rows) {
+            var it = rows.iterator();
+            while (it.hasNext()) {
+                sink.accept(it.next());
+                count++;
+            }
+        }
+        return count;
+    }
+}
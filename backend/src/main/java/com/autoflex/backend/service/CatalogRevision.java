@@ -0,0 +1,292 @@
+package com.autoflex.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão do catálogo (estoque, preços e BOM) usada para invalidar o que é derivado dele.
+ * <p>
+ * As revisões do cadastro ficam na tabela {@code catalog_revisions}, compartilhada pelas
+ * instâncias: cada escrita incrementa as linhas que mudou na própria transação, logo antes do
+ * commit (em ordem de nome, e a trava da linha só dura o commit). Cada instância relê as linhas no
+ * máximo a cada {@code catalog.revision.max-staleness-ms}, e as escritas dela mesma valem logo após
+ * o commit; ninguém lê dados antigos já associados a uma revisão nova. Sem banco (testes), os
+ * contadores ficam só em memória.
+ * <p>
+ * Além da versão usada pela sugestão, há uma revisão por tabela ({@link #changed(Table...)}),
+ * avançada por qualquer escrita, que gera os ETags das listagens. O ETag leva a época do banco
+ * (ou desta execução, em memória) para não colidir com os de um banco recriado.
+ * <p>
+ * O estoque não passa por {@code catalog_revisions}: movimentos não gravam nada além do razão,
+ * para não se enfileirarem numa linha comum. O estado de cada depósito vem do próprio razão, lido
+ * com a mesma tolerância de atraso: o horizonte do último snapshot e quantos movimentos commitados
+ * há a partir dele (só cresce até o próximo snapshot, que troca o horizonte). Cada mudança desse
+ * estado avança um contador local do depósito ({@link #currentStock(UUID)}) e o do estoque todo,
+ * que entra em {@link #current()}; {@link #stockChanged(UUID)} só antecipa a releitura após o commit.
+ */
+@Component
+public class CatalogRevision {
+
+    public enum Table {
+        PRODUCTS,
+        // Só o cadastro (código e nome); o saldo muda com STOCK_MOVEMENTS
+        RAW_MATERIALS,
+        PRODUCT_MATERIALS,
+        WAREHOUSES,
+        // Qualquer movimento do razão, em qualquer depósito; lida do razão, não é gravada
+        STOCK_MOVEMENTS
+    }
+
+    private static final String VERSION = "version";
+    private static final String EPOCH = "epoch";
+
+    // Nulo: só em memória
+    private final JdbcTemplate jdbc;
+    private final long maxStalenessNanos;
+
+    // Maior revisão conhecida de cada linha
+    private final Map<String, Long> revisions = new ConcurrentHashMap<>();
+    private volatile long refreshedAt;
+    private volatile boolean refreshed;
+    private volatile String epoch;
+
+    // Estoque: último estado lido do razão e contadores locais, por depósito e de todos
+    private final Map<UUID, Long> stockRevisions = new ConcurrentHashMap<>();
+    private final AtomicLong allStockRevision = new AtomicLong();
+    private volatile StockState stock;
+    private volatile long stockRefreshedAt;
+    private volatile boolean stockDirty;
+
+    public CatalogRevision() {
+        this.jdbc = null;
+        this.maxStalenessNanos = 0;
+        this.epoch = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+    }
+
+    @Autowired
+    public CatalogRevision(JdbcTemplate jdbc, @Value("${catalog.revision.max-staleness-ms:100}") long maxStalenessMs) {
+        this.jdbc = jdbc;
+        this.maxStalenessNanos = maxStalenessMs * 1_000_000;
+    }
+
+    /** Versão da sugestão: avança com escritas no catálogo ({@link #bump()}) e com qualquer movimento de estoque. */
+    public long current() {
+        return read(VERSION) + currentStock(null);
+    }
+
+    public void bump() {
+        write(VERSION);
+    }
+
+    public long current(Table table) {
+        if (table == Table.STOCK_MOVEMENTS) return currentStock(null);
+        return read(table.name());
+    }
+
+    /** Registra escrita nas tabelas (qualquer coluna); invalida os ETags que dependem delas. */
+    public void changed(Table... changed) {
+        if (Arrays.asList(changed).contains(Table.STOCK_MOVEMENTS)) {
+            throw new IllegalArgumentException("Stock revisions come from the ledger; use stockChanged");
+        }
+        write(Arrays.stream(changed).map(Table::name).toArray(String[]::new));
+    }
+
+    /** Revisão do estoque de um depósito (ou de todos, com {@code warehouseId} nulo). */
+    public long currentStock(UUID warehouseId) {
+        if (jdbc != null) refreshStock();
+        return warehouseId == null ? allStockRevision.get() : stockRevisions.getOrDefault(warehouseId, 0L);
+    }
+
+    /**
+     * Registra movimento de estoque no depósito: no banco só força reler o razão depois do commit
+     * (sem gravar nada na transação); em memória, avança o contador dele e o do estoque todo.
+     */
+    public void stockChanged(UUID warehouseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyStock(Set.of(warehouseId));
+            return;
+        }
+        pending().warehouses.add(warehouseId);
+    }
+
+    /**
+     * ETag forte para uma resposta montada só a partir das tabelas informadas. Deve ser lido
+     * antes da consulta: se uma escrita cair no meio, o ETag antigo só provoca um 200 a mais.
+     */
+    public String etag(Table... dependsOn) {
+        StringBuilder tag = new StringBuilder("\"").append(epoch());
+        for (Table table : dependsOn) {
+            tag.append('-').append(table == Table.STOCK_MOVEMENTS ? stockToken(null) : current(table));
+        }
+        return tag.append('"').toString();
+    }
+
+    /** Como {@link #etag(Table...)}, para uma resposta que usa só o estoque de um depósito. */
+    public String etag(UUID warehouseId, Table... dependsOn) {
+        String tag = etag(dependsOn);
+        return tag.substring(0, tag.length() - 1) + '-' + warehouseId + '-' + stockToken(warehouseId) + '"';
+    }
+
+    // Igual em todas as instâncias: o estado do razão no banco, ou o contador em memória
+    private String stockToken(UUID warehouseId) {
+        if (jdbc == null) return Long.toString(currentStock(warehouseId));
+        refreshStock();
+        StockState state = stock;
+        long count = warehouseId == null ? state.total() : state.counts().getOrDefault(warehouseId, 0L);
+        return state.horizon() + "." + count;
+    }
+
+    private long read(String name) {
+        if (jdbc != null && (!refreshed || System.nanoTime() - refreshedAt >= maxStalenessNanos)) refresh();
+        return revisions.getOrDefault(name, 0L);
+    }
+
+    private String epoch() {
+        if (epoch == null) {
+            read(EPOCH);
+            epoch = Long.toHexString(revisions.getOrDefault(EPOCH, 0L));
+        }
+        return epoch;
+    }
+
+    private void refresh() {
+        long startedAt = System.nanoTime();
+        jdbc.query("select name, revision from catalog_revisions",
+                rs -> {
+                    revisions.merge(rs.getString(1), rs.getLong(2), Math::max);
+                });
+        refreshedAt = startedAt;
+        refreshed = true;
+    }
+
+    private void refreshStock() {
+        if (stock != null && !stockDirty && System.nanoTime() - stockRefreshedAt < maxStalenessNanos) return;
+        synchronized (stockRevisions) {
+            if (stock != null && !stockDirty && System.nanoTime() - stockRefreshedAt < maxStalenessNanos) return;
+            long startedAt = System.nanoTime();
+            stockDirty = false;
+            StockState next = readStock();
+            StockState previous = stock;
+            if (previous != null) {
+                boolean snapshot = !next.horizon().equals(previous.horizon());
+                Set<UUID> warehouses = new HashSet<>(previous.counts().keySet());
+                warehouses.addAll(next.counts().keySet());
+                for (UUID w : warehouses) {
+                    if (snapshot || !next.counts().getOrDefault(w, 0L).equals(previous.counts().getOrDefault(w, 0L))) {
+                        stockRevisions.merge(w, 1L, Long::sum);
+                    }
+                }
+                if (snapshot || next.total() != previous.total()) allStockRevision.incrementAndGet();
+            }
+            stock = next;
+            stockRefreshedAt = startedAt;
+        }
+    }
+
+    // Horizonte do último snapshot e movimentos commitados a partir dele, por depósito
+    private StockState readStock() {
+        String[] horizon = {"0"};
+        Map<UUID, Long> counts = new HashMap<>();
+        jdbc.query("""
+                        with h as (select coalesce(max(horizon), '0') as horizon from stock_snapshots)
+                        select h.horizon::text, m.warehouse_id, count(m.id)
+                        from h left join stock_movements m on m.created_xid >= h.horizon
+                        group by h.horizon, m.warehouse_id""",
+                rs -> {
+                    horizon[0] = rs.getString(1);
+                    UUID warehouseId = rs.getObject(2, UUID.class);
+                    if (warehouseId != null) counts.put(warehouseId, rs.getLong(3));
+                });
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        return new StockState(horizon[0], Map.copyOf(counts), total);
+    }
+
+    private void applyStock(Set<UUID> warehouses) {
+        if (jdbc != null) {
+            stockDirty = true;
+            return;
+        }
+        warehouses.forEach(w -> stockRevisions.merge(w, 1L, Long::sum));
+        allStockRevision.incrementAndGet();
+    }
+
+    // Agrupa as escritas da transação; sem transação, grava na hora
+    private void write(String... names) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Map<String, Long> written = increment(new TreeSet<>(List.of(names)));
+            if (jdbc != null) apply(written);
+            return;
+        }
+        pending().names.addAll(List.of(names));
+    }
+
+    private Pending pending() {
+        return TransactionSynchronizationManager.getSynchronizations().stream()
+                .filter(s -> s instanceof Pending p && p.owner() == this)
+                .map(Pending.class::cast)
+                .findFirst()
+                .orElseGet(() -> {
+                    Pending created = new Pending();
+                    TransactionSynchronizationManager.registerSynchronization(created);
+                    return created;
+                });
+    }
+
+    // No banco, dentro da transação de quem chamou (se houver); em memória, só soma
+    private Map<String, Long> increment(SortedSet<String> names) {
+        Map<String, Long> written = new HashMap<>();
+        if (names.isEmpty()) return written;
+        if (jdbc == null) {
+            names.forEach(name -> written.put(name, revisions.merge(name, 1L, Long::sum)));
+            return written;
+        }
+        jdbc.query("""
+                        insert into catalog_revisions (name, revision)
+                        select name, 1 from unnest(?::varchar[]) as name
+                        on conflict (name) do update set revision = catalog_revisions.revision + 1
+                        returning name, revision""",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", names.toArray())),
+                rs -> {
+                    written.put(rs.getString(1), rs.getLong(2));
+                });
+        return written;
+    }
+
+    private void apply(Map<String, Long> written) {
+        written.forEach((name, revision) -> revisions.merge(name, revision, Math::max));
+    }
+
+    private record StockState(String horizon, Map<UUID, Long> counts, long total) {
+    }
+
+    private final class Pending implements TransactionSynchronization {
+
+        private final SortedSet<String> names = new TreeSet<>();
+        private final Set<UUID> warehouses = new HashSet<>();
+        private Map<String, Long> written;
+
+        CatalogRevision owner() {
+            return CatalogRevision.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (jdbc != null) written = increment(names);
+        }
+
+        @Override
+        public void afterCommit() {
+            if (jdbc == null) increment(names);
+            else if (written != null) apply(written);
+            if (!warehouses.isEmpty()) applyStock(warehouses);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.repository.CatalogCounts;
+import com.autoflex.backend.repository.ProductJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/**
+ * Gauge {@code production.catalog.size}: produtos, matérias-primas e linhas de BOM cadastrados,
+ * inclusive os que não entram em nenhum BOM. As contagens ficam em cache e só são refeitas, na
+ * coleta, quando a revisão de alguma dessas tabelas mudou.
+ */
+@Component
+public class CatalogSizeMetrics {
+
+    private final ProductJdbcRepository productJdbc;
+    private final CatalogRevision catalogRevision;
+
+    private volatile Counted counted;
+
+    private record Counted(long[] revisions, CatalogCounts counts) {
+    }
+
+    public CatalogSizeMetrics(ProductJdbcRepository productJdbc, CatalogRevision catalogRevision, MeterRegistry meterRegistry) {
+        this.productJdbc = productJdbc;
+        this.catalogRevision = catalogRevision;
+
+        gauge(meterRegistry, "products", CatalogCounts::products);
+        gauge(meterRegistry, "raw_materials", CatalogCounts::rawMaterials);
+        gauge(meterRegistry, "bom_lines", CatalogCounts::bomLines);
+    }
+
+    private void gauge(MeterRegistry registry, String entity, ToLongFunction<CatalogCounts> size) {
+        Gauge.builder("production.catalog.size", this, metrics -> size.applyAsLong(metrics.counts()))
+                .description("Products, raw materials and BOM lines in the catalog")
+                .tag("entity", entity)
+                .register(registry);
+    }
+
+    // As três séries de uma coleta saem de uma única consulta
+    synchronized CatalogCounts counts() {
+        // Revisões lidas antes da contagem: uma escrita no meio só provoca outra contagem
+        long[] revisions = {
+                catalogRevision.current(CatalogRevision.Table.PRODUCTS),
+                catalogRevision.current(CatalogRevision.Table.RAW_MATERIALS),
+                catalogRevision.current(CatalogRevision.Table.PRODUCT_MATERIALS)};
+        Counted current = counted;
+        if (current == null || !Arrays.equals(current.revisions(), revisions)) {
+            current = new Counted(revisions, productJdbc.countCatalog());
+            counted = current;
+        }
+        return current.counts();
+    }
+}
@@ -0,0 +1,85 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.exception.BadRequestException;
+
+import java.util.*;
+
+/**
+ * Leitor de CSV simples (RFC 4180): separador vírgula, campos entre aspas com {@code ""} como
+ * escape e cabeçalho obrigatório na primeira linha. As colunas são acessadas pelo nome.
+ */
+final class CsvReader {
+
+    private final List<String> header;
+    private final List<List<String>> records;
+
+    private CsvReader(List<List<String>> all) {
+        if (all.isEmpty()) throw new BadRequestException("CSV header is missing");
+        this.header = all.get(0).stream().map(h -> h.trim().toLowerCase(Locale.ROOT)).toList();
+        this.records = all.subList(1, all.size());
+    }
+
+    static CsvReader parse(String content) {
+        return new CsvReader(split(content.startsWith("\uFEFF") ? content.substring(1) : content));
+    }
+
+    void requireColumns(String... columns) {
+        for (String column : columns) {
+            if (!header.contains(column)) throw new BadRequestException("CSV column is missing: " + column);
+        }
+    }
+
+    int size() {
+        return records.size();
+    }
+
+    /** Valor da coluna no registro {@code index} (0 = primeira linha depois do cabeçalho), ou null. */
+    String get(int index, String column) {
+        int position = header.indexOf(column);
+        List<String> record = records.get(index);
+        if (position < 0 || position >= record.size()) return null;
+        String value = record.get(position).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<List<String>> split(String content) {
+        List<List<String>> rows = new ArrayList<>();
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < content.length() && content.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < content.length() && content.charAt(i + 1) == '\n') i++;
+                row.add(field.toString());
+                field.setLength(0);
+                // Linhas em branco são ignoradas
+                if (row.size() > 1 || !row.get(0).isBlank()) rows.add(row);
+                row = new ArrayList<>();
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) throw new BadRequestException("CSV has an unterminated quoted field");
+        if (field.length() > 0 || !row.isEmpty()) {
+            row.add(field.toString());
+            if (row.size() > 1 || !row.get(0).isBlank()) rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,104 @@
+package com.autoflex.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Leituras de uma tabela do catálogo em memória, por id e por código (inclusive "não existe").
+ * <p>
+ * Cada entrada guarda a revisão da tabela lida antes da consulta ao banco e só vale enquanto
+ * ela for a atual. Como {@link CatalogRevision} avança a revisão depois do commit de qualquer
+ * escrita (serviços, importação em lote, razão de estoque), uma leitura que pegou o dado antigo
+ * no meio de uma escrita nunca sobrevive a ela. As invalidações explícitas dos serviços só
+ * liberam as chaves alteradas mais cedo. Tamanho máximo e tempo de vida limitam a memória.
+ */
+final class EntityCache<V> {
+
+    private record Entry<T>(T value, long revision) {
+    }
+
+    private final CatalogRevision catalogRevision;
+    private final CatalogRevision.Table table;
+    private final Cache<UUID, Entry<Optional<V>>> byId;
+    private final Cache<String, Entry<Boolean>> byCode;
+    private final Counter idHits;
+    private final Counter idMisses;
+    private final Counter codeHits;
+    private final Counter codeMisses;
+
+    EntityCache(String name, CatalogRevision.Table table, CatalogRevision catalogRevision,
+                MeterRegistry meterRegistry, long maximumSize, Duration ttl) {
+        this.catalogRevision = catalogRevision;
+        this.table = table;
+        this.byId = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+        this.byCode = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+
+        this.idHits = counter(meterRegistry, name, "id", "hit");
+        this.idMisses = counter(meterRegistry, name, "id", "miss");
+        this.codeHits = counter(meterRegistry, name, "code", "hit");
+        this.codeMisses = counter(meterRegistry, name, "code", "miss");
+        Gauge.builder("catalog.entity.cache.size", byId, Cache::estimatedSize)
+                .description("Catalog entities cached by id")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    /** Entidade pelo id, carregada com {@code loader} se não estiver em memória ou estiver velha. */
+    Optional<V> byId(UUID id, Function<UUID, Optional<V>> loader) {
+        long revision = catalogRevision.current(table);
+        Entry<Optional<V>> cached = byId.getIfPresent(id);
+        if (cached != null && cached.revision() == revision) {
+            idHits.increment();
+            return cached.value();
+        }
+        idMisses.increment();
+        Optional<V> loaded = loader.apply(id);
+        put(byId, id, new Entry<>(loaded, revision));
+        return loaded;
+    }
+
+    /** Se o código já está em uso (checagem de duplicidade). */
+    boolean codeExists(String code, Predicate<String> loader) {
+        long revision = catalogRevision.current(table);
+        Entry<Boolean> cached = byCode.getIfPresent(code);
+        if (cached != null && cached.revision() == revision) {
+            codeHits.increment();
+            return cached.value();
+        }
+        codeMisses.increment();
+        boolean exists = loader.test(code);
+        put(byCode, code, new Entry<>(exists, revision));
+        return exists;
+    }
+
+    /** Descarta o id e os códigos (antigo e novo) alterados por uma escrita. */
+    void invalidate(UUID id, String... codes) {
+        if (id != null) byId.invalidate(id);
+        for (String code : codes) {
+            if (code != null) byCode.invalidate(code);
+        }
+    }
+
+    // Duas leituras simultâneas da mesma chave: fica a que viu a revisão mais nova
+    private static <K, T> void put(Cache<K, Entry<T>> cache, K key, Entry<T> entry) {
+        cache.asMap().merge(key, entry, (old, fresh) -> old.revision() > fresh.revision() ? old : fresh);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String key, String result) {
+        return Counter.builder("catalog.entity.cache")
+                .description("Catalog entity lookups served from memory")
+                .tag("cache", name)
+                .tag("key", key)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,86 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.MarginalValueMethod;
+import com.autoflex.backend.dto.MarginalValuesResponse;
+import com.autoflex.backend.dto.MaterialMarginalValueResponse;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import com.autoflex.backend.solver.GreedySolver;
+import com.autoflex.backend.solver.OptimalSolver;
+import com.autoflex.backend.solver.ProductionPlan;
+import com.autoflex.backend.solver.SolverModel;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Valor marginal de cada matéria-prima (quanto uma unidade a mais vale em produção), para
+ * priorizar compras. Sai dos preços-sombra da relaxação linear do catálogo atual, numa única
+ * resolução; se o catálogo não couber no tableau, cada matéria-prima recebe um acréscimo de
+ * estoque e o guloso é refeito em paralelo sobre o mesmo modelo compilado.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(value = "catalog.service", histogram = true)
+public class MarginalValueService {
+
+    private final ProductionSuggestionService suggestionService;
+    private final RawMaterialJdbcRepository rawMaterialJdbc;
+    private final ForkJoinPool pool;
+
+    public MarginalValuesResponse marginalValues(Duration budget) {
+        // Modelo e plano do mesmo snapshot
+        ProductionPlan plan = suggestionService.currentPlan();
+        SolverModel model = plan.model();
+
+        MarginalValueMethod method = MarginalValueMethod.LP_DUAL;
+        double[] cents = OptimalSolver.shadowPrices(model, budget);
+        if (cents == null) {
+            method = MarginalValueMethod.GREEDY_PERTURBATION;
+            cents = perturbed(plan);
+        }
+
+        List<UUID> ids = new ArrayList<>(model.materialCount());
+        for (int m = 0; m < model.materialCount(); m++) ids.add(model.materialId(m));
+        Map<UUID, RawMaterial> materials = ids.isEmpty() ? Map.of() : rawMaterialJdbc.findStock(ids);
+
+        List<MaterialMarginalValueResponse> items = new ArrayList<>(model.materialCount());
+        for (int m = 0; m < model.materialCount(); m++) {
+            RawMaterial rm = materials.get(model.materialId(m));
+            items.add(new MaterialMarginalValueResponse(
+                    model.materialId(m),
+                    rm == null ? null : rm.getCode(),
+                    rm == null ? null : rm.getName(),
+                    SolverModel.fromQuantityUnits(model.stockOf(m)),
+                    BigDecimal.valueOf(cents[m] / 100).setScale(SolverModel.PRICE_SCALE, RoundingMode.HALF_UP)));
+        }
+        items.sort(Comparator.comparing(MaterialMarginalValueResponse::marginalValue, Comparator.reverseOrder())
+                .thenComparing(MaterialMarginalValueResponse::rawMaterialCode, Comparator.nullsLast(Comparator.naturalOrder())));
+        return new MarginalValuesResponse(method, items);
+    }
+
+    // Acréscimo = o bastante para mais uma unidade de qualquer produto que usa a matéria-prima
+    private double[] perturbed(ProductionPlan plan) {
+        SolverModel model = plan.model();
+        double unit = Math.pow(10, SolverModel.QUANTITY_SCALE);
+        return pool.submit(() -> IntStream.range(0, model.materialCount()).parallel().mapToDouble(m -> {
+            long delta = 0;
+            for (int i = model.usageStart(m); i < model.usageEnd(m); i++) {
+                delta = Math.max(delta, model.usageRequired(i));
+            }
+            if (delta <= 0) return 0;
+
+            long[] stock = model.newStock();
+            stock[m] += delta;
+            long gain = GreedySolver.solve(model, stock).totalValueCents() - plan.totalValueCents();
+            return Math.max(0, gain) * unit / delta;
+        }).toArray()).join();
+    }
+}
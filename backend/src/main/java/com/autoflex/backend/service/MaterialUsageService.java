@@ -0,0 +1,128 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.BlockedProductResponse;
+import com.autoflex.backend.dto.BottleneckResponse;
+import com.autoflex.backend.dto.RawMaterialUsageItemResponse;
+import com.autoflex.backend.dto.RawMaterialUsageResponse;
+import com.autoflex.backend.exception.NotFoundException;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import com.autoflex.backend.solver.ProductionPlan;
+import com.autoflex.backend.solver.SolverModel;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Consultas por matéria-prima sobre o catálogo compilado: quem usa cada uma (índice inverso do
+ * {@link SolverModel}) e quais limitam o plano guloso atual. O modelo é o mesmo snapshot da
+ * sugestão, refeito a cada escrita no catálogo, então nada aqui varre {@code product_materials};
+ * o banco só é consultado para código e nome das matérias-primas da resposta.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(value = "catalog.service", histogram = true)
+public class MaterialUsageService {
+
+    private final ProductionSuggestionService suggestionService;
+    private final RawMaterialJdbcRepository rawMaterialJdbc;
+
+    public RawMaterialUsageResponse usage(UUID rawMaterialId) {
+        RawMaterial rm = rawMaterialJdbc.findStock(List.of(rawMaterialId)).get(rawMaterialId);
+        if (rm == null) throw new NotFoundException("Raw material not found");
+
+        ProductionPlan plan = suggestionService.currentPlan();
+        SolverModel model = plan.model();
+        int m = model.materialIndexOf(rawMaterialId);
+        if (m < 0) {
+            return new RawMaterialUsageResponse(rm.getId(), rm.getCode(), rm.getName(), rm.getStockQuantity(),
+                    SolverModel.fromQuantityUnits(0), List.of());
+        }
+
+        List<RawMaterialUsageItemResponse> products = new ArrayList<>(model.usageEnd(m) - model.usageStart(m));
+        long consumed = 0;
+        for (int i = model.usageStart(m); i < model.usageEnd(m); i++) {
+            int p = model.usageProduct(i);
+            long planned = plan.unitsOf(p) * model.usageRequired(i);
+            consumed += planned;
+            products.add(new RawMaterialUsageItemResponse(
+                    model.productId(p),
+                    model.productCode(p),
+                    model.productName(p),
+                    SolverModel.fromQuantityUnits(model.usageRequired(i)),
+                    plan.unitsOf(p),
+                    SolverModel.fromQuantityUnits(planned)));
+        }
+        products.sort(Comparator.comparing(RawMaterialUsageItemResponse::productCode));
+
+        return new RawMaterialUsageResponse(rm.getId(), rm.getCode(), rm.getName(),
+                SolverModel.fromQuantityUnits(model.stockOf(m)), SolverModel.fromQuantityUnits(consumed), products);
+    }
+
+    /**
+     * Matérias-primas que impedem mais uma unidade de algum produto depois do plano atual,
+     * da que mais valor bloqueia sozinha para a que menos bloqueia.
+     */
+    public List<BottleneckResponse> bottlenecks() {
+        ProductionPlan plan = suggestionService.currentPlan();
+        SolverModel model = plan.model();
+
+        long[] remaining = model.newStock();
+        for (int p = 0; p < model.productCount(); p++) {
+            int units = plan.unitsOf(p);
+            if (units <= 0) continue;
+            for (int line = model.bomStart(p); line < model.bomEnd(p); line++) {
+                remaining[model.bomMaterial(line)] -= units * model.bomRequired(line);
+            }
+        }
+
+        // Para cada produto, as matérias-primas cuja sobra não cobre mais uma unidade
+        Map<Integer, List<BlockedProductResponse>> blocked = new HashMap<>();
+        long[] blockedCents = new long[model.materialCount()];
+        List<Integer> shortLines = new ArrayList<>();
+        for (int p = 0; p < model.productCount(); p++) {
+            shortLines.clear();
+            for (int line = model.bomStart(p); line < model.bomEnd(p); line++) {
+                if (model.bomRequired(line) > remaining[model.bomMaterial(line)]) shortLines.add(line);
+            }
+            boolean sole = shortLines.size() == 1;
+            for (int line : shortLines) {
+                int m = model.bomMaterial(line);
+                if (sole) blockedCents[m] += model.priceCents(p);
+                blocked.computeIfAbsent(m, k -> new ArrayList<>()).add(new BlockedProductResponse(
+                        model.productId(p),
+                        model.productCode(p),
+                        model.productName(p),
+                        SolverModel.fromQuantityUnits(model.bomRequired(line) - remaining[m]),
+                        model.productPrice(p),
+                        sole));
+            }
+        }
+        if (blocked.isEmpty()) return List.of();
+
+        List<UUID> ids = blocked.keySet().stream().map(model::materialId).toList();
+        Map<UUID, RawMaterial> materials = rawMaterialJdbc.findStock(ids);
+
+        List<BottleneckResponse> result = new ArrayList<>(blocked.size());
+        blocked.forEach((m, products) -> {
+            products.sort(Comparator.comparing(BlockedProductResponse::soleConstraint).reversed()
+                    .thenComparing(BlockedProductResponse::unitValue, Comparator.reverseOrder()));
+            RawMaterial rm = materials.get(model.materialId(m));
+            result.add(new BottleneckResponse(
+                    model.materialId(m),
+                    rm == null ? null : rm.getCode(),
+                    rm == null ? null : rm.getName(),
+                    SolverModel.fromQuantityUnits(model.stockOf(m)),
+                    SolverModel.fromQuantityUnits(model.stockOf(m) - remaining[m]),
+                    SolverModel.fromQuantityUnits(remaining[m]),
+                    SolverModel.fromPriceCents(blockedCents[m]),
+                    products));
+        });
+        result.sort(Comparator.comparing(BottleneckResponse::blockedValue, Comparator.reverseOrder())
+                .thenComparing(b -> b.blockedProducts().size(), Comparator.reverseOrder()));
+        return result;
+    }
+}
@@ -2,59 +2,176 @@ package com.autoflex.backend.service;
 
 import com.autoflex.backend.dto.ProductMaterialItemRequest;
 import com.autoflex.backend.dto.ProductMaterialItemResponse;
+import com.autoflex.backend.exception.BadRequestException;
 import com.autoflex.backend.exception.NotFoundException;
 import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.ProductComponent;
 import com.autoflex.backend.model.ProductMaterial;
 import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.repository.ProductComponentJdbcRepository;
+import com.autoflex.backend.repository.ProductComponentRepository;
+import com.autoflex.backend.repository.ProductMaterialJdbcRepository;
 import com.autoflex.backend.repository.ProductMaterialRepository;
 import com.autoflex.backend.repository.ProductRepository;
 import com.autoflex.backend.repository.RawMaterialRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "catalog.service", histogram = true)
 public class ProductMaterialService {
 
+    private static final BigDecimal MAX_COMPONENT_QUANTITY = BigDecimal.valueOf(Integer.MAX_VALUE);
+
     private final ProductRepository productRepo;
     private final RawMaterialRepository rawMaterialRepo;
     private final ProductMaterialRepository productMaterialRepo;
+    private final ProductMaterialJdbcRepository productMaterialJdbc;
+    private final ProductComponentRepository productComponentRepo;
+    private final ProductComponentJdbcRepository productComponentJdbc;
+    private final CatalogRevision catalogRevision;
 
     @Transactional
     public List<ProductMaterialItemResponse> replaceMaterials(UUID productId, List<ProductMaterialItemRequest> items) {
         Product product = productRepo.findById(productId)
                 .orElseThrow(() -> new NotFoundException("Product not found"));
 
-        // Remove o BOM atual e recria
-        productMaterialRepo.deleteByProductId(productId);
+        // Separa matérias-primas e submontagens; cada linha tem exatamente um dos dois
+        Set<UUID> rawMaterialIds = new LinkedHashSet<>();
+        Set<UUID> componentIds = new LinkedHashSet<>();
+        for (ProductMaterialItemRequest item : items) {
+            if ((item.rawMaterialId() == null) == (item.componentProductId() == null)) {
+                throw new BadRequestException("Each BOM line needs either rawMaterialId or componentProductId");
+            }
+            if (item.rawMaterialId() != null && !rawMaterialIds.add(item.rawMaterialId())) {
+                throw new BadRequestException("Duplicate raw material: " + item.rawMaterialId());
+            }
+            if (item.componentProductId() != null) {
+                if (item.componentProductId().equals(productId)) {
+                    throw new BadRequestException("Product cannot be a sub-assembly of itself");
+                }
+                if (!componentIds.add(item.componentProductId())) {
+                    throw new BadRequestException("Duplicate sub-assembly: " + item.componentProductId());
+                }
+                // Guardada como inteiro
+                if (item.requiredQuantity().stripTrailingZeros().scale() > 0
+                        || item.requiredQuantity().compareTo(MAX_COMPONENT_QUANTITY) > 0) {
+                    throw new BadRequestException("Sub-assembly quantity must be a whole number up to "
+                            + Integer.MAX_VALUE + ": " + item.componentProductId());
+                }
+            }
+        }
+
+        // Resolve todas as matérias-primas e submontagens numa consulta cada
+        Map<UUID, RawMaterial> rawMaterials = new HashMap<>();
+        for (RawMaterial rm : rawMaterialRepo.findAllById(rawMaterialIds)) {
+            rawMaterials.put(rm.getId(), rm);
+        }
+        Map<UUID, Product> componentProducts = new HashMap<>();
+        if (!componentIds.isEmpty()) {
+            for (Product p : productRepo.findAllById(componentIds)) {
+                componentProducts.put(p.getId(), p);
+            }
+        }
+
+        List<ProductMaterial> lines = new ArrayList<>();
+        List<ProductComponent> components = new ArrayList<>();
+        for (ProductMaterialItemRequest item : items) {
+            if (item.rawMaterialId() != null) {
+                RawMaterial rm = rawMaterials.get(item.rawMaterialId());
+                if (rm == null) throw new NotFoundException("Raw material not found: " + item.rawMaterialId());
 
-        List<ProductMaterial> saved = items.stream().map(item -> {
-            RawMaterial rm = rawMaterialRepo.findById(item.rawMaterialId())
-                    .orElseThrow(() -> new NotFoundException("Raw material not found: " + item.rawMaterialId()));
+                lines.add(ProductMaterial.builder()
+                        .id(UUID.randomUUID())
+                        .product(product)
+                        .rawMaterial(rm)
+                        .requiredQuantity(item.requiredQuantity())
+                        .build());
+            } else {
+                Product component = componentProducts.get(item.componentProductId());
+                if (component == null) throw new NotFoundException("Product not found: " + item.componentProductId());
 
-            ProductMaterial pm = ProductMaterial.builder()
-                    .product(product)
-                    .rawMaterial(rm)
-                    .requiredQuantity(item.requiredQuantity())
-                    .build();
+                components.add(ProductComponent.builder()
+                        .id(UUID.randomUUID())
+                        .product(product)
+                        .component(component)
+                        .quantity(item.requiredQuantity().intValueExact())
+                        .build());
+            }
+        }
 
-            return productMaterialRepo.save(pm);
-        }).toList();
+        // Com a estrutura travada, o grafo lido é o que vale no commit
+        if (!components.isEmpty()) {
+            productComponentJdbc.lockForWrite();
+            rejectCycles(product, components);
+        }
 
-        return saved.stream().map(this::toResponse).toList();
+        // Remove o BOM atual com um único DELETE por tabela e recria em lote
+        productMaterialRepo.deleteAllByProductIdInBulk(productId);
+        productComponentRepo.deleteAllByProductIdInBulk(productId);
+        if (!lines.isEmpty()) {
+            try {
+                productMaterialJdbc.insertAll(lines);
+            } catch (DataIntegrityViolationException e) {
+                // Matéria-prima excluída depois de lida acima (gatilho de V10)
+                throw new NotFoundException("Raw material not found");
+            }
+        }
+        if (!components.isEmpty()) productComponentJdbc.insertAll(components);
+
+        catalogRevision.changed(CatalogRevision.Table.PRODUCT_MATERIALS);
+        catalogRevision.bump();
+
+        List<ProductMaterialItemResponse> resp = new ArrayList<>(lines.size() + components.size());
+        lines.forEach(pm -> resp.add(toResponse(pm)));
+        components.forEach(pc -> resp.add(toResponse(pc)));
+        return resp;
     }
 
     public List<ProductMaterialItemResponse> listMaterials(UUID productId) {
         // valida se produto existe (para retornar 404 se não existir)
         if (!productRepo.existsById(productId)) throw new NotFoundException("Product not found");
 
-        return productMaterialRepo.findByProductId(productId).stream()
-                .map(this::toResponse)
-                .toList();
+        List<ProductMaterialItemResponse> items = new ArrayList<>(productMaterialRepo.findItemsByProductId(productId));
+        productComponentRepo.findItemsByProductId(productId).forEach(c -> items.add(new ProductMaterialItemResponse(
+                c.id(), null, null, null, BigDecimal.valueOf(c.quantity()),
+                c.componentId(), c.componentCode(), c.componentName())));
+        return items;
+    }
+
+    // O produto não pode ser alcançado a partir dos novos componentes (senão o BOM explodiria para sempre)
+    private void rejectCycles(Product product, List<ProductComponent> components) {
+        Map<UUID, List<UUID>> edges = productComponentJdbc.findEdges();
+        edges.remove(product.getId());
+
+        for (ProductComponent pc : components) {
+            Deque<UUID> pending = new ArrayDeque<>(List.of(pc.getComponent().getId()));
+            Set<UUID> seen = new HashSet<>();
+            while (!pending.isEmpty()) {
+                UUID id = pending.pop();
+                if (id.equals(product.getId())) {
+                    throw new BadRequestException("Cycle in BOM: " + pc.getComponent().getCode()
+                            + " already uses " + product.getCode() + " (directly or through its sub-assemblies)");
+                }
+                if (seen.add(id)) pending.addAll(edges.getOrDefault(id, List.of()));
+            }
+        }
     }
 
     private ProductMaterialItemResponse toResponse(ProductMaterial pm) {
@@ -66,4 +183,17 @@ public class ProductMaterialService {
                 pm.getRequiredQuantity()
         );
     }
+
+    private ProductMaterialItemResponse toResponse(ProductComponent pc) {
+        return new ProductMaterialItemResponse(
+                pc.getId(),
+                null,
+                null,
+                null,
+                BigDecimal.valueOf(pc.getQuantity()),
+                pc.getComponent().getId(),
+                pc.getComponent().getCode(),
+                pc.getComponent().getName()
+        );
+    }
 }
@@ -1,12 +1,17 @@
 package com.autoflex.backend.service;
 
+import com.autoflex.backend.dto.ProductListQuery;
 import com.autoflex.backend.dto.ProductRequest;
 import com.autoflex.backend.dto.ProductResponse;
 import com.autoflex.backend.exception.BadRequestException;
 import com.autoflex.backend.exception.NotFoundException;
 import com.autoflex.backend.model.Product;
+import com.autoflex.backend.repository.Keyset;
+import com.autoflex.backend.repository.ProductJdbcRepository;
 import com.autoflex.backend.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,12 +19,16 @@ import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "catalog.service", histogram = true)
 public class ProductService {
 
     private final ProductRepository repo;
+    private final ProductJdbcRepository productJdbc;
+    private final CatalogRevision catalogRevision;
+    private final CatalogEntityCache entityCache;
 
     public ProductResponse create(ProductRequest req) {
-        if (repo.existsByCode(req.code())) {
+        if (entityCache.products().codeExists(req.code(), repo::existsByCode)) {
             throw new BadRequestException("Product code already exists");
         }
         Product p = Product.builder()
@@ -27,34 +36,74 @@ public class ProductService {
                 .name(req.name().trim())
                 .price(req.price())
                 .build();
-        return toResponse(repo.save(p));
+        ProductResponse response = toResponse(save(p));
+        catalogRevision.changed(CatalogRevision.Table.PRODUCTS);
+        entityCache.products().invalidate(response.id(), req.code(), response.code());
+        return response;
     }
 
     public List<ProductResponse> findAll() {
         return repo.findAll().stream().map(this::toResponse).toList();
     }
 
+    public Keyset.Page<ProductResponse> list(ProductListQuery q) {
+        Keyset.Sort sort = Keyset.Sort.parse(q.sort(), ProductJdbcRepository.SORTS);
+        Keyset.Cursor after = q.cursor() == null ? null : Keyset.Cursor.decode(q.cursor());
+        return productJdbc.findPage(q.code(), q.name(), sort, after, Keyset.pageSize(q.limit(), after))
+                .map(this::toResponse);
+    }
+
     public ProductResponse findById(UUID id) {
-        return toResponse(repo.findById(id).orElseThrow(() -> new NotFoundException("Product not found")));
+        return entityCache.products().byId(id, key -> repo.findById(key).map(this::toResponse))
+                .orElseThrow(() -> new NotFoundException("Product not found"));
     }
 
     public ProductResponse update(UUID id, ProductRequest req) {
         Product p = repo.findById(id).orElseThrow(() -> new NotFoundException("Product not found"));
+        String previousCode = p.getCode();
 
         // Se trocar o code, valida duplicidade
-        if (!p.getCode().equals(req.code()) && repo.existsByCode(req.code())) {
+        if (!p.getCode().equals(req.code()) && entityCache.products().codeExists(req.code(), repo::existsByCode)) {
             throw new BadRequestException("Product code already exists");
         }
 
+        // Código, nome e preço aparecem na sugestão de produção
+        boolean changed = !p.getCode().equals(req.code().trim())
+                || !p.getName().equals(req.name().trim())
+                || p.getPrice().compareTo(req.price()) != 0;
+
         p.setCode(req.code().trim());
         p.setName(req.name().trim());
         p.setPrice(req.price());
-        return toResponse(repo.save(p));
+        ProductResponse response = toResponse(save(p));
+        catalogRevision.changed(CatalogRevision.Table.PRODUCTS);
+        if (changed) catalogRevision.bump();
+        entityCache.products().invalidate(id, previousCode, req.code(), response.code());
+        return response;
     }
 
     public void delete(UUID id) {
-        if (!repo.existsById(id)) throw new NotFoundException("Product not found");
-        repo.deleteById(id);
+        ProductResponse existing = findById(id);
+        if (repo.isUsedAsComponent(id)) throw new BadRequestException("Product is used as a sub-assembly in another BOM");
+        // Um BOM pode passar a usá-lo entre a checagem e o DELETE; a FK decide
+        try {
+            repo.deleteById(id);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Product is used as a sub-assembly in another BOM");
+        }
+        // O BOM sai junto (ON DELETE CASCADE)
+        catalogRevision.changed(CatalogRevision.Table.PRODUCTS, CatalogRevision.Table.PRODUCT_MATERIALS);
+        catalogRevision.bump();
+        entityCache.products().invalidate(id, existing.code());
+    }
+
+    // A checagem de código pode vir do cache; o índice UNIQUE continua sendo o árbitro
+    private Product save(Product p) {
+        try {
+            return repo.saveAndFlush(p);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Product code already exists");
+        }
     }
 
     private ProductResponse toResponse(Product p) {
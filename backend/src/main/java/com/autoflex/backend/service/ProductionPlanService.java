@@ -0,0 +1,100 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.*;
+import com.autoflex.backend.exception.BadRequestException;
+import com.autoflex.backend.exception.InsufficientStockException;
+import com.autoflex.backend.exception.NotFoundException;
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.repository.BomLine;
+import com.autoflex.backend.repository.ProductMaterialJdbcRepository;
+import com.autoflex.backend.repository.ProductRepository;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Efetiva um plano de produção: baixa de uma vez o estoque de todas as matérias-primas
+ * necessárias ou, se faltar qualquer uma, não baixa nada. O estoque sai de um único depósito
+ * (o principal, se nenhum for informado).
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(value = "catalog.service", histogram = true)
+public class ProductionPlanService {
+
+    private final ProductRepository productRepo;
+    private final ProductMaterialJdbcRepository productMaterialJdbc;
+    private final RawMaterialJdbcRepository rawMaterialJdbc;
+    private final StockLedgerService stockLedger;
+
+    @Transactional
+    public ProductionPlanResponse commit(List<ProductionPlanItemRequest> items, UUID warehouseId) {
+        if (items.isEmpty()) throw new BadRequestException("Production plan is empty");
+        UUID warehouse = stockLedger.warehouse(warehouseId);
+
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (ProductionPlanItemRequest item : items) {
+            if (quantities.putIfAbsent(item.productId(), item.quantity()) != null) {
+                throw new BadRequestException("Duplicate product: " + item.productId());
+            }
+        }
+
+        Map<UUID, Product> products = new HashMap<>();
+        for (Product p : productRepo.findAllById(quantities.keySet())) {
+            products.put(p.getId(), p);
+        }
+        for (UUID id : quantities.keySet()) {
+            if (!products.containsKey(id)) throw new NotFoundException("Product not found: " + id);
+        }
+
+        // Consumo total por matéria-prima
+        SortedMap<UUID, BigDecimal> required = new TreeMap<>();
+        Set<UUID> withBom = new HashSet<>();
+        for (BomLine line : productMaterialJdbc.findExplodedByProductIds(quantities.keySet())) {
+            BigDecimal quantity = line.requiredQuantity().multiply(BigDecimal.valueOf(quantities.get(line.productId())));
+            required.merge(line.rawMaterialId(), quantity, BigDecimal::add);
+            withBom.add(line.productId());
+        }
+        for (UUID id : quantities.keySet()) {
+            if (!withBom.contains(id)) throw new BadRequestException("Product has no materials: " + products.get(id).getCode());
+        }
+
+        Set<UUID> rejected = stockLedger.consume(required, warehouse, "Production plan");
+        Map<UUID, RawMaterial> materials = rawMaterialJdbc.findStock(required.keySet());
+        Map<UUID, BigDecimal> balances = stockLedger.balances(required.keySet(), warehouse);
+        if (!rejected.isEmpty()) {
+            throw new InsufficientStockException(rejected.stream()
+                    .map(id -> new StockShortage(id, materials.get(id).getCode(), required.get(id), balances.get(id)))
+                    .toList());
+        }
+
+        return toResponse(quantities, products, required, materials, balances);
+    }
+
+    private static ProductionPlanResponse toResponse(Map<UUID, Integer> quantities, Map<UUID, Product> products,
+                                                     SortedMap<UUID, BigDecimal> required, Map<UUID, RawMaterial> materials,
+                                                     Map<UUID, BigDecimal> balances) {
+        List<ProductionSuggestionItemResponse> items = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<UUID, Integer> e : quantities.entrySet()) {
+            Product p = products.get(e.getKey());
+            BigDecimal value = p.getPrice().multiply(BigDecimal.valueOf(e.getValue()));
+            items.add(new ProductionSuggestionItemResponse(p.getId(), p.getCode(), p.getName(), p.getPrice(), e.getValue(), value));
+            total = total.add(value);
+        }
+
+        List<MaterialConsumptionResponse> consumption = required.entrySet().stream()
+                .map(e -> new MaterialConsumptionResponse(e.getKey(), materials.get(e.getKey()).getCode(),
+                        e.getValue(), balances.get(e.getKey())))
+                .sorted(Comparator.comparing(MaterialConsumptionResponse::rawMaterialCode))
+                .toList();
+
+        return new ProductionPlanResponse(List.copyOf(items), total, consumption);
+    }
+}
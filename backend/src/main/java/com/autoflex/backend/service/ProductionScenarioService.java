@@ -0,0 +1,132 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.*;
+import com.autoflex.backend.exception.BadRequestException;
+import com.autoflex.backend.solver.GreedySolver;
+import com.autoflex.backend.solver.OptimalSolver;
+import com.autoflex.backend.solver.ProductionPlan;
+import com.autoflex.backend.solver.SolverModel;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Simulação "e se" sobre o catálogo atual: cada cenário troca estoques e/ou preços e é
+ * resolvido contra o mesmo modelo compilado, em paralelo. Nada é gravado no banco.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductionScenarioService {
+
+    private final ProductionSuggestionService suggestionService;
+    private final ForkJoinPool pool;
+
+    public ScenarioComparisonResponse simulate(List<ScenarioRequest> scenarios, SuggestionMode mode, Duration budget) {
+        SolverModel base = suggestionService.currentModel();
+
+        // Valida e monta as variantes antes de ir para o pool; a posição 0 é o plano atual
+        List<SolverModel> models = new ArrayList<>(scenarios.size() + 1);
+        models.add(base);
+        for (int i = 0; i < scenarios.size(); i++) {
+            models.add(apply(base, scenarios.get(i), scenarioName(scenarios.get(i), i)));
+        }
+
+        List<Outcome> outcomes = pool.submit(() -> models.parallelStream()
+                .map(model -> solve(model, mode, budget))
+                .toList()).join();
+
+        Outcome baseline = outcomes.get(0);
+        List<ScenarioResultResponse> results = new ArrayList<>(scenarios.size());
+        String best = null;
+        BigDecimal bestValue = null;
+        for (int i = 0; i < scenarios.size(); i++) {
+            String name = scenarioName(scenarios.get(i), i);
+            Outcome outcome = outcomes.get(i + 1);
+            BigDecimal value = outcome.response().totalValue();
+
+            results.add(new ScenarioResultResponse(
+                    name,
+                    outcome.response(),
+                    value.subtract(baseline.response().totalValue()),
+                    changes(base, baseline.plan(), outcome.plan())
+            ));
+            if (bestValue == null || value.compareTo(bestValue) > 0) {
+                best = name;
+                bestValue = value;
+            }
+        }
+
+        return new ScenarioComparisonResponse(baseline.response(), List.copyOf(results), best);
+    }
+
+    private static Outcome solve(SolverModel model, SuggestionMode mode, Duration budget) {
+        if (mode == SuggestionMode.GREEDY) {
+            ProductionPlan plan = GreedySolver.solve(model);
+            return new Outcome(plan, ProductionSuggestionService.toResponse(plan));
+        }
+        var result = OptimalSolver.solve(model, budget);
+        return new Outcome(result.plan(), ProductionSuggestionService.toResponse(result));
+    }
+
+    private static SolverModel apply(SolverModel base, ScenarioRequest scenario, String name) {
+        SolverModel model = base;
+
+        if (scenario.stock() != null && !scenario.stock().isEmpty()) {
+            long[] stock = base.newStock();
+            Set<Integer> seen = new HashSet<>();
+            for (ScenarioStockOverride o : scenario.stock()) {
+                int m = base.materialIndexOf(o.rawMaterialId());
+                if (m < 0) throw new BadRequestException(name + ": raw material not used by any product: " + o.rawMaterialId());
+                if (!seen.add(m)) throw new BadRequestException(name + ": duplicate raw material " + o.rawMaterialId());
+                if ((o.stockQuantity() == null) == (o.delta() == null)) {
+                    throw new BadRequestException(name + ": set either stockQuantity or delta for " + o.rawMaterialId());
+                }
+
+                long units = o.stockQuantity() != null
+                        ? SolverModel.toQuantityUnits(o.stockQuantity())
+                        : Math.addExact(stock[m], SolverModel.toQuantityUnits(o.delta()));
+                if (units < 0) throw new BadRequestException(name + ": stock of " + o.rawMaterialId() + " would be negative");
+                stock[m] = units;
+            }
+            model = model.withStock(stock);
+        }
+
+        if (scenario.prices() != null && !scenario.prices().isEmpty()) {
+            BigDecimal[] prices = base.prices();
+            Set<Integer> seen = new HashSet<>();
+            for (ScenarioPriceOverride o : scenario.prices()) {
+                int p = base.productIndexOf(o.productId());
+                if (p < 0) throw new BadRequestException(name + ": product has no BOM: " + o.productId());
+                if (!seen.add(p)) throw new BadRequestException(name + ": duplicate product " + o.productId());
+                prices[p] = o.price();
+            }
+            model = model.withPrices(prices);
+        }
+
+        return model;
+    }
+
+    // Produtos cuja quantidade muda em relação ao plano atual, na ordem de prioridade atual
+    private static List<ScenarioItemChange> changes(SolverModel base, ProductionPlan baseline, ProductionPlan scenario) {
+        List<ScenarioItemChange> changes = new ArrayList<>();
+        for (int p : base.priorityOrder()) {
+            int before = baseline.unitsOf(p);
+            int after = scenario.unitsOf(p);
+            if (before == after) continue;
+
+            changes.add(new ScenarioItemChange(base.productId(p), base.productCode(p), base.productName(p), before, after));
+        }
+        return List.copyOf(changes);
+    }
+
+    private static String scenarioName(ScenarioRequest scenario, int index) {
+        return scenario.name() == null || scenario.name().isBlank() ? "Scenario " + (index + 1) : scenario.name().trim();
+    }
+
+    private record Outcome(ProductionPlan plan, ProductionSuggestionResponse response) {
+    }
+}
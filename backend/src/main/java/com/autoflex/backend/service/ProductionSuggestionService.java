@@ -2,96 +2,279 @@ package com.autoflex.backend.service;
 
 import com.autoflex.backend.dto.ProductionSuggestionItemResponse;
 import com.autoflex.backend.dto.ProductionSuggestionResponse;
-import com.autoflex.backend.model.Product;
-import com.autoflex.backend.model.ProductMaterial;
+import com.autoflex.backend.dto.ProductionSuggestionSummaryResponse;
+import com.autoflex.backend.dto.SuggestionMode;
+import com.autoflex.backend.repository.ComponentLine;
 import com.autoflex.backend.repository.ProductMaterialRepository;
-import lombok.RequiredArgsConstructor;
+import com.autoflex.backend.repository.SolverLine;
+import com.autoflex.backend.solver.BomExplosion;
+import com.autoflex.backend.solver.GreedySolver;
+import com.autoflex.backend.solver.OptimalSolver;
+import com.autoflex.backend.solver.OptimizationResult;
+import com.autoflex.backend.solver.ProductionPlan;
+import com.autoflex.backend.solver.SearchProgress;
+import com.autoflex.backend.solver.SolverModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
-@RequiredArgsConstructor
 public class ProductionSuggestionService {
 
     private final ProductMaterialRepository productMaterialRepo;
+    private final CatalogRevision catalogRevision;
 
-    public ProductionSuggestionResponse suggest() {
-        List<ProductMaterial> all = productMaterialRepo.findAllWithProductAndRawMaterial();
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
 
-        // Agrupa BOM por produto
-        Map<UUID, List<ProductMaterial>> bomByProduct = new HashMap<>();
-        for (ProductMaterial pm : all) {
-            bomByProduct.computeIfAbsent(pm.getProduct().getId(), k -> new ArrayList<>()).add(pm);
-        }
+    // Tempo total por modo e por etapa do pipeline (busca, agrupamento, ordenação, solver, resposta)
+    private final Map<SuggestionMode, Timer> suggestTimers = new EnumMap<>(SuggestionMode.class);
+    private final Timer streamTimer;
+    private final Timer fetchTimer;
+    private final Timer groupTimer;
+    private final Timer sortTimer;
+    private final Timer solveTimer;
+    private final Timer responseTimer;
+
+    // Modelo compilado e sugestão gulosa da última versão do catálogo
+    private volatile Snapshot snapshot;
 
-        // Lista de produtos únicos e ordena por maior preço
-        List<Product> products = bomByProduct.values().stream()
-                .map(list -> list.get(0).getProduct())
-                .sorted(Comparator.comparing(Product::getPrice).reversed())
-                .toList();
+    // Vetores explodidos das submontagens; sobrevivem entre cargas (só acessado dentro do synchronized)
+    private final BomExplosion explosion = new BomExplosion();
 
-        // Estoque "disponível" para simulação (não altera DB)
-        Map<UUID, BigDecimal> availableStock = new HashMap<>();
-        for (ProductMaterial pm : all) {
-            availableStock.putIfAbsent(pm.getRawMaterial().getId(), pm.getRawMaterial().getStockQuantity());
+    public ProductionSuggestionService(ProductMaterialRepository productMaterialRepo,
+                                       CatalogRevision catalogRevision,
+                                       MeterRegistry meterRegistry) {
+        this.productMaterialRepo = productMaterialRepo;
+        this.catalogRevision = catalogRevision;
+        this.cacheHits = Counter.builder("production.suggestion.cache")
+                .description("Production suggestion lookups served from the catalog snapshot")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("production.suggestion.cache")
+                .description("Production suggestion lookups served from the catalog snapshot")
+                .tag("result", "miss")
+                .register(meterRegistry);
+
+        for (SuggestionMode mode : SuggestionMode.values()) {
+            suggestTimers.put(mode, Timer.builder("production.suggestion")
+                    .description("Production suggestion requests, including snapshot refreshes")
+                    .tag("mode", mode.value())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
         }
+        this.streamTimer = Timer.builder("production.suggestion.stream")
+                .description("Streamed production suggestions, including writing to the client")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.fetchTimer = phaseTimer(meterRegistry, "fetch");
+        this.groupTimer = phaseTimer(meterRegistry, "group");
+        this.sortTimer = phaseTimer(meterRegistry, "sort");
+        this.solveTimer = phaseTimer(meterRegistry, "solve");
+        this.responseTimer = phaseTimer(meterRegistry, "response");
+    }
 
-        List<ProductionSuggestionItemResponse> items = new ArrayList<>();
-        BigDecimal grandTotal = BigDecimal.ZERO;
+    private static Timer phaseTimer(MeterRegistry registry, String phase) {
+        return Timer.builder("production.suggestion.phase")
+                .description("Time spent in each stage of the production suggestion pipeline")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public ProductionSuggestionResponse suggest() {
+        return suggestTimers.get(SuggestionMode.GREEDY).record(() -> snapshot().greedy());
+    }
+
+    public ProductionSuggestionResponse suggest(SuggestionMode mode, Duration budget) {
+        return suggest(mode, budget, SearchProgress.NONE);
+    }
 
-        for (Product product : products) {
-            List<ProductMaterial> bom = bomByProduct.get(product.getId());
-            if (bom == null || bom.isEmpty()) continue;
+    /** Como {@link #suggest(SuggestionMode, Duration)}, acompanhando (e podendo cancelar) a busca do modo optimal. */
+    public ProductionSuggestionResponse suggest(SuggestionMode mode, Duration budget, SearchProgress progress) {
+        if (mode == SuggestionMode.GREEDY) return suggest();
 
-            int maxPossible = maxProducibleUnits(bom, availableStock);
-            if (maxPossible <= 0) continue;
+        return suggestTimers.get(mode).record(() -> {
+            SolverModel model = snapshot().model();
+            // Busca exata semeada com o guloso, limitada pelo orçamento de tempo
+            OptimizationResult result = solveTimer.record(() -> OptimalSolver.solve(model, budget, progress));
+            return responseTimer.record(() -> toResponse(result));
+        });
+    }
 
-            // Consome estoque "virtual"
-            consumeStock(bom, availableStock, maxPossible);
+    /**
+     * Entrega os itens ao {@code sink} um a um e devolve o resumo com o total para ser enviado no
+     * final. O guloso sai do plano já calculado no snapshot (o mesmo de {@link #suggest()}); o
+     * optimal entrega os itens na ordem de prioridade assim que a busca termina.
+     */
+    public ProductionSuggestionSummaryResponse stream(SuggestionMode mode, Duration budget,
+                                                      Consumer<ProductionSuggestionItemResponse> sink) {
+        return streamTimer.record(() -> streamPlan(mode, budget, sink));
+    }
 
-            BigDecimal totalValue = product.getPrice().multiply(BigDecimal.valueOf(maxPossible));
-            grandTotal = grandTotal.add(totalValue);
+    private ProductionSuggestionSummaryResponse streamPlan(SuggestionMode mode, Duration budget,
+                                                           Consumer<ProductionSuggestionItemResponse> sink) {
+        Snapshot current = snapshot();
+        if (mode == SuggestionMode.GREEDY) return emit(current.greedy(), sink);
 
-            items.add(new ProductionSuggestionItemResponse(
-                    product.getId(),
-                    product.getCode(),
-                    product.getName(),
-                    product.getPrice(),
-                    maxPossible,
-                    totalValue
-            ));
+        SolverModel model = current.model();
+        int[] itemCount = {0};
+        OptimizationResult result = OptimalSolver.solve(model, budget);
+        for (int p : model.priorityOrder()) {
+            int units = result.plan().unitsOf(p);
+            if (units <= 0) continue;
+            sink.accept(toItem(model, p, units));
+            itemCount[0]++;
         }
+        return new ProductionSuggestionSummaryResponse(itemCount[0], grandTotal(result.plan(), itemCount[0]),
+                SuggestionMode.OPTIMAL, result.upperBound(), result.gap());
+    }
 
-        return new ProductionSuggestionResponse(items, grandTotal);
+    /** Entrega os itens de um plano já montado e devolve o resumo. */
+    static ProductionSuggestionSummaryResponse emit(ProductionSuggestionResponse plan,
+                                                    Consumer<ProductionSuggestionItemResponse> sink) {
+        plan.items().forEach(sink);
+        return new ProductionSuggestionSummaryResponse(plan.items().size(), plan.totalValue(), plan.mode(),
+                plan.upperBound(), plan.optimalityGap());
     }
 
-    private int maxProducibleUnits(List<ProductMaterial> bom, Map<UUID, BigDecimal> stock) {
-        int max = Integer.MAX_VALUE;
+    /** Se já existe um modelo compilado (de qualquer versão); usado pela prontidão da instância. */
+    public boolean isWarm() {
+        return snapshot != null;
+    }
 
-        for (ProductMaterial pm : bom) {
-            BigDecimal available = stock.getOrDefault(pm.getRawMaterial().getId(), BigDecimal.ZERO);
-            BigDecimal required = pm.getRequiredQuantity();
+    /** Modelo compilado da versão atual do catálogo (imutável, pode ser compartilhado). */
+    SolverModel currentModel() {
+        return snapshot().model();
+    }
 
-            if (required == null || required.compareTo(BigDecimal.ZERO) <= 0) return 0;
+    /** Plano guloso da versão atual do catálogo (o mesmo devolvido por {@link #suggest()}). */
+    ProductionPlan currentPlan() {
+        return snapshot().plan();
+    }
 
-            // floor(available / required)
-            int possible = available.divide(required, 0, RoundingMode.FLOOR).intValueExact();
-            max = Math.min(max, possible);
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.version() == catalogRevision.current()) {
+            cacheHits.increment();
+            return current;
         }
 
-        return max == Integer.MAX_VALUE ? 0 : max;
+        synchronized (this) {
+            // A versão é lida antes da consulta: uma escrita concorrente invalida o resultado na próxima leitura
+            long version = catalogRevision.current();
+            current = snapshot;
+            if (current != null && current.version() == version) {
+                cacheHits.increment();
+                return current;
+            }
+
+            cacheMisses.increment();
+            SolverModel model = loadModel();
+            ProductionPlan plan = solveTimer.record(() -> GreedySolver.solve(model));
+            current = new Snapshot(version, model, plan, responseTimer.record(() -> toResponse(plan)));
+            snapshot = current;
+            return current;
+        }
     }
 
-    private void consumeStock(List<ProductMaterial> bom, Map<UUID, BigDecimal> stock, int units) {
-        BigDecimal u = BigDecimal.valueOf(units);
-        for (ProductMaterial pm : bom) {
-            UUID rmId = pm.getRawMaterial().getId();
-            BigDecimal available = stock.getOrDefault(rmId, BigDecimal.ZERO);
-            BigDecimal requiredTotal = pm.getRequiredQuantity().multiply(u);
-            stock.put(rmId, available.subtract(requiredTotal));
+    private SolverModel loadModel() {
+        Timer.Sample fetch = Timer.start();
+        List<SolverLine> lines = productMaterialRepo.findAllSolverLines();
+        List<ComponentLine> components = productMaterialRepo.findAllComponentLines();
+        fetch.stop(fetchTimer);
+
+        // Agrupa em índices densos e quantidades em ponto fixo; o build monta o CSR e a ordem de prioridade
+        SolverModel.Builder builder = groupTimer.record(() -> {
+            if (components.isEmpty()) {
+                explosion.update(Map.of(), Map.of());
+                SolverModel.Builder b = SolverModel.builder();
+                for (SolverLine l : lines) {
+                    b.addLine(l.productId(), l.productCode(), l.productName(), l.price(),
+                            l.rawMaterialId(), l.stockQuantity(), l.requiredQuantity());
+                }
+                return b;
+            }
+            return explode(lines, components);
+        });
+        return sortTimer.record(builder::build);
+    }
+
+    // Com submontagens, cada produto entra no modelo com o BOM explodido (só matérias-primas)
+    private SolverModel.Builder explode(List<SolverLine> lines, List<ComponentLine> components) {
+        Map<UUID, ProductInfo> products = new LinkedHashMap<>();
+        Map<UUID, BigDecimal> stock = new HashMap<>();
+        Map<UUID, Map<UUID, BigDecimal>> direct = new HashMap<>();
+        for (SolverLine l : lines) {
+            products.putIfAbsent(l.productId(), new ProductInfo(l.productId(), l.productCode(), l.productName(), l.price()));
+            stock.put(l.rawMaterialId(), l.stockQuantity());
+            direct.computeIfAbsent(l.productId(), id -> new HashMap<>()).put(l.rawMaterialId(), l.requiredQuantity());
+        }
+        Map<UUID, Map<UUID, Integer>> children = new HashMap<>();
+        for (ComponentLine c : components) {
+            products.putIfAbsent(c.productId(), new ProductInfo(c.productId(), c.productCode(), c.productName(), c.price()));
+            children.computeIfAbsent(c.productId(), id -> new HashMap<>()).put(c.componentId(), c.quantity());
+        }
+        explosion.update(direct, children);
+
+        SolverModel.Builder b = SolverModel.builder();
+        for (ProductInfo p : products.values()) {
+            explosion.requirements(p.id()).forEach((rawMaterialId, required) ->
+                    b.addLine(p.id(), p.code(), p.name(), p.price(),
+                            rawMaterialId, stock.get(rawMaterialId), required));
         }
+        return b;
+    }
+
+    static ProductionSuggestionResponse toResponse(OptimizationResult result) {
+        ProductionSuggestionResponse base = toResponse(result.plan());
+        return new ProductionSuggestionResponse(
+                base.items(),
+                base.totalValue(),
+                SuggestionMode.OPTIMAL,
+                result.upperBound(),
+                result.gap()
+        );
+    }
+
+    static ProductionSuggestionResponse toResponse(ProductionPlan plan) {
+        SolverModel model = plan.model();
+        List<ProductionSuggestionItemResponse> items = new ArrayList<>();
+
+        for (int p : model.priorityOrder()) {
+            int units = plan.unitsOf(p);
+            if (units <= 0) continue;
+
+            items.add(toItem(model, p, units));
+        }
+
+        return new ProductionSuggestionResponse(List.copyOf(items), grandTotal(plan, items.size()));
+    }
+
+    private static ProductionSuggestionItemResponse toItem(SolverModel model, int p, int units) {
+        return new ProductionSuggestionItemResponse(
+                model.productId(p),
+                model.productCode(p),
+                model.productName(p),
+                model.productPrice(p),
+                units,
+                SolverModel.fromPriceCents(model.priceCents(p) * units)
+        );
+    }
+
+    private static BigDecimal grandTotal(ProductionPlan plan, int itemCount) {
+        return itemCount == 0 ? BigDecimal.ZERO : plan.totalValue();
+    }
+
+    private record Snapshot(long version, SolverModel model, ProductionPlan plan, ProductionSuggestionResponse greedy) {
+    }
+
+    private record ProductInfo(UUID id, String code, String name, BigDecimal price) {
     }
 }
@@ -1,63 +1,133 @@
 package com.autoflex.backend.service;
 
+import com.autoflex.backend.dto.RawMaterialListQuery;
 import com.autoflex.backend.dto.RawMaterialRequest;
 import com.autoflex.backend.dto.RawMaterialResponse;
 import com.autoflex.backend.exception.BadRequestException;
 import com.autoflex.backend.exception.NotFoundException;
 import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.repository.Keyset;
+import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
 import com.autoflex.backend.repository.RawMaterialRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "catalog.service", histogram = true)
 public class RawMaterialService {
 
     private final RawMaterialRepository repo;
+    private final RawMaterialJdbcRepository rawMaterialJdbc;
+    private final ProductMaterialRepository productMaterialRepo;
+    private final StockLedgerService stockLedger;
+    private final CatalogRevision catalogRevision;
+    private final CatalogEntityCache entityCache;
 
+    @Transactional
     public RawMaterialResponse create(RawMaterialRequest req) {
-        if (repo.existsByCode(req.code())) {
+        if (entityCache.rawMaterials().codeExists(req.code(), repo::existsByCode)) {
             throw new BadRequestException("Raw material code already exists");
         }
 
         RawMaterial rm = RawMaterial.builder()
                 .code(req.code().trim())
                 .name(req.name().trim())
-                .stockQuantity(req.stockQuantity())
                 .build();
 
-        return toResponse(repo.save(rm));
+        // O movimento de abertura referencia a linha, então ela precisa estar no banco antes
+        rm = save(rm);
+        stockLedger.open(Map.of(rm.getId(), req.stockQuantity()));
+        rm.setStockQuantity(req.stockQuantity());
+        catalogRevision.changed(CatalogRevision.Table.RAW_MATERIALS);
+        entityCache.rawMaterials().invalidate(rm.getId(), req.code(), rm.getCode());
+        return toResponse(rm);
     }
 
     public List<RawMaterialResponse> findAll() {
         return repo.findAll().stream().map(this::toResponse).toList();
     }
 
+    public Keyset.Page<RawMaterialResponse> list(RawMaterialListQuery q) {
+        if (q.minStock() != null && q.maxStock() != null && q.minStock().compareTo(q.maxStock()) > 0) {
+            throw new BadRequestException("minStock must not be greater than maxStock");
+        }
+        Keyset.Sort sort = Keyset.Sort.parse(q.sort(), RawMaterialJdbcRepository.SORTS);
+        Keyset.Cursor after = q.cursor() == null ? null : Keyset.Cursor.decode(q.cursor());
+        return rawMaterialJdbc.findPage(q.code(), q.name(), q.minStock(), q.maxStock(),
+                        sort, after, Keyset.pageSize(q.limit(), after))
+                .map(this::toResponse);
+    }
+
     public RawMaterialResponse findById(UUID id) {
-        RawMaterial rm = repo.findById(id).orElseThrow(() -> new NotFoundException("Raw material not found"));
-        return toResponse(rm);
+        // O cadastro pode vir do cache; o saldo vem da carga (se houve) ou do razão
+        BigDecimal[] loadedStock = new BigDecimal[1];
+        CatalogEntityCache.RawMaterialEntry rm = entityCache.rawMaterials()
+                .byId(id, key -> repo.findById(key).map(found -> {
+                    loadedStock[0] = found.getStockQuantity();
+                    return new CatalogEntityCache.RawMaterialEntry(found.getId(), found.getCode(), found.getName());
+                }))
+                .orElseThrow(() -> new NotFoundException("Raw material not found"));
+        BigDecimal stock = loadedStock[0] != null ? loadedStock[0] : stockLedger.balances(List.of(id), null).get(id);
+        if (stock == null) throw new NotFoundException("Raw material not found");
+        return new RawMaterialResponse(rm.id(), rm.code(), rm.name(), stock);
     }
 
+    @Transactional
     public RawMaterialResponse update(UUID id, RawMaterialRequest req) {
         RawMaterial rm = repo.findById(id).orElseThrow(() -> new NotFoundException("Raw material not found"));
+        String previousCode = rm.getCode();
 
-        if (!rm.getCode().equals(req.code()) && repo.existsByCode(req.code())) {
+        if (!rm.getCode().equals(req.code()) && entityCache.rawMaterials().codeExists(req.code(), repo::existsByCode)) {
             throw new BadRequestException("Raw material code already exists");
         }
 
+        // O estoque informado vira um ajuste no razão (que já avança a revisão do estoque)
+        stockLedger.adjustTo(id, req.stockQuantity());
+        boolean changed = !rm.getCode().equals(req.code().trim()) || !rm.getName().equals(req.name().trim());
+
         rm.setCode(req.code().trim());
         rm.setName(req.name().trim());
         rm.setStockQuantity(req.stockQuantity());
-
-        return toResponse(repo.save(rm));
+        RawMaterialResponse response = toResponse(save(rm));
+        if (changed) catalogRevision.changed(CatalogRevision.Table.RAW_MATERIALS);
+        entityCache.rawMaterials().invalidate(id, previousCode, req.code(), response.code());
+        return response;
     }
 
+    /**
+     * Exclusão lógica ({@link RawMaterial}): movimentos e snapshots continuam no razão. Com a linha
+     * travada, um BOM que a use já está commitado (e a exclusão é recusada) ou vai ser recusado.
+     */
+    @Transactional
     public void delete(UUID id) {
-        if (!repo.existsById(id)) throw new NotFoundException("Raw material not found");
+        RawMaterialResponse existing = findById(id);
+        if (!rawMaterialJdbc.lockForDelete(id)) throw new NotFoundException("Raw material not found");
+        if (productMaterialRepo.existsByRawMaterialId(id)) {
+            throw new BadRequestException("Raw material is used in a product BOM");
+        }
         repo.deleteById(id);
+        catalogRevision.changed(CatalogRevision.Table.RAW_MATERIALS);
+        catalogRevision.bump();
+        entityCache.rawMaterials().invalidate(id, existing.code());
+    }
+
+    // A checagem de código pode vir do cache; o índice UNIQUE continua sendo o árbitro
+    private RawMaterial save(RawMaterial rm) {
+        try {
+            return repo.saveAndFlush(rm);
+        } catch (DataIntegrityViolationException e) {
+            throw new BadRequestException("Raw material code already exists");
+        }
     }
 
     private RawMaterialResponse toResponse(RawMaterial rm) {
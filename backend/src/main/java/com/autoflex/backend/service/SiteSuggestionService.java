@@ -0,0 +1,192 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.ProductionSuggestionItemResponse;
+import com.autoflex.backend.dto.ProductionSuggestionResponse;
+import com.autoflex.backend.dto.ProductionSuggestionSummaryResponse;
+import com.autoflex.backend.dto.SiteSuggestionResponse;
+import com.autoflex.backend.dto.SiteSuggestionsResponse;
+import com.autoflex.backend.dto.SuggestionMode;
+import com.autoflex.backend.exception.NotFoundException;
+import com.autoflex.backend.model.Warehouse;
+import com.autoflex.backend.repository.StockMovementJdbcRepository;
+import com.autoflex.backend.repository.WarehouseRepository;
+import com.autoflex.backend.solver.GreedySolver;
+import com.autoflex.backend.solver.OptimalSolver;
+import com.autoflex.backend.solver.ProductionPlan;
+import com.autoflex.backend.solver.SearchProgress;
+import com.autoflex.backend.solver.SolverModel;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Sugestão de produção por depósito: o catálogo compilado é o mesmo para todos, só o estoque
+ * muda ({@link SolverModel#withStock}).
+ * <p>
+ * Cada depósito tem seu snapshot, válido enquanto a estrutura do catálogo (produtos e BOMs) e
+ * a revisão de estoque daquele depósito não mudam; uma entrada em uma planta não refaz a
+ * sugestão das outras. O modo "todos" resolve os depósitos em paralelo e soma os itens.
+ * <p>
+ * Os snapshots ficam num cache limitado ({@code suggestion.sites.maximum-size}, expirando após
+ * {@code suggestion.sites.ttl-ms} sem uso); a trava de montagem de cada depósito só existe
+ * enquanto alguém a segura.
+ */
+@Service
+public class SiteSuggestionService {
+
+    private final ProductionSuggestionService suggestionService;
+    private final StockMovementJdbcRepository movements;
+    private final WarehouseRepository warehouseRepo;
+    private final CatalogRevision catalogRevision;
+    private final ForkJoinPool pool;
+
+    private final Cache<UUID, SiteSnapshot> snapshots;
+    private final Cache<UUID, Object> locks = Caffeine.newBuilder().weakValues().build();
+
+    public SiteSuggestionService(ProductionSuggestionService suggestionService,
+                                 StockMovementJdbcRepository movements,
+                                 WarehouseRepository warehouseRepo,
+                                 CatalogRevision catalogRevision,
+                                 ForkJoinPool solverPool) {
+        this(suggestionService, movements, warehouseRepo, catalogRevision, solverPool, 100, 3_600_000);
+    }
+
+    @Autowired
+    public SiteSuggestionService(ProductionSuggestionService suggestionService,
+                                 StockMovementJdbcRepository movements,
+                                 WarehouseRepository warehouseRepo,
+                                 CatalogRevision catalogRevision,
+                                 ForkJoinPool solverPool,
+                                 @Value("${suggestion.sites.maximum-size:100}") long maximumSize,
+                                 @Value("${suggestion.sites.ttl-ms:3600000}") long ttlMs) {
+        this.suggestionService = suggestionService;
+        this.movements = movements;
+        this.warehouseRepo = warehouseRepo;
+        this.catalogRevision = catalogRevision;
+        this.pool = solverPool;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMillis(ttlMs))
+                .build();
+    }
+
+    /** Sugestão só com o estoque de um depósito. */
+    public ProductionSuggestionResponse suggest(UUID warehouseId, SuggestionMode mode, Duration budget) {
+        return suggest(warehouseId, mode, budget, SearchProgress.NONE);
+    }
+
+    /** Como {@link #suggest(UUID, SuggestionMode, Duration)}, acompanhando a busca do modo optimal. */
+    public ProductionSuggestionResponse suggest(UUID warehouseId, SuggestionMode mode, Duration budget,
+                                                SearchProgress progress) {
+        requireSite(warehouseId);
+        return solve(snapshot(warehouseId), mode, budget, progress);
+    }
+
+    /** Itens da sugestão de um depósito, um a um, e o resumo no final (NDJSON). */
+    public ProductionSuggestionSummaryResponse stream(UUID warehouseId, SuggestionMode mode, Duration budget,
+                                                      Consumer<ProductionSuggestionItemResponse> sink) {
+        return ProductionSuggestionService.emit(solve(snapshot(warehouseId), mode, budget, SearchProgress.NONE), sink);
+    }
+
+    /** Falha com 404 se o depósito não existe; o stream confere antes de começar a responder. */
+    public void requireSite(UUID warehouseId) {
+        if (!warehouseId.equals(Warehouse.DEFAULT_ID) && !warehouseRepo.existsById(warehouseId)) {
+            throw new NotFoundException("Warehouse not found");
+        }
+    }
+
+    /** Sugestão de cada depósito, resolvidos em paralelo, e a soma por produto. */
+    public SiteSuggestionsResponse suggestAll(SuggestionMode mode, Duration budget) {
+        List<Warehouse> sites = warehouseRepo.findAll(Sort.by("code"));
+
+        List<ProductionSuggestionResponse> plans = pool.submit(() -> sites.parallelStream()
+                .map(w -> solve(snapshot(w.getId()), mode, budget, SearchProgress.NONE))
+                .toList()).join();
+
+        Map<UUID, ProductionSuggestionItemResponse> totals = new LinkedHashMap<>();
+        List<SiteSuggestionResponse> perSite = new ArrayList<>(sites.size());
+        BigDecimal totalValue = BigDecimal.ZERO;
+        for (int i = 0; i < sites.size(); i++) {
+            Warehouse w = sites.get(i);
+            ProductionSuggestionResponse plan = plans.get(i);
+            perSite.add(new SiteSuggestionResponse(w.getId(), w.getCode(), w.getName(), plan));
+            totalValue = totalValue.add(plan.totalValue());
+            for (ProductionSuggestionItemResponse item : plan.items()) {
+                totals.merge(item.productId(), item, SiteSuggestionService::add);
+            }
+        }
+
+        // Mesma ordem do plano de um depósito: maior preço primeiro
+        List<ProductionSuggestionItemResponse> items = totals.values().stream()
+                .sorted(Comparator.comparing(ProductionSuggestionItemResponse::unitPrice).reversed()
+                        .thenComparing(ProductionSuggestionItemResponse::productCode))
+                .toList();
+        return new SiteSuggestionsResponse(items, totalValue, mode, List.copyOf(perSite));
+    }
+
+    private ProductionSuggestionResponse solve(SiteSnapshot site, SuggestionMode mode, Duration budget,
+                                               SearchProgress progress) {
+        if (mode == SuggestionMode.GREEDY) return site.greedy();
+        return ProductionSuggestionService.toResponse(OptimalSolver.solve(site.model(), budget, progress));
+    }
+
+    private SiteSnapshot snapshot(UUID warehouseId) {
+        SiteKey key = key(warehouseId);
+        SiteSnapshot current = snapshots.getIfPresent(warehouseId);
+        if (current != null && current.key().equals(key)) return current;
+
+        synchronized (locks.get(warehouseId, id -> new Object())) {
+            // As revisões são lidas antes das consultas: uma escrita concorrente invalida na próxima leitura
+            key = key(warehouseId);
+            current = snapshots.getIfPresent(warehouseId);
+            if (current != null && current.key().equals(key)) return current;
+
+            SolverModel base = suggestionService.currentModel();
+            List<UUID> materialIds = new ArrayList<>(base.materialCount());
+            for (int m = 0; m < base.materialCount(); m++) {
+                materialIds.add(base.materialId(m));
+            }
+            Map<UUID, BigDecimal> balances = movements.findBalances(materialIds, warehouseId);
+            long[] stock = new long[base.materialCount()];
+            for (int m = 0; m < stock.length; m++) {
+                BigDecimal balance = balances.get(base.materialId(m));
+                stock[m] = balance == null ? 0 : SolverModel.toQuantityUnits(balance);
+            }
+
+            SolverModel model = base.withStock(stock);
+            ProductionPlan plan = GreedySolver.solve(model);
+            current = new SiteSnapshot(key, model, ProductionSuggestionService.toResponse(plan));
+            snapshots.put(warehouseId, current);
+            return current;
+        }
+    }
+
+    // Preço, BOM e o estoque deste depósito; matérias-primas novas só contam quando entram num BOM
+    private SiteKey key(UUID warehouseId) {
+        return new SiteKey(
+                catalogRevision.current(CatalogRevision.Table.PRODUCTS),
+                catalogRevision.current(CatalogRevision.Table.PRODUCT_MATERIALS),
+                catalogRevision.currentStock(warehouseId));
+    }
+
+    private static ProductionSuggestionItemResponse add(ProductionSuggestionItemResponse a,
+                                                        ProductionSuggestionItemResponse b) {
+        return new ProductionSuggestionItemResponse(a.productId(), a.productCode(), a.productName(), a.unitPrice(),
+                a.suggestedQuantity() + b.suggestedQuantity(), a.totalValue().add(b.totalValue()));
+    }
+
+    private record SiteKey(long products, long productMaterials, long stock) {
+    }
+
+    private record SiteSnapshot(SiteKey key, SolverModel model, ProductionSuggestionResponse greedy) {
+    }
+}
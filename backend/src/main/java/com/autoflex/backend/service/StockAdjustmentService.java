@@ -0,0 +1,197 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.StockAdjustmentBatchResponse;
+import com.autoflex.backend.dto.StockAdjustmentError;
+import com.autoflex.backend.dto.StockAdjustmentRequest;
+import com.autoflex.backend.exception.BadRequestException;
+import com.autoflex.backend.exception.NotFoundException;
+import com.autoflex.backend.model.StockMovementKind;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import com.autoflex.backend.repository.StockMovement;
+import com.autoflex.backend.repository.StockMovementJdbcRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Variações de estoque em lote (coletores de recebimento e consumo), em uma transação.
+ * <p>
+ * Cada linha tem uma chave de idempotência: chaves repetidas no lote ou já gravadas são
+ * devolvidas como duplicadas e não geram movimento, então reenviar o lote é seguro. Linhas
+ * inválidas são reportadas e não impedem as demais, como na importação em lote. Débitos travam
+ * as matérias-primas envolvidas e, se o saldo do depósito mais as entradas do lote não cobrir os
+ * débitos do lote para a matéria-prima, os débitos dela são recusados; as entradas seguem. O que
+ * sobra vira um único INSERT.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(value = "catalog.service", histogram = true)
+public class StockAdjustmentService {
+
+    public static final int MAX_BATCH = 5_000;
+
+    private final StockMovementJdbcRepository movements;
+    private final RawMaterialJdbcRepository rawMaterialJdbc;
+    private final StockLedgerService stockLedger;
+    private final CatalogRevision catalogRevision;
+    private final Validator validator;
+
+    private record Line(int row, String key, UUID rawMaterialId, UUID warehouseId, BigDecimal delta, String reference) {
+    }
+
+    private record Site(UUID rawMaterialId, UUID warehouseId) {
+    }
+
+    @Transactional
+    public StockAdjustmentBatchResponse apply(List<StockAdjustmentRequest> rows) {
+        if (rows.size() > MAX_BATCH) throw new BadRequestException("At most " + MAX_BATCH + " adjustments per request");
+
+        List<StockAdjustmentError> errors = new ArrayList<>();
+        List<String> duplicates = new ArrayList<>();
+        Map<String, Integer> rowByKey = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            StockAdjustmentRequest row = rows.get(i);
+            if (row == null) {
+                errors.add(new StockAdjustmentError(i + 1, null, "Empty row"));
+            } else if (valid(i, row, errors) && rowByKey.putIfAbsent(row.idempotencyKey(), i) != null) {
+                duplicates.add(row.idempotencyKey());
+            }
+        }
+
+        List<Line> lines = resolve(rows, rowByKey, errors);
+
+        // Trava antes de olhar as chaves: um reenvio concorrente do mesmo lote já terá sido commitado
+        Map<Site, BigDecimal> balances = lockDebits(lines);
+        Set<String> existing = movements.findExistingKeys(rowByKey.keySet());
+        lines.removeIf(line -> {
+            if (!existing.contains(line.key())) return false;
+            duplicates.add(line.key());
+            return true;
+        });
+        rejectShortages(lines, balances, errors);
+
+        Map<String, StockMovement> byKey = new LinkedHashMap<>();
+        for (Line line : lines) {
+            StockMovementKind kind = line.delta().signum() > 0 ? StockMovementKind.RECEIPT : StockMovementKind.CONSUMPTION;
+            byKey.put(line.key(), StockMovement.of(line.rawMaterialId(), line.warehouseId(), kind, line.delta(), line.reference()));
+        }
+        Set<String> inserted = movements.insertAllIdempotent(byKey);
+        // Gravadas por outra transação entre a consulta e o INSERT
+        byKey.keySet().stream().filter(key -> !inserted.contains(key)).forEach(duplicates::add);
+
+        if (!inserted.isEmpty()) {
+            lines.stream()
+                    .filter(line -> inserted.contains(line.key()))
+                    .map(Line::warehouseId)
+                    .distinct()
+                    .forEach(catalogRevision::stockChanged);
+        }
+
+        errors.sort(Comparator.comparingInt(StockAdjustmentError::row));
+        return new StockAdjustmentBatchResponse(rows.size(), inserted.size(), duplicates, errors);
+    }
+
+    // Matéria-prima por id ou código e depósito, com uma consulta de cada
+    private List<Line> resolve(List<StockAdjustmentRequest> rows, Map<String, Integer> rowByKey,
+                               List<StockAdjustmentError> errors) {
+        Set<UUID> ids = new HashSet<>();
+        Set<String> codes = new HashSet<>();
+        Set<UUID> warehouseIds = new HashSet<>();
+        for (int i : rowByKey.values()) {
+            StockAdjustmentRequest row = rows.get(i);
+            if (row.rawMaterialId() != null) ids.add(row.rawMaterialId());
+            else codes.add(row.code().trim());
+            warehouseIds.add(row.warehouseId());
+        }
+        Set<UUID> existingIds = rawMaterialJdbc.findExistingIds(ids);
+        Map<String, UUID> idByCode = rawMaterialJdbc.findIdsByCodes(codes);
+        Map<UUID, UUID> warehouses = new HashMap<>();
+        for (UUID warehouseId : warehouseIds) {
+            try {
+                warehouses.put(warehouseId, stockLedger.warehouse(warehouseId));
+            } catch (NotFoundException e) {
+                // Fica fora do mapa e as linhas dele viram erro
+            }
+        }
+
+        List<Line> lines = new ArrayList<>(rowByKey.size());
+        for (int i : rowByKey.values()) {
+            StockAdjustmentRequest row = rows.get(i);
+            UUID rawMaterialId = row.rawMaterialId() != null
+                    ? existingIds.contains(row.rawMaterialId()) ? row.rawMaterialId() : null
+                    : idByCode.get(row.code().trim());
+            UUID warehouseId = warehouses.get(row.warehouseId());
+            if (rawMaterialId == null) {
+                errors.add(new StockAdjustmentError(i + 1, row.idempotencyKey(), "Raw material not found"));
+            } else if (warehouseId == null) {
+                errors.add(new StockAdjustmentError(i + 1, row.idempotencyKey(), "Warehouse not found"));
+            } else {
+                lines.add(new Line(i + 1, row.idempotencyKey(), rawMaterialId, warehouseId,
+                        row.delta(), trim(row.reference())));
+            }
+        }
+        return lines;
+    }
+
+    // Trava de uma vez (em ordem de id) as matérias-primas com débito e lê o saldo de cada depósito
+    private Map<Site, BigDecimal> lockDebits(List<Line> lines) {
+        Map<UUID, Set<UUID>> debitsByWarehouse = new HashMap<>();
+        for (Line line : lines) {
+            if (line.delta().signum() < 0) {
+                debitsByWarehouse.computeIfAbsent(line.warehouseId(), w -> new HashSet<>()).add(line.rawMaterialId());
+            }
+        }
+        Set<UUID> debited = new HashSet<>();
+        debitsByWarehouse.values().forEach(debited::addAll);
+        movements.lock(debited);
+
+        Map<Site, BigDecimal> balances = new HashMap<>();
+        debitsByWarehouse.forEach((warehouseId, ids) -> movements.findBalances(ids, warehouseId)
+                .forEach((id, balance) -> balances.put(new Site(id, warehouseId), balance)));
+        return balances;
+    }
+
+    // Só débitos são recusados; as entradas do lote contam a favor deles
+    private static void rejectShortages(List<Line> lines, Map<Site, BigDecimal> balances, List<StockAdjustmentError> errors) {
+        Map<Site, BigDecimal> net = new HashMap<>();
+        for (Line line : lines) {
+            net.merge(new Site(line.rawMaterialId(), line.warehouseId()), line.delta(), BigDecimal::add);
+        }
+        lines.removeIf(line -> {
+            if (line.delta().signum() > 0) return false;
+            Site site = new Site(line.rawMaterialId(), line.warehouseId());
+            BigDecimal balance = balances.get(site);
+            if (balance == null || balance.add(net.get(site)).signum() >= 0) return false;
+            errors.add(new StockAdjustmentError(line.row(), line.key(), "Insufficient stock: balance " + balance.toPlainString()));
+            return true;
+        });
+    }
+
+    private boolean valid(int i, StockAdjustmentRequest row, List<StockAdjustmentError> errors) {
+        List<String> problems = new ArrayList<>();
+        for (ConstraintViolation<StockAdjustmentRequest> v : validator.validate(row)) {
+            problems.add(v.getPropertyPath() + " " + v.getMessage());
+        }
+        if (row.rawMaterialId() == null && (row.code() == null || row.code().isBlank())) {
+            problems.add("rawMaterialId or code is required");
+        }
+        if (row.delta() != null && row.delta().signum() == 0) {
+            problems.add("delta must not be zero");
+        }
+        if (problems.isEmpty()) return true;
+
+        problems.sort(null);
+        errors.add(new StockAdjustmentError(i + 1, row.idempotencyKey(), String.join("; ", problems)));
+        return false;
+    }
+
+    private static String trim(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
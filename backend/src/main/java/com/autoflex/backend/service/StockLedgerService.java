@@ -0,0 +1,184 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.RawMaterialResponse;
+import com.autoflex.backend.dto.StockMovementRequest;
+import com.autoflex.backend.dto.StockMovementResponse;
+import com.autoflex.backend.dto.StockShortage;
+import com.autoflex.backend.exception.BadRequestException;
+import com.autoflex.backend.exception.InsufficientStockException;
+import com.autoflex.backend.exception.NotFoundException;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.model.StockMovementKind;
+import com.autoflex.backend.model.Warehouse;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import com.autoflex.backend.repository.StockMovement;
+import com.autoflex.backend.repository.StockMovementJdbcRepository;
+import com.autoflex.backend.repository.WarehouseRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.*;
+
+/**
+ * Razão de estoque: toda mudança de saldo vira um movimento em {@code stock_movements}.
+ * <p>
+ * Entradas (e ajustes positivos) não conferem saldo. Débitos travam as matérias-primas
+ * envolvidas para conferir o saldo antes de inserir, o que impede saldo negativo. O saldo por
+ * depósito é o último snapshot mais os movimentos posteriores; o {@link #snapshot()} periódico
+ * mantém essa soma curta. O saldo total fica materializado em {@code raw_material_balances}
+ * (gatilho do INSERT), então escritas na mesma matéria-prima se enfileiram até o commit.
+ * <p>
+ * Cada movimento pertence a um depósito; sem depósito informado vale o principal
+ * ({@link Warehouse#DEFAULT_ID}). O saldo de uma matéria-prima é a soma dos depósitos.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(value = "catalog.service", histogram = true)
+public class StockLedgerService {
+
+    public static final int MAX_HISTORY = 1_000;
+
+    private final StockMovementJdbcRepository movements;
+    private final RawMaterialJdbcRepository rawMaterialJdbc;
+    private final WarehouseRepository warehouseRepo;
+    private final CatalogRevision catalogRevision;
+
+    /**
+     * Estoque inicial de matérias-primas recém-criadas (um ajuste por saldo diferente de zero,
+     * no depósito principal).
+     * Ainda não estão em nenhum BOM, então nenhuma sugestão precisa ser refeita logo após o commit.
+     */
+    public void open(Map<UUID, BigDecimal> initialStock) {
+        List<StockMovement> opening = new ArrayList<>();
+        initialStock.forEach((id, quantity) -> {
+            if (quantity.signum() != 0) {
+                opening.add(StockMovement.of(id, Warehouse.DEFAULT_ID, StockMovementKind.ADJUSTMENT, quantity, "Initial stock"));
+            }
+        });
+        if (!opening.isEmpty()) movements.insertAll(opening);
+    }
+
+    @Transactional
+    public StockMovementResponse record(UUID rawMaterialId, StockMovementRequest req) {
+        BigDecimal quantity = req.quantity();
+        if (req.kind() == StockMovementKind.ADJUSTMENT) {
+            if (quantity.signum() == 0) throw new BadRequestException("Adjustment quantity must not be zero");
+        } else if (quantity.signum() <= 0) {
+            throw new BadRequestException(req.kind() + " quantity must be positive");
+        }
+        BigDecimal delta = req.kind() == StockMovementKind.CONSUMPTION ? quantity.negate() : quantity;
+
+        RawMaterial rm = rawMaterialJdbc.findStock(List.of(rawMaterialId)).get(rawMaterialId);
+        if (rm == null) throw new NotFoundException("Raw material not found");
+        UUID warehouseId = warehouse(req.warehouseId());
+
+        if (delta.signum() < 0) {
+            BigDecimal balance = movements.lockBalances(List.of(rawMaterialId), warehouseId).get(rawMaterialId);
+            if (balance.add(delta).signum() < 0) {
+                throw new InsufficientStockException(List.of(
+                        new StockShortage(rawMaterialId, rm.getCode(), delta.negate(), balance)));
+            }
+        }
+
+        StockMovement saved = movements.insert(
+                StockMovement.of(rawMaterialId, warehouseId, req.kind(), delta, trim(req.reference())));
+        catalogRevision.stockChanged(warehouseId);
+        return toResponse(saved);
+    }
+
+    /**
+     * Debita as quantidades (por matéria-prima) do depósito se todas tiverem saldo ali; senão
+     * não grava nada e devolve os ids sem saldo suficiente.
+     */
+    @Transactional
+    public Set<UUID> consume(SortedMap<UUID, BigDecimal> quantities, UUID warehouseId, String reference) {
+        Map<UUID, BigDecimal> balances = movements.lockBalances(quantities.keySet(), warehouseId);
+
+        Set<UUID> rejected = new LinkedHashSet<>();
+        List<StockMovement> debits = new ArrayList<>(quantities.size());
+        quantities.forEach((id, quantity) -> {
+            BigDecimal balance = balances.get(id);
+            if (balance == null || balance.compareTo(quantity) < 0) rejected.add(id);
+            debits.add(StockMovement.of(id, warehouseId, StockMovementKind.CONSUMPTION, quantity.negate(), reference));
+        });
+        if (!rejected.isEmpty()) return rejected;
+
+        movements.insertAll(debits);
+        catalogRevision.stockChanged(warehouseId);
+        return rejected;
+    }
+
+    /**
+     * Ajusta o saldo total para um valor contado (edição da matéria-prima); a diferença é lançada
+     * no depósito principal, que não pode ficar negativo. Devolve a diferença lançada.
+     */
+    @Transactional
+    public BigDecimal adjustTo(UUID rawMaterialId, BigDecimal target) {
+        BigDecimal balance = movements.lockBalances(List.of(rawMaterialId), null).get(rawMaterialId);
+        if (balance == null) throw new NotFoundException("Raw material not found");
+
+        BigDecimal delta = target.subtract(balance);
+        if (delta.signum() < 0) {
+            BigDecimal main = movements.findBalances(List.of(rawMaterialId), Warehouse.DEFAULT_ID).get(rawMaterialId);
+            if (main.add(delta).signum() < 0) {
+                throw new BadRequestException("Stock is spread across warehouses; record the movements per warehouse");
+            }
+        }
+        if (delta.signum() != 0) {
+            movements.insert(StockMovement.of(rawMaterialId, Warehouse.DEFAULT_ID, StockMovementKind.ADJUSTMENT, delta, "Stock count"));
+            catalogRevision.stockChanged(Warehouse.DEFAULT_ID);
+        }
+        return delta;
+    }
+
+    /** Saldo atual das matérias-primas no depósito (sem travar). */
+    public Map<UUID, BigDecimal> balances(Collection<UUID> rawMaterialIds, UUID warehouseId) {
+        return movements.findBalances(rawMaterialIds, warehouseId);
+    }
+
+    public List<StockMovementResponse> history(UUID rawMaterialId, Integer limit) {
+        if (rawMaterialJdbc.findStock(List.of(rawMaterialId)).isEmpty()) {
+            throw new NotFoundException("Raw material not found");
+        }
+        if (limit != null && limit < 1) throw new BadRequestException("limit must be positive");
+        int size = limit == null ? 100 : Math.min(limit, MAX_HISTORY);
+        return movements.findRecent(rawMaterialId, size).stream().map(StockLedgerService::toResponse).toList();
+    }
+
+    public List<RawMaterialResponse> stockAt(OffsetDateTime at) {
+        return movements.findBalancesAt(at).stream()
+                .map(rm -> new RawMaterialResponse(rm.getId(), rm.getCode(), rm.getName(), rm.getStockQuantity()))
+                .toList();
+    }
+
+    // Não muda saldo nenhum, então não mexe na revisão do catálogo
+    @Scheduled(initialDelayString = "${stock.snapshot.interval-ms:300000}",
+            fixedDelayString = "${stock.snapshot.interval-ms:300000}")
+    @Transactional
+    public void snapshot() {
+        movements.snapshot();
+    }
+
+    /** Depósito informado (que precisa existir) ou o principal. */
+    public UUID warehouse(UUID warehouseId) {
+        if (warehouseId == null) return Warehouse.DEFAULT_ID;
+        if (!warehouseId.equals(Warehouse.DEFAULT_ID) && !warehouseRepo.existsById(warehouseId)) {
+            throw new NotFoundException("Warehouse not found");
+        }
+        return warehouseId;
+    }
+
+    private static StockMovementResponse toResponse(StockMovement m) {
+        return new StockMovementResponse(m.id(), m.rawMaterialId(), m.warehouseId(), m.kind(), m.quantity(),
+                m.reference(), m.createdAt());
+    }
+
+    private static String trim(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
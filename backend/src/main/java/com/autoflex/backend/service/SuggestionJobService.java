@@ -0,0 +1,259 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.ProductionSuggestionResponse;
+import com.autoflex.backend.dto.SuggestionJobResponse;
+import com.autoflex.backend.dto.SuggestionJobStatus;
+import com.autoflex.backend.dto.SuggestionMode;
+import com.autoflex.backend.exception.NotFoundException;
+import com.autoflex.backend.exception.ServiceBusyException;
+import com.autoflex.backend.solver.SearchProgress;
+import com.autoflex.backend.solver.SolverModel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sugestões em segundo plano, para orçamentos maiores que o timeout do gateway.
+ * <p>
+ * Os jobs rodam num pool limitado (threads e fila configuráveis; fila cheia vira 503). Um job
+ * igual (modo, orçamento e depósito) pedido na mesma versão do catálogo devolve o que já existe,
+ * na fila, rodando ou terminado. O cancelamento é cooperativo: o solver checa o pedido entre os
+ * nós. Jobs terminados ficam disponíveis por {@code suggestion.jobs.ttl-ms} e depois são removidos.
+ */
+@Service
+public class SuggestionJobService {
+
+    private final ProductionSuggestionService suggestionService;
+    private final SiteSuggestionService siteSuggestionService;
+    private final CatalogRevision catalogRevision;
+    private final ThreadPoolExecutor executor;
+    private final Duration ttl;
+
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<JobKey, Job> byKey = new ConcurrentHashMap<>();
+
+    public SuggestionJobService(ProductionSuggestionService suggestionService,
+                                SiteSuggestionService siteSuggestionService,
+                                CatalogRevision catalogRevision,
+                                MeterRegistry meterRegistry,
+                                @Value("${suggestion.jobs.threads:2}") int threads,
+                                @Value("${suggestion.jobs.queue-capacity:32}") int queueCapacity,
+                                @Value("${suggestion.jobs.ttl-ms:600000}") long ttlMs) {
+        this.suggestionService = suggestionService;
+        this.siteSuggestionService = siteSuggestionService;
+        this.catalogRevision = catalogRevision;
+        this.ttl = Duration.ofMillis(ttlMs);
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "suggestion-job-" + sequence.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        Gauge.builder("production.suggestion.jobs", executor, e -> e.getQueue().size())
+                .description("Asynchronous suggestion jobs by state")
+                .tag("state", "queued")
+                .register(meterRegistry);
+        Gauge.builder("production.suggestion.jobs", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Asynchronous suggestion jobs by state")
+                .tag("state", "running")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(Job::requestCancel);
+        executor.shutdownNow();
+    }
+
+    /** Enfileira o job (ou devolve o igual já existente nesta versão do catálogo). */
+    public SuggestionJobResponse submit(SuggestionMode mode, Duration budget, UUID warehouseId) {
+        if (warehouseId != null) siteSuggestionService.requireSite(warehouseId);
+        // O guloso não usa orçamento: qualquer orçamento reaproveita o mesmo job
+        JobKey key = new JobKey(mode, mode == SuggestionMode.GREEDY ? Duration.ZERO : budget,
+                warehouseId, catalogRevision.current());
+
+        try {
+            Job job = byKey.compute(key, (k, existing) -> {
+                if (existing != null && existing.reusable()) return existing;
+                Job created = new Job(UUID.randomUUID(), k, budget);
+                created.future = executor.submit(() -> run(created));
+                jobs.put(created.id, created);
+                return created;
+            });
+            return job.toResponse();
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Too many suggestion jobs; try again later");
+        }
+    }
+
+    public SuggestionJobResponse get(UUID id) {
+        return find(id).toResponse();
+    }
+
+    /** Pede o cancelamento; um job na fila para na hora, um rodando para no próximo nó da busca. */
+    public SuggestionJobResponse cancel(UUID id) {
+        Job job = find(id);
+        job.requestCancel();
+        byKey.remove(job.key, job);
+        return job.toResponse();
+    }
+
+    @Scheduled(fixedDelayString = "${suggestion.jobs.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        evictExpired(Instant.now());
+    }
+
+    void evictExpired(Instant now) {
+        jobs.values().removeIf(job -> {
+            Instant finishedAt = job.finishedAt;
+            if (finishedAt == null || finishedAt.plus(ttl).isAfter(now)) return false;
+            byKey.remove(job.key, job);
+            return true;
+        });
+    }
+
+    private Job find(UUID id) {
+        Job job = jobs.get(id);
+        if (job == null) throw new NotFoundException("Suggestion job not found");
+        return job;
+    }
+
+    private void run(Job job) {
+        if (!job.start()) return;
+        try {
+            JobKey key = job.key;
+            ProductionSuggestionResponse result = key.warehouseId() == null
+                    ? suggestionService.suggest(key.mode(), job.budget, job)
+                    : siteSuggestionService.suggest(key.warehouseId(), key.mode(), job.budget, job);
+            job.finish(result, null);
+        } catch (RuntimeException e) {
+            job.finish(null, e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        }
+    }
+
+    private record JobKey(SuggestionMode mode, Duration budget, UUID warehouseId, long catalogVersion) {
+    }
+
+    private static final class Job implements SearchProgress {
+
+        private final UUID id;
+        private final JobKey key;
+        private final Duration budget;
+        private final Instant createdAt = Instant.now();
+        private Future<?> future;
+
+        private volatile SuggestionJobStatus status = SuggestionJobStatus.QUEUED;
+        private volatile boolean cancelRequested;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile long nodes;
+        private volatile long incumbentCents = -1;
+        private volatile ProductionSuggestionResponse result;
+        private volatile String error;
+
+        Job(UUID id, JobKey key, Duration budget) {
+            this.id = id;
+            this.key = key;
+            this.budget = budget;
+        }
+
+        @Override
+        public boolean cancelled() {
+            return cancelRequested;
+        }
+
+        @Override
+        public void update(long nodes, long incumbentCents) {
+            this.nodes = nodes;
+            this.incumbentCents = incumbentCents;
+        }
+
+        synchronized boolean start() {
+            if (status != SuggestionJobStatus.QUEUED) return false;
+            status = SuggestionJobStatus.RUNNING;
+            startedAt = Instant.now();
+            return true;
+        }
+
+        synchronized void finish(ProductionSuggestionResponse result, String error) {
+            if (status.finished()) return;
+            if (cancelRequested) {
+                status = SuggestionJobStatus.CANCELLED;
+            } else if (error != null) {
+                status = SuggestionJobStatus.FAILED;
+                this.error = error;
+            } else {
+                status = SuggestionJobStatus.SUCCEEDED;
+                this.result = result;
+            }
+            finishedAt = Instant.now();
+        }
+
+        synchronized void requestCancel() {
+            if (status.finished()) return;
+            cancelRequested = true;
+            if (status == SuggestionJobStatus.QUEUED) {
+                // Ainda na fila: sai dela e já termina como cancelado
+                if (future != null) future.cancel(false);
+                status = SuggestionJobStatus.CANCELLED;
+                finishedAt = Instant.now();
+            }
+        }
+
+        // Cancelado ou com erro não serve para quem pedir o mesmo job de novo
+        boolean reusable() {
+            SuggestionJobStatus current = status;
+            return !cancelRequested && current != SuggestionJobStatus.FAILED && current != SuggestionJobStatus.CANCELLED;
+        }
+
+        SuggestionJobResponse toResponse() {
+            SuggestionJobStatus current = status;
+            ProductionSuggestionResponse done = result;
+            long best = incumbentCents;
+            return new SuggestionJobResponse(
+                    id,
+                    current,
+                    key.mode(),
+                    key.warehouseId(),
+                    key.catalogVersion(),
+                    progress(current),
+                    key.mode() == SuggestionMode.OPTIMAL && startedAt != null ? nodes : null,
+                    done != null ? done.totalValue() : best >= 0 ? SolverModel.fromPriceCents(best) : null,
+                    time(createdAt),
+                    time(startedAt),
+                    time(finishedAt),
+                    done,
+                    error
+            );
+        }
+
+        // Fração do orçamento já usada; só chega a 1 quando o job termina
+        private double progress(SuggestionJobStatus current) {
+            if (current == SuggestionJobStatus.SUCCEEDED) return 1;
+            Instant started = startedAt;
+            if (started == null || budget.isZero()) return 0;
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double used = (double) Duration.between(started, end).toNanos() / budget.toNanos();
+            return Math.min(0.99, used);
+        }
+
+        private static OffsetDateTime time(Instant instant) {
+            return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+        }
+    }
+}
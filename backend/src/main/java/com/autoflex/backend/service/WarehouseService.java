@@ -0,0 +1,44 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.WarehouseRequest;
+import com.autoflex.backend.dto.WarehouseResponse;
+import com.autoflex.backend.exception.BadRequestException;
+import com.autoflex.backend.model.Warehouse;
+import com.autoflex.backend.repository.WarehouseRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Timed(value = "catalog.service", histogram = true)
+public class WarehouseService {
+
+    private final WarehouseRepository repo;
+    private final CatalogRevision catalogRevision;
+
+    // Depósito novo começa sem estoque: nenhuma sugestão em cache muda, só a lista de depósitos
+    public WarehouseResponse create(WarehouseRequest req) {
+        if (repo.existsByCode(req.code().trim())) {
+            throw new BadRequestException("Warehouse code already exists");
+        }
+        Warehouse w = Warehouse.builder()
+                .code(req.code().trim())
+                .name(req.name().trim())
+                .build();
+        WarehouseResponse saved = toResponse(repo.save(w));
+        catalogRevision.changed(CatalogRevision.Table.WAREHOUSES);
+        return saved;
+    }
+
+    public List<WarehouseResponse> findAll() {
+        return repo.findAll(Sort.by("code")).stream().map(WarehouseService::toResponse).toList();
+    }
+
+    static WarehouseResponse toResponse(Warehouse w) {
+        return new WarehouseResponse(w.getId(), w.getCode(), w.getName());
+    }
+}
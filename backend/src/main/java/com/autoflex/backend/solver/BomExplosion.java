@@ -0,0 +1,97 @@
+package com.autoflex.backend.solver;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Explosão memoizada de BOMs com submontagens: o vetor de matérias-primas por unidade de um
+ * produto é o BOM direto mais, para cada componente, a quantidade vezes o vetor do componente.
+ * <p>
+ * Os vetores são calculados em ordem topológica (componentes antes de quem os usa), então uma
+ * submontagem compartilhada é explodida uma vez só. Entre cargas, {@link #update} compara a
+ * estrutura nova com a anterior e descarta apenas os produtos que mudaram e os que dependem
+ * deles (o caminho até as raízes); o resto é reaproveitado. Estoque e preço não entram no
+ * vetor, então não invalidam nada. Não é thread-safe: o chamador serializa as cargas.
+ */
+public final class BomExplosion {
+
+    private Map<UUID, Map<UUID, BigDecimal>> direct = Map.of();
+    private Map<UUID, Map<UUID, Integer>> components = Map.of();
+    private final Map<UUID, Map<UUID, BigDecimal>> exploded = new HashMap<>();
+
+    /**
+     * Troca a estrutura (BOM direto e submontagens por produto) e invalida o que mudou.
+     * Lança {@link IllegalStateException} se encontrar um ciclo.
+     */
+    public void update(Map<UUID, Map<UUID, BigDecimal>> direct, Map<UUID, Map<UUID, Integer>> components) {
+        Set<UUID> changed = new HashSet<>();
+        collectChanged(this.direct, direct, changed);
+        collectChanged(this.components, components, changed);
+
+        // Quem usa cada produto, para subir do que mudou até as raízes
+        Map<UUID, List<UUID>> parents = new HashMap<>();
+        components.forEach((parent, children) -> children.keySet()
+                .forEach(child -> parents.computeIfAbsent(child, id -> new ArrayList<>()).add(parent)));
+
+        Deque<UUID> pending = new ArrayDeque<>(changed);
+        while (!pending.isEmpty()) {
+            UUID id = pending.pop();
+            exploded.remove(id);
+            for (UUID parent : parents.getOrDefault(id, List.of())) {
+                if (changed.add(parent)) pending.push(parent);
+            }
+        }
+
+        this.direct = direct;
+        this.components = components;
+        for (UUID id : products()) {
+            explode(id, new HashSet<>());
+        }
+    }
+
+    /** Produtos com BOM (direto ou só com submontagens). */
+    public Set<UUID> products() {
+        Set<UUID> ids = new LinkedHashSet<>(direct.keySet());
+        ids.addAll(components.keySet());
+        return ids;
+    }
+
+    /** Matérias-primas por unidade do produto, já explodidas (vazio se não tiver BOM). */
+    public Map<UUID, BigDecimal> requirements(UUID productId) {
+        return exploded.getOrDefault(productId, Map.of());
+    }
+
+    private Map<UUID, BigDecimal> explode(UUID productId, Set<UUID> path) {
+        Map<UUID, BigDecimal> cached = exploded.get(productId);
+        if (cached != null) return cached;
+        if (!direct.containsKey(productId) && !components.containsKey(productId)) return Map.of();
+        if (!path.add(productId)) throw new IllegalStateException("Cycle in BOM through product " + productId);
+
+        Map<UUID, BigDecimal> own = direct.getOrDefault(productId, Map.of());
+        Map<UUID, Integer> children = components.getOrDefault(productId, Map.of());
+        Map<UUID, BigDecimal> result;
+        if (children.isEmpty()) {
+            result = own;
+        } else {
+            result = new LinkedHashMap<>(own);
+            for (Map.Entry<UUID, Integer> child : children.entrySet()) {
+                BigDecimal factor = BigDecimal.valueOf(child.getValue());
+                explode(child.getKey(), path).forEach((material, quantity) ->
+                        result.merge(material, quantity.multiply(factor), BigDecimal::add));
+            }
+        }
+
+        path.remove(productId);
+        exploded.put(productId, result);
+        return result;
+    }
+
+    private static <V> void collectChanged(Map<UUID, V> before, Map<UUID, V> after, Set<UUID> changed) {
+        before.forEach((id, value) -> {
+            if (!value.equals(after.get(id))) changed.add(id);
+        });
+        after.keySet().forEach(id -> {
+            if (!before.containsKey(id)) changed.add(id);
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.autoflex.backend.solver;
+
+/**
+ * Guloso por preço sobre o {@link SolverModel}: percorre os produtos do mais caro para o
+ * mais barato e produz o máximo possível de cada um com o estoque restante.
+ * <p>
+ * Trabalha só com {@code int}/{@code long}, sem alocação por linha de BOM.
+ */
+public final class GreedySolver {
+
+    private GreedySolver() {
+    }
+
+    public static ProductionPlan solve(SolverModel model) {
+        return solve(model, model.newStock());
+    }
+
+    /** Resolve consumindo o vetor {@code stock} informado (ele é alterado). */
+    public static ProductionPlan solve(SolverModel model, long[] stock) {
+        return solve(model, stock, (p, units) -> { });
+    }
+
+    /**
+     * Resolve avisando o {@code listener} a cada produto decidido, na ordem de prioridade,
+     * o que permite emitir o plano enquanto ele é calculado.
+     */
+    public static ProductionPlan solve(SolverModel model, long[] stock, PlanListener listener) {
+        int[] units = new int[model.productCount()];
+        long totalCents = 0;
+
+        for (int i = 0; i < model.productCount(); i++) {
+            int p = model.priorityAt(i);
+
+            int maxPossible = maxProducibleUnits(model, p, stock);
+            if (maxPossible <= 0) continue;
+
+            consumeStock(model, p, stock, maxPossible);
+            units[p] = maxPossible;
+            totalCents = Math.addExact(totalCents, Math.multiplyExact(model.priceCents(p), (long) maxPossible));
+            listener.produced(p, maxPossible);
+        }
+
+        return new ProductionPlan(model, units, totalCents);
+    }
+
+    public static int maxProducibleUnits(SolverModel model, int p, long[] stock) {
+        int max = Integer.MAX_VALUE;
+
+        for (int line = model.bomStart(p); line < model.bomEnd(p); line++) {
+            long required = model.bomRequired(line);
+            if (required <= 0) return 0;
+
+            // floor(available / required): ambos na mesma escala e não negativos
+            int possible = Math.toIntExact(stock[model.bomMaterial(line)] / required);
+            max = Math.min(max, possible);
+        }
+
+        return max == Integer.MAX_VALUE ? 0 : max;
+    }
+
+    public static void consumeStock(SolverModel model, int p, long[] stock, int units) {
+        for (int line = model.bomStart(p); line < model.bomEnd(p); line++) {
+            stock[model.bomMaterial(line)] -= Math.multiplyExact(model.bomRequired(line), (long) units);
+        }
+    }
+}
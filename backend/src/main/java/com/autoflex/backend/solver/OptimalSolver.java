@@ -0,0 +1,473 @@
+package com.autoflex.backend.solver;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Solver exato (branch-and-bound com relaxação linear) para o plano de produção de maior valor:
+ * <pre>
+ *   max  sum(preço_j * x_j)
+ *   s.a. sum(necessário_ij * x_j) &lt;= estoque_i   para cada matéria-prima i
+ *        x_j inteiro &gt;= 0
+ * </pre>
+ * A busca começa com a solução do {@link GreedySolver} como incumbente, explora os nós em
+ * profundidade e para quando prova a otimalidade ou quando o orçamento de tempo acaba. Nesse
+ * caso devolve o melhor plano encontrado junto com o limite superior ainda em aberto.
+ * <p>
+ * A relaxação é resolvida por um simplex primal denso, em Java puro. Como todos os
+ * coeficientes são não negativos, a origem (folgas na base) é sempre viável depois de
+ * deslocar os limites inferiores, então não há fase 1. O tableau é alocado uma vez por busca e
+ * reaproveitado em todos os nós. Catálogos cujo tableau passaria de {@link #MAX_TABLEAU_CELLS}
+ * ficam só com o guloso e um limite superior trivial.
+ */
+public final class OptimalSolver {
+
+    static final long MAX_TABLEAU_CELLS = 4_000_000;
+
+    // Limite superior dado só pelas linhas de estoque (sem linha extra no tableau)
+    private static final long UNBOUNDED = Long.MAX_VALUE;
+
+    private static final double EPS = 1e-9;
+    private static final double INTEGRALITY_EPS = 1e-6;
+
+    private OptimalSolver() {
+    }
+
+    public static OptimizationResult solve(SolverModel model, Duration budget) {
+        return solve(model, budget, SearchProgress.NONE);
+    }
+
+    /** Como {@link #solve(SolverModel, Duration)}, informando o andamento e parando se cancelado. */
+    public static OptimizationResult solve(SolverModel model, Duration budget, SearchProgress progress) {
+        long deadline = System.nanoTime() + Math.max(0, budget.toNanos());
+        return new Search(model, deadline, progress).run();
+    }
+
+    /**
+     * Preços-sombra da relaxação linear na raiz, numa única resolução do simplex: quanto o valor
+     * ótimo contínuo sobe, em centavos, por unidade inteira (1.000) a mais de cada matéria-prima.
+     * O vetor segue os índices de matéria-prima do modelo. Devolve {@code null} se o tableau passar
+     * de {@link #MAX_TABLEAU_CELLS} ou o orçamento acabar antes do ótimo da relaxação.
+     */
+    public static double[] shadowPrices(SolverModel model, Duration budget) {
+        long deadline = System.nanoTime() + Math.max(0, budget.toNanos());
+        return new Search(model, deadline, SearchProgress.NONE).shadowPrices();
+    }
+
+    private record Node(long[] lower, long[] upper, double parentBound) {
+    }
+
+    private static final class Search {
+
+        private final SolverModel model;
+        private final long deadline;
+        private final SearchProgress progress;
+        private final long[] stock;
+
+        // Variáveis: só produtos que podem ser produzidos ao menos uma vez com o estoque inicial
+        private final int[] product;
+        private final long[] rootUpper;
+        private final double[] objective;
+        private final double objectiveScale;
+
+        // Linhas: matérias-primas usadas por essas variáveis
+        private final int[] materialRow;
+        private final int rowCount;
+
+        private int[] incumbent;
+        private long incumbentCents;
+
+        // Tableau de rascunho reaproveitado por todos os nós da busca (cresce, nunca encolhe)
+        private double[][] scratch = new double[0][];
+
+        Search(SolverModel model, long deadline, SearchProgress progress) {
+            this.model = model;
+            this.deadline = deadline;
+            this.progress = progress;
+            this.stock = model.newStock();
+
+            int[] candidates = new int[model.productCount()];
+            long[] upper = new long[model.productCount()];
+            int n = 0;
+            for (int p = 0; p < model.productCount(); p++) {
+                int max = GreedySolver.maxProducibleUnits(model, p, stock);
+                if (max > 0 && model.priceCents(p) > 0) {
+                    candidates[n] = p;
+                    upper[n] = max;
+                    n++;
+                }
+            }
+            this.product = Arrays.copyOf(candidates, n);
+            this.rootUpper = Arrays.copyOf(upper, n);
+
+            this.materialRow = new int[model.materialCount()];
+            Arrays.fill(materialRow, -1);
+            int rows = 0;
+            for (int p : product) {
+                for (int line = model.bomStart(p); line < model.bomEnd(p); line++) {
+                    int m = model.bomMaterial(line);
+                    if (materialRow[m] < 0) materialRow[m] = rows++;
+                }
+            }
+            this.rowCount = rows;
+
+            double maxPrice = 1;
+            for (int p : product) maxPrice = Math.max(maxPrice, model.priceCents(p));
+            this.objectiveScale = maxPrice;
+            this.objective = new double[n];
+            for (int j = 0; j < n; j++) objective[j] = model.priceCents(product[j]) / maxPrice;
+
+            ProductionPlan greedy = GreedySolver.solve(model);
+            this.incumbent = greedy.units().clone();
+            this.incumbentCents = greedy.totalValueCents();
+        }
+
+        OptimizationResult run() {
+            int n = product.length;
+            if (n == 0) return result(incumbentCents, true);
+
+            long cells = (rowCount + 1L) * (n + rowCount + 1L);
+            if (cells > MAX_TABLEAU_CELLS) return result(trivialBound(), false);
+
+            Deque<Node> open = new ArrayDeque<>();
+            long[] unbounded = new long[n];
+            Arrays.fill(unbounded, UNBOUNDED);
+            open.push(new Node(new long[n], unbounded, Double.POSITIVE_INFINITY));
+
+            long nodes = 0;
+            while (!open.isEmpty()) {
+                if (expired()) break;
+                progress.update(nodes++, incumbentCents);
+
+                Node node = open.pop();
+                if (prune(node.parentBound())) continue;
+
+                Relaxation lp = relax(node);
+                if (lp == null) continue;
+                if (lp.aborted()) {
+                    // Sem tempo (ou sem convergência) para este nó: o limite do pai continua em aberto
+                    open.push(node);
+                    break;
+                }
+
+                tryRounding(node, lp.x());
+                if (prune(lp.bound())) continue;
+
+                int branch = branchingVariable(node, lp.x());
+                if (branch < 0) {
+                    accept(node, lp.x());
+                    continue;
+                }
+
+                double value = lp.x()[branch];
+                long down = node.lower()[branch] + (long) Math.floor(value);
+
+                long[] upLower = node.lower().clone();
+                long[] downUpper = node.upper().clone();
+                downUpper[branch] = down;
+                upLower[branch] = down + 1;
+
+                open.push(new Node(node.lower(), downUpper, lp.bound()));
+                if (upLower[branch] <= node.upper()[branch]) {
+                    open.push(new Node(upLower, node.upper(), lp.bound()));
+                }
+            }
+
+            if (open.isEmpty()) return result(incumbentCents, true);
+
+            double bound = incumbentCents;
+            for (Node node : open) bound = Math.max(bound, node.parentBound());
+            if (Double.isInfinite(bound)) return result(trivialBound(), false);
+            return result(toCents(bound), false);
+        }
+
+        private boolean expired() {
+            return System.nanoTime() - deadline >= 0 || progress.cancelled();
+        }
+
+        double[] shadowPrices() {
+            int n = product.length;
+            double[] prices = new double[model.materialCount()];
+            if (n == 0) return prices;
+
+            long cells = (rowCount + 1L) * (n + rowCount + 1L);
+            if (cells > MAX_TABLEAU_CELLS) return null;
+
+            long[] unbounded = new long[n];
+            Arrays.fill(unbounded, UNBOUNDED);
+            Relaxation lp = relax(new Node(new long[n], unbounded, Double.POSITIVE_INFINITY));
+            if (lp == null || lp.aborted()) return null;
+
+            // Dual da linha normalizada (necessário / estoque) volta para centavos por unidade inteira
+            double unit = Math.pow(10, SolverModel.QUANTITY_SCALE);
+            for (int m = 0; m < prices.length; m++) {
+                int r = materialRow[m];
+                if (r >= 0) prices[m] = Math.max(0, lp.duals()[r]) * objectiveScale / stock[m] * unit;
+            }
+
+            // Matérias-primas fora do LP (só usadas por produtos que não saem nem uma unidade):
+            // o menor preço que mantém a viabilidade dual, ou seja, o que uma unidade renderia
+            // no melhor desses produtos pagando as outras pelo preço-sombra
+            double[] outside = new double[prices.length];
+            for (int m = 0; m < prices.length; m++) {
+                if (materialRow[m] >= 0) continue;
+                for (int i = model.usageStart(m); i < model.usageEnd(m); i++) {
+                    int p = model.usageProduct(i);
+                    long required = model.usageRequired(i);
+                    if (required <= 0) continue;
+
+                    double reduced = model.priceCents(p);
+                    for (int line = model.bomStart(p); line < model.bomEnd(p); line++) {
+                        int other = model.bomMaterial(line);
+                        if (other != m) reduced -= prices[other] * model.bomRequired(line) / unit;
+                    }
+                    outside[m] = Math.max(outside[m], reduced * unit / required);
+                }
+            }
+            for (int m = 0; m < prices.length; m++) {
+                if (materialRow[m] < 0) prices[m] = outside[m];
+            }
+            return prices;
+        }
+
+        private boolean prune(double bound) {
+            return !Double.isInfinite(bound) && toCents(bound) <= incumbentCents;
+        }
+
+        private long toCents(double bound) {
+            if (bound >= Long.MAX_VALUE) return Long.MAX_VALUE;
+            // Folga relativa para não podar o ótimo por erro de arredondamento do simplex
+            double slack = Math.max(1e-6, Math.abs(bound) * 1e-9);
+            return Math.max(incumbentCents, (long) Math.floor(bound + slack));
+        }
+
+        private long trivialBound() {
+            double bound = 0;
+            for (int j = 0; j < product.length; j++) {
+                bound += (double) model.priceCents(product[j]) * rootUpper[j];
+            }
+            return toCents(bound);
+        }
+
+        private int branchingVariable(Node node, double[] x) {
+            int best = -1;
+            double bestScore = 0;
+            for (int j = 0; j < x.length; j++) {
+                if (node.lower()[j] == node.upper()[j]) continue;
+                double fraction = x[j] - Math.floor(x[j]);
+                double distance = Math.min(fraction, 1 - fraction);
+                if (distance <= INTEGRALITY_EPS) continue;
+                double score = distance * objective[j];
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = j;
+                }
+            }
+            return best;
+        }
+
+        private void accept(Node node, double[] x) {
+            int[] units = new int[model.productCount()];
+            for (int j = 0; j < x.length; j++) {
+                units[product[j]] = Math.toIntExact(node.lower()[j] + Math.round(x[j]));
+            }
+            offer(units);
+        }
+
+        // Heurística de arredondamento: piso da relaxação + guloso no estoque que sobrar
+        private void tryRounding(Node node, double[] x) {
+            int[] units = new int[model.productCount()];
+            for (int j = 0; j < x.length; j++) {
+                units[product[j]] = Math.toIntExact(node.lower()[j] + (long) Math.floor(x[j] + INTEGRALITY_EPS));
+            }
+            long[] residual = residualStock(units);
+            if (residual == null) return;
+
+            for (int p : model.priorityOrder()) {
+                int extra = GreedySolver.maxProducibleUnits(model, p, residual);
+                if (extra <= 0) continue;
+                GreedySolver.consumeStock(model, p, residual, extra);
+                units[p] += extra;
+            }
+            offer(units);
+        }
+
+        // Confere a viabilidade de forma exata antes de trocar o incumbente
+        private void offer(int[] units) {
+            if (residualStock(units) == null) return;
+            long cents = 0;
+            for (int p = 0; p < units.length; p++) {
+                cents = Math.addExact(cents, Math.multiplyExact(model.priceCents(p), (long) units[p]));
+            }
+            if (cents > incumbentCents) {
+                incumbentCents = cents;
+                incumbent = units;
+            }
+        }
+
+        private long[] residualStock(int[] units) {
+            long[] residual = model.newStock();
+            for (int p = 0; p < units.length; p++) {
+                if (units[p] == 0) continue;
+                GreedySolver.consumeStock(model, p, residual, units[p]);
+            }
+            for (long r : residual) {
+                if (r < 0) return null;
+            }
+            return residual;
+        }
+
+        private Relaxation relax(Node node) {
+            int n = product.length;
+            long[] lower = node.lower();
+            long[] upper = node.upper();
+
+            // Desloca os limites inferiores: x = lower + x', com estoque residual exato
+            long[] residual = stock.clone();
+            double fixedValue = 0;
+            for (int j = 0; j < n; j++) {
+                if (lower[j] == 0) continue;
+                int p = product[j];
+                for (int line = model.bomStart(p); line < model.bomEnd(p); line++) {
+                    residual[model.bomMaterial(line)] -= model.bomRequired(line) * lower[j];
+                }
+                fixedValue += objective[j] * lower[j];
+            }
+            for (int m = 0; m < residual.length; m++) {
+                if (materialRow[m] >= 0 && residual[m] < 0) return null;
+            }
+
+            // Colunas ativas (variáveis não fixadas) e linhas extras para limites superiores de ramificação
+            int[] column = new int[n];
+            int columns = 0;
+            int boundRows = 0;
+            for (int j = 0; j < n; j++) {
+                if (upper[j] <= lower[j]) continue;
+                column[columns++] = j;
+                if (upper[j] != UNBOUNDED) boundRows++;
+            }
+
+            double[] x = new double[n];
+            if (columns == 0) return new Relaxation(x, fixedValue * objectiveScale, false, new double[rowCount]);
+
+            int rows = rowCount + boundRows;
+            int width = columns + rows + 1;
+            double[][] t = tableau(rows + 1, width);
+            int[] basis = new int[rows];
+
+            for (int c = 0; c < columns; c++) {
+                int j = column[c];
+                int p = product[j];
+                for (int line = model.bomStart(p); line < model.bomEnd(p); line++) {
+                    int m = model.bomMaterial(line);
+                    t[materialRow[m]][c] += (double) model.bomRequired(line) / stock[m];
+                }
+                t[rows][c] = -objective[j];
+            }
+            for (int m = 0; m < residual.length; m++) {
+                int r = materialRow[m];
+                if (r >= 0) t[r][width - 1] = (double) residual[m] / stock[m];
+            }
+            int r = rowCount;
+            for (int c = 0; c < columns; c++) {
+                int j = column[c];
+                if (upper[j] == UNBOUNDED) continue;
+                t[r][c] = 1;
+                t[r][width - 1] = upper[j] - lower[j];
+                r++;
+            }
+            for (int i = 0; i < rows; i++) {
+                t[i][columns + i] = 1;
+                basis[i] = columns + i;
+            }
+
+            if (!simplex(t, basis, rows, width)) return new Relaxation(x, 0, true, null);
+
+            for (int i = 0; i < rows; i++) {
+                if (basis[i] < columns) x[column[basis[i]]] = Math.max(0, t[i][width - 1]);
+            }
+            // Custo reduzido das folgas das matérias-primas = duais (preços-sombra normalizados)
+            double[] duals = Arrays.copyOfRange(t[rows], columns, columns + rowCount);
+            return new Relaxation(x, (fixedValue + t[rows][width - 1]) * objectiveScale, false, duals);
+        }
+
+        // Zera a área usada do rascunho, aumentando com folga quando o nó precisa de mais linhas ou colunas
+        private double[][] tableau(int rows, int width) {
+            if (scratch.length < rows) scratch = Arrays.copyOf(scratch, Math.max(rows, scratch.length + scratch.length / 2));
+            for (int i = 0; i < rows; i++) {
+                double[] row = scratch[i];
+                if (row == null || row.length < width) {
+                    scratch[i] = new double[row == null ? width : Math.max(width, row.length + row.length / 2)];
+                } else {
+                    Arrays.fill(row, 0, width, 0);
+                }
+            }
+            return scratch;
+        }
+
+        // Simplex primal (regra de Dantzig, desempate de Bland). Retorna false se estourar tempo ou iterações.
+        private boolean simplex(double[][] t, int[] basis, int rows, int width) {
+            int rhs = width - 1;
+            int maxIterations = 50 * (rows + width);
+
+            for (int iteration = 0; iteration < maxIterations; iteration++) {
+                if ((iteration & 63) == 63 && expired()) return false;
+
+                double[] z = t[rows];
+                int entering = -1;
+                double mostNegative = -EPS;
+                for (int c = 0; c < rhs; c++) {
+                    if (z[c] < mostNegative) {
+                        mostNegative = z[c];
+                        entering = c;
+                    }
+                }
+                if (entering < 0) return true;
+
+                int leaving = -1;
+                double bestRatio = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < rows; i++) {
+                    double a = t[i][entering];
+                    if (a <= EPS) continue;
+                    double ratio = t[i][rhs] / a;
+                    if (ratio < bestRatio - EPS || (ratio <= bestRatio + EPS && leaving >= 0 && basis[i] < basis[leaving])) {
+                        bestRatio = ratio;
+                        leaving = i;
+                    }
+                }
+                // Não acontece com coeficientes não negativos e limites finitos, mas evita laço infinito
+                if (leaving < 0) return false;
+
+                pivot(t, rows, width, leaving, entering);
+                basis[leaving] = entering;
+            }
+            return false;
+        }
+
+        private static void pivot(double[][] t, int rows, int width, int pr, int pc) {
+            double[] pivotRow = t[pr];
+            double inv = 1.0 / pivotRow[pc];
+            for (int c = 0; c < width; c++) pivotRow[c] *= inv;
+            pivotRow[pc] = 1;
+
+            for (int i = 0; i <= rows; i++) {
+                if (i == pr) continue;
+                double[] row = t[i];
+                double factor = row[pc];
+                if (factor == 0) continue;
+                for (int c = 0; c < width; c++) row[c] -= factor * pivotRow[c];
+                row[pc] = 0;
+            }
+        }
+
+        private OptimizationResult result(long upperBoundCents, boolean proven) {
+            ProductionPlan plan = new ProductionPlan(model, incumbent, incumbentCents);
+            return new OptimizationResult(plan, Math.max(upperBoundCents, incumbentCents), proven);
+        }
+    }
+
+    private record Relaxation(double[] x, double bound, boolean aborted, double[] duals) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.autoflex.backend.solver;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Melhor plano encontrado pelo {@link OptimalSolver} e o limite superior provado para o valor
+ * ótimo. Quando {@code provenOptimal} é verdadeiro o limite coincide com o valor do plano.
+ */
+public record OptimizationResult(ProductionPlan plan, long upperBoundCents, boolean provenOptimal) {
+
+    public BigDecimal upperBound() {
+        return SolverModel.fromPriceCents(upperBoundCents);
+    }
+
+    /** Gap relativo: (limite - valor) / limite, com 6 casas decimais. */
+    public BigDecimal gap() {
+        if (upperBoundCents == 0) return BigDecimal.ZERO.setScale(6);
+        return BigDecimal.valueOf(upperBoundCents - plan.totalValueCents())
+                .divide(BigDecimal.valueOf(upperBoundCents), 6, RoundingMode.HALF_UP);
+    }
+}
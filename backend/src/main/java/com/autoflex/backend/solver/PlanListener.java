@@ -0,0 +1,7 @@
+package com.autoflex.backend.solver;
+
+/** Recebe cada decisão de um solver: {@code units} unidades do produto de índice {@code product}. */
+@FunctionalInterface
+public interface PlanListener {
+    void produced(int product, int units);
+}
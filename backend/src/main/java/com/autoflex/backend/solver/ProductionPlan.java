@@ -0,0 +1,22 @@
+package com.autoflex.backend.solver;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado de um solver: unidades por índice de produto do {@link SolverModel} e o valor
+ * total em centavos.
+ */
+public record ProductionPlan(SolverModel model, int[] units, long totalValueCents) {
+
+    public int unitsOf(int p) {
+        return units[p];
+    }
+
+    public long totalValueCents(int p) {
+        return model.priceCents(p) * units[p];
+    }
+
+    public BigDecimal totalValue() {
+        return SolverModel.fromPriceCents(totalValueCents);
+    }
+}
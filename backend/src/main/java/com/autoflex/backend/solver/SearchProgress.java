@@ -0,0 +1,20 @@
+package com.autoflex.backend.solver;
+
+/**
+ * Acompanhamento de uma busca do {@link OptimalSolver}: recebe o andamento a cada nó e pode
+ * pedir para parar. O cancelamento é cooperativo (checado entre nós e durante o simplex) e a
+ * busca devolve o melhor plano encontrado até ali, como quando o orçamento acaba.
+ */
+public interface SearchProgress {
+
+    SearchProgress NONE = new SearchProgress() {
+    };
+
+    default boolean cancelled() {
+        return false;
+    }
+
+    /** Chamado antes de cada nó, com os nós já explorados e o valor (em centavos) do melhor plano. */
+    default void update(long nodes, long incumbentCents) {
+    }
+}
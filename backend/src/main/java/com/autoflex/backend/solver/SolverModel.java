@@ -0,0 +1,358 @@
+package com.autoflex.backend.solver;
+
+import com.autoflex.backend.model.ProductMaterial;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Modelo compilado do catálogo para o solver de produção.
+ * <p>
+ * Produtos e matérias-primas recebem índices densos; quantidades ficam em ponto fixo
+ * (escala 3, igual a {@code NUMERIC(14,3)}) e preços em centavos (escala 2). O BOM de cada
+ * produto é armazenado em formato CSR: as linhas do produto {@code p} ocupam o intervalo
+ * {@code [bomStart[p], bomStart[p + 1])} de {@code bomMaterial} e {@code bomRequired}.
+ * O índice inverso (matéria-prima -> produtos que a usam) é o mesmo CSR transposto, em
+ * {@code [usageStart[m], usageStart[m + 1])} de {@code usageProduct} e {@code usageRequired}.
+ * <p>
+ * A instância é imutável depois de compilada e pode ser compartilhada entre threads.
+ */
+public final class SolverModel {
+
+    public static final int QUANTITY_SCALE = 3;
+    public static final int PRICE_SCALE = 2;
+
+    private final UUID[] productIds;
+    private final String[] productCodes;
+    private final String[] productNames;
+    private final BigDecimal[] productPrices;
+    private final long[] priceCents;
+
+    private final int[] bomStart;
+    private final int[] bomMaterial;
+    private final long[] bomRequired;
+
+    private final int[] usageStart;
+    private final int[] usageProduct;
+    private final long[] usageRequired;
+
+    private final UUID[] materialIds;
+    private final long[] initialStock;
+
+    private final int[] priorityOrder;
+    private final int[] tieOrder;
+
+    private final Map<UUID, Integer> productIndex;
+    private final Map<UUID, Integer> materialIndex;
+
+    private SolverModel(Builder b) {
+        int productCount = b.productIds.size();
+        this.productIds = b.productIds.toArray(UUID[]::new);
+        this.productCodes = b.productCodes.toArray(String[]::new);
+        this.productNames = b.productNames.toArray(String[]::new);
+        this.productPrices = b.productPrices.toArray(BigDecimal[]::new);
+        this.priceCents = new long[productCount];
+        for (int p = 0; p < productCount; p++) {
+            priceCents[p] = toPriceCents(productPrices[p]);
+        }
+
+        this.materialIds = b.materialIds.toArray(UUID[]::new);
+        this.initialStock = Arrays.copyOf(b.materialStock, b.materialIds.size());
+
+        // Monta o CSR agrupando as linhas por produto (counting sort, preserva a ordem de chegada)
+        int lineCount = b.lineCount;
+        this.bomStart = new int[productCount + 1];
+        for (int i = 0; i < lineCount; i++) {
+            bomStart[b.lineProduct[i] + 1]++;
+        }
+        for (int p = 0; p < productCount; p++) {
+            bomStart[p + 1] += bomStart[p];
+        }
+        this.bomMaterial = new int[lineCount];
+        this.bomRequired = new long[lineCount];
+        int[] cursor = Arrays.copyOf(bomStart, productCount);
+        for (int i = 0; i < lineCount; i++) {
+            int slot = cursor[b.lineProduct[i]]++;
+            bomMaterial[slot] = b.lineMaterial[i];
+            bomRequired[slot] = b.lineRequired[i];
+        }
+
+        // Transposto por matéria-prima, na ordem dos produtos
+        int materialCount = materialIds.length;
+        this.usageStart = new int[materialCount + 1];
+        for (int i = 0; i < lineCount; i++) {
+            usageStart[bomMaterial[i] + 1]++;
+        }
+        for (int m = 0; m < materialCount; m++) {
+            usageStart[m + 1] += usageStart[m];
+        }
+        this.usageProduct = new int[lineCount];
+        this.usageRequired = new long[lineCount];
+        int[] usageCursor = Arrays.copyOf(usageStart, materialCount);
+        for (int p = 0; p < productCount; p++) {
+            for (int line = bomStart[p]; line < bomStart[p + 1]; line++) {
+                int slot = usageCursor[bomMaterial[line]]++;
+                usageProduct[slot] = p;
+                usageRequired[slot] = bomRequired[line];
+            }
+        }
+
+        this.productIndex = Map.copyOf(b.productIndex);
+        this.materialIndex = Map.copyOf(b.materialIndex);
+        this.tieOrder = b.productIndex.values().stream().mapToInt(Integer::intValue).toArray();
+        this.priorityOrder = priorityOrder(tieOrder, priceCents);
+    }
+
+    // Variante que compartilha o BOM e os índices do modelo base
+    private SolverModel(SolverModel base, BigDecimal[] productPrices, long[] priceCents, long[] initialStock) {
+        this.productIds = base.productIds;
+        this.productCodes = base.productCodes;
+        this.productNames = base.productNames;
+        this.productPrices = productPrices;
+        this.priceCents = priceCents;
+        this.bomStart = base.bomStart;
+        this.bomMaterial = base.bomMaterial;
+        this.bomRequired = base.bomRequired;
+        this.usageStart = base.usageStart;
+        this.usageProduct = base.usageProduct;
+        this.usageRequired = base.usageRequired;
+        this.materialIds = base.materialIds;
+        this.initialStock = initialStock;
+        this.productIndex = base.productIndex;
+        this.materialIndex = base.materialIndex;
+        this.tieOrder = base.tieOrder;
+        this.priorityOrder = priceCents == base.priceCents ? base.priorityOrder : priorityOrder(tieOrder, priceCents);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static SolverModel compile(List<ProductMaterial> rows) {
+        Builder builder = builder();
+        for (ProductMaterial pm : rows) {
+            builder.addLine(pm);
+        }
+        return builder.build();
+    }
+
+    // Maior preço primeiro. Empates mantêm a ordem de iteração do HashMap de agrupamento,
+    // exatamente como a implementação original em BigDecimal fazia.
+    private static int[] priorityOrder(int[] tieOrder, long[] priceCents) {
+        return Arrays.stream(tieOrder).boxed()
+                .sorted(Comparator.comparingLong((Integer p) -> priceCents[p]).reversed())
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    /** Mesmo catálogo com outro estoque inicial (em unidades de ponto fixo, um valor por matéria-prima). */
+    public SolverModel withStock(long[] stock) {
+        if (stock.length != initialStock.length) {
+            throw new IllegalArgumentException("Expected " + initialStock.length + " stock values");
+        }
+        return new SolverModel(this, productPrices, priceCents, stock.clone());
+    }
+
+    /** Mesmo catálogo com outros preços; a ordem de prioridade é recalculada. */
+    public SolverModel withPrices(BigDecimal[] prices) {
+        if (prices.length != productPrices.length) {
+            throw new IllegalArgumentException("Expected " + productPrices.length + " prices");
+        }
+        long[] cents = new long[prices.length];
+        for (int p = 0; p < prices.length; p++) {
+            cents[p] = toPriceCents(prices[p]);
+        }
+        return new SolverModel(this, prices.clone(), cents, initialStock);
+    }
+
+    public int productCount() {
+        return productIds.length;
+    }
+
+    public int materialCount() {
+        return materialIds.length;
+    }
+
+    public int lineCount() {
+        return bomMaterial.length;
+    }
+
+    public UUID productId(int p) {
+        return productIds[p];
+    }
+
+    public String productCode(int p) {
+        return productCodes[p];
+    }
+
+    public String productName(int p) {
+        return productNames[p];
+    }
+
+    public BigDecimal productPrice(int p) {
+        return productPrices[p];
+    }
+
+    public long priceCents(int p) {
+        return priceCents[p];
+    }
+
+    public UUID materialId(int m) {
+        return materialIds[m];
+    }
+
+    /** Índice denso do produto, ou -1 se ele não tem BOM no catálogo compilado. */
+    public int productIndexOf(UUID productId) {
+        return productIndex.getOrDefault(productId, -1);
+    }
+
+    /** Índice denso da matéria-prima, ou -1 se ela não aparece em nenhum BOM. */
+    public int materialIndexOf(UUID rawMaterialId) {
+        return materialIndex.getOrDefault(rawMaterialId, -1);
+    }
+
+    /** Cópia dos preços de venda, na escala original. */
+    public BigDecimal[] prices() {
+        return productPrices.clone();
+    }
+
+    public int bomStart(int p) {
+        return bomStart[p];
+    }
+
+    public int bomEnd(int p) {
+        return bomStart[p + 1];
+    }
+
+    public int bomMaterial(int line) {
+        return bomMaterial[line];
+    }
+
+    public long bomRequired(int line) {
+        return bomRequired[line];
+    }
+
+    public int usageStart(int m) {
+        return usageStart[m];
+    }
+
+    public int usageEnd(int m) {
+        return usageStart[m + 1];
+    }
+
+    /** Produto da entrada {@code i} do índice inverso. */
+    public int usageProduct(int i) {
+        return usageProduct[i];
+    }
+
+    /** Quantidade por unidade do produto da entrada {@code i} do índice inverso. */
+    public long usageRequired(int i) {
+        return usageRequired[i];
+    }
+
+    /** Ordem de prioridade do guloso (índices de produto, maior preço primeiro). */
+    public int[] priorityOrder() {
+        return priorityOrder.clone();
+    }
+
+    int priorityAt(int position) {
+        return priorityOrder[position];
+    }
+
+    /** Estoque inicial da matéria-prima, em unidades de ponto fixo. */
+    public long stockOf(int m) {
+        return initialStock[m];
+    }
+
+    /** Cópia do estoque inicial, pronta para ser consumida por uma simulação. */
+    public long[] newStock() {
+        return initialStock.clone();
+    }
+
+    public static long toQuantityUnits(BigDecimal value) {
+        return value.setScale(QUANTITY_SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromQuantityUnits(long units) {
+        return BigDecimal.valueOf(units, QUANTITY_SCALE);
+    }
+
+    public static long toPriceCents(BigDecimal value) {
+        return value.setScale(PRICE_SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromPriceCents(long cents) {
+        return BigDecimal.valueOf(cents, PRICE_SCALE);
+    }
+
+    /**
+     * Acumula linhas de BOM (produto x matéria-prima) e gera o {@link SolverModel}.
+     * O estoque de cada matéria-prima é o da primeira linha em que ela aparece.
+     */
+    public static final class Builder {
+
+        private final Map<UUID, Integer> productIndex = new HashMap<>();
+        private final List<UUID> productIds = new ArrayList<>();
+        private final List<String> productCodes = new ArrayList<>();
+        private final List<String> productNames = new ArrayList<>();
+        private final List<BigDecimal> productPrices = new ArrayList<>();
+
+        private final Map<UUID, Integer> materialIndex = new HashMap<>();
+        private final List<UUID> materialIds = new ArrayList<>();
+        private long[] materialStock = new long[16];
+
+        private int lineCount;
+        private int[] lineProduct = new int[16];
+        private int[] lineMaterial = new int[16];
+        private long[] lineRequired = new long[16];
+
+        private Builder() {
+        }
+
+        public Builder addLine(ProductMaterial pm) {
+            var product = pm.getProduct();
+            var rm = pm.getRawMaterial();
+            return addLine(product.getId(), product.getCode(), product.getName(), product.getPrice(),
+                    rm.getId(), rm.getStockQuantity(), pm.getRequiredQuantity());
+        }
+
+        public Builder addLine(UUID productId, String productCode, String productName, BigDecimal price,
+                               UUID rawMaterialId, BigDecimal stockQuantity, BigDecimal requiredQuantity) {
+            int p = productIndex.computeIfAbsent(productId, id -> {
+                productIds.add(id);
+                productCodes.add(productCode);
+                productNames.add(productName);
+                productPrices.add(price);
+                return productIds.size() - 1;
+            });
+
+            int m = materialIndex.computeIfAbsent(rawMaterialId, id -> {
+                int index = materialIds.size();
+                materialIds.add(id);
+                if (index == materialStock.length) {
+                    materialStock = Arrays.copyOf(materialStock, index * 2);
+                }
+                materialStock[index] = toQuantityUnits(stockQuantity);
+                return index;
+            });
+
+            if (lineCount == lineProduct.length) {
+                int capacity = lineCount * 2;
+                lineProduct = Arrays.copyOf(lineProduct, capacity);
+                lineMaterial = Arrays.copyOf(lineMaterial, capacity);
+                lineRequired = Arrays.copyOf(lineRequired, capacity);
+            }
+            lineProduct[lineCount] = p;
+            lineMaterial[lineCount] = m;
+            // Quantidade nula é tratada como inválida (0), o que bloqueia o produto no solver
+            lineRequired[lineCount] = requiredQuantity == null ? 0 : toQuantityUnits(requiredQuantity);
+            lineCount++;
+            return this;
+        }
+
+        public SolverModel build() {
+            return new SolverModel(this);
+        }
+    }
+}
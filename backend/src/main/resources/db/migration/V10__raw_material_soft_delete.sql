@@ -0,0 +1,36 @@
+-- Excluir uma matéria-prima não apaga mais o histórico de estoque: a linha fica marcada com
+-- deleted_at e sai do catálogo, e os movimentos/snapshots passam a impedir a exclusão física.
+
+ALTER TABLE raw_materials ADD COLUMN deleted_at TIMESTAMPTZ;
+
+-- O código só é único entre as ativas: uma excluída não bloqueia recadastrar o mesmo código
+ALTER TABLE raw_materials DROP CONSTRAINT raw_materials_code_key;
+CREATE UNIQUE INDEX raw_materials_code_key ON raw_materials (code) WHERE deleted_at IS NULL;
+
+ALTER TABLE stock_movements DROP CONSTRAINT stock_movements_raw_material_id_fkey;
+ALTER TABLE stock_movements
+  ADD CONSTRAINT stock_movements_raw_material_id_fkey
+  FOREIGN KEY (raw_material_id) REFERENCES raw_materials(id) ON DELETE RESTRICT;
+
+ALTER TABLE stock_snapshots DROP CONSTRAINT stock_snapshots_raw_material_id_fkey;
+ALTER TABLE stock_snapshots
+  ADD CONSTRAINT stock_snapshots_raw_material_id_fkey
+  FOREIGN KEY (raw_material_id) REFERENCES raw_materials(id) ON DELETE RESTRICT;
+
+-- A FK do BOM só vê a linha; isto recusa linhas novas de matéria-prima excluída. A checagem da FK
+-- espera a exclusão em andamento (FOR UPDATE), então este SELECT já enxerga o deleted_at dela.
+CREATE FUNCTION product_materials_reject_deleted() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  IF EXISTS (SELECT 1 FROM inserted i JOIN raw_materials rm ON rm.id = i.raw_material_id
+             WHERE rm.deleted_at IS NOT NULL) THEN
+    RAISE EXCEPTION 'raw material is deleted' USING ERRCODE = 'foreign_key_violation';
+  END IF;
+  RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER product_materials_reject_deleted
+AFTER INSERT ON product_materials
+REFERENCING NEW TABLE AS inserted
+FOR EACH STATEMENT EXECUTE FUNCTION product_materials_reject_deleted();
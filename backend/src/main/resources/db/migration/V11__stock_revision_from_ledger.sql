@@ -0,0 +1,6 @@
+-- A revisão do estoque deixa de ser gravada em catalog_revisions por cada movimento (linhas
+-- comuns a todas as escritas do razão) e passa a ser lida do próprio razão: horizonte do último
+-- snapshot e movimentos a partir dele, por depósito.
+CREATE INDEX idx_stock_movements_xid_warehouse ON stock_movements (created_xid, warehouse_id);
+
+DELETE FROM catalog_revisions WHERE name = 'STOCK_MOVEMENTS' OR name LIKE 'stock:%';
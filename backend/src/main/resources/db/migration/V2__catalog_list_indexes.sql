@@ -0,0 +1,13 @@
+-- Índices das listagens paginadas por keyset: (coluna, id) para ordenar e continuar
+-- a partir do cursor, e text_pattern_ops para os filtros por prefixo (LIKE 'abc%').
+-- A ordenação por código usa o índice UNIQUE já existente.
+
+CREATE INDEX idx_products_code_prefix ON products (code text_pattern_ops);
+CREATE INDEX idx_products_name_prefix ON products (lower(name) text_pattern_ops);
+CREATE INDEX idx_products_name_id ON products (name, id);
+CREATE INDEX idx_products_price_id ON products (price, id);
+
+CREATE INDEX idx_raw_materials_code_prefix ON raw_materials (code text_pattern_ops);
+CREATE INDEX idx_raw_materials_name_prefix ON raw_materials (lower(name) text_pattern_ops);
+CREATE INDEX idx_raw_materials_name_id ON raw_materials (name, id);
+CREATE INDEX idx_raw_materials_stock_id ON raw_materials (stock_quantity, id);
@@ -0,0 +1,67 @@
+-- Razão de estoque: o saldo deixa de ser sobrescrito em raw_materials e passa a ser
+-- snapshot + soma dos movimentos posteriores. Movimentos só recebem INSERT; os snapshots
+-- são gravados periodicamente pelo StockLedgerService e guardam o histórico do saldo.
+
+CREATE TABLE stock_movements (
+  id BIGSERIAL PRIMARY KEY,
+  raw_material_id UUID NOT NULL REFERENCES raw_materials(id) ON DELETE CASCADE,
+  kind VARCHAR(20) NOT NULL CHECK (kind IN ('RECEIPT', 'CONSUMPTION', 'ADJUSTMENT')),
+  quantity NUMERIC(14,3) NOT NULL CHECK (quantity <> 0),
+  reference VARCHAR(255),
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_stock_movements_material_id ON stock_movements (raw_material_id, id);
+
+CREATE TABLE stock_snapshots (
+  raw_material_id UUID NOT NULL REFERENCES raw_materials(id) ON DELETE CASCADE,
+  movement_id BIGINT NOT NULL,
+  balance NUMERIC(14,3) NOT NULL,
+  taken_at TIMESTAMPTZ NOT NULL,
+  PRIMARY KEY (raw_material_id, movement_id)
+);
+
+-- Marca d'água do último snapshot (max(movement_id))
+CREATE INDEX idx_stock_snapshots_movement ON stock_snapshots (movement_id);
+
+-- O estoque atual vira o movimento de abertura, já consolidado em snapshot
+INSERT INTO stock_movements (raw_material_id, kind, quantity, reference)
+SELECT id, 'ADJUSTMENT', stock_quantity, 'Opening balance'
+FROM raw_materials
+WHERE stock_quantity <> 0;
+
+INSERT INTO stock_snapshots (raw_material_id, movement_id, balance, taken_at)
+SELECT raw_material_id, id, quantity, created_at
+FROM stock_movements;
+
+-- Remove também idx_raw_materials_stock_id (V2)
+ALTER TABLE raw_materials DROP COLUMN stock_quantity;
+
+-- Saldo atual: último snapshot da matéria-prima + movimentos com id maior
+CREATE FUNCTION raw_material_balance(material UUID) RETURNS NUMERIC(14,3)
+LANGUAGE sql STABLE AS $$
+  WITH s AS (
+    SELECT balance, movement_id FROM stock_snapshots
+    WHERE raw_material_id = material
+    ORDER BY movement_id DESC LIMIT 1
+  )
+  SELECT (coalesce((SELECT balance FROM s), 0)
+        + coalesce((SELECT sum(quantity) FROM stock_movements
+                    WHERE raw_material_id = material
+                      AND id > coalesce((SELECT movement_id FROM s), 0)), 0))::NUMERIC(14,3)
+$$;
+
+-- Saldo em um instante: último snapshot tirado até lá + movimentos posteriores criados até lá
+CREATE FUNCTION raw_material_balance_at(material UUID, at TIMESTAMPTZ) RETURNS NUMERIC(14,3)
+LANGUAGE sql STABLE AS $$
+  WITH s AS (
+    SELECT balance, movement_id FROM stock_snapshots
+    WHERE raw_material_id = material AND taken_at <= at
+    ORDER BY movement_id DESC LIMIT 1
+  )
+  SELECT (coalesce((SELECT balance FROM s), 0)
+        + coalesce((SELECT sum(quantity) FROM stock_movements
+                    WHERE raw_material_id = material
+                      AND id > coalesce((SELECT movement_id FROM s), 0)
+                      AND created_at <= at), 0))::NUMERIC(14,3)
+$$;
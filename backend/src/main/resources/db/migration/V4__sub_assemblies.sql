@@ -0,0 +1,15 @@
+-- Submontagens: uma linha de BOM pode apontar para outro produto, em unidades inteiras.
+-- Ciclos são barrados na escrita (ProductMaterialService); o produto usado como componente
+-- não pode ser removido enquanto estiver em algum BOM.
+
+CREATE TABLE product_components (
+  id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+  product_id UUID NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+  component_id UUID NOT NULL REFERENCES products(id),
+  quantity INTEGER NOT NULL CHECK (quantity > 0),
+  CONSTRAINT uq_product_component UNIQUE (product_id, component_id),
+  CONSTRAINT ck_product_component_self CHECK (product_id <> component_id)
+);
+
+-- Caminho inverso (quem usa este componente), usado na remoção e na checagem de ciclo
+CREATE INDEX idx_product_components_component_id ON product_components (component_id);
@@ -0,0 +1,61 @@
+-- Estoque por depósito/planta: cada movimento e cada snapshot passam a pertencer a um depósito.
+-- O que já existe vai para o depósito principal (id fixo, usado como padrão pela aplicação).
+
+CREATE TABLE warehouses (
+  id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+  code VARCHAR(50) NOT NULL UNIQUE,
+  name VARCHAR(255) NOT NULL
+);
+
+INSERT INTO warehouses (id, code, name)
+VALUES ('00000000-0000-0000-0000-000000000001', 'MAIN', 'Main warehouse');
+
+ALTER TABLE stock_movements
+  ADD COLUMN warehouse_id UUID NOT NULL DEFAULT '00000000-0000-0000-0000-000000000001' REFERENCES warehouses(id);
+
+CREATE INDEX idx_stock_movements_warehouse_material_id ON stock_movements (warehouse_id, raw_material_id, id);
+
+ALTER TABLE stock_snapshots
+  ADD COLUMN warehouse_id UUID NOT NULL DEFAULT '00000000-0000-0000-0000-000000000001' REFERENCES warehouses(id);
+
+ALTER TABLE stock_snapshots DROP CONSTRAINT stock_snapshots_pkey;
+ALTER TABLE stock_snapshots ADD PRIMARY KEY (raw_material_id, warehouse_id, movement_id);
+
+-- Saldo em um depósito: último snapshot da matéria-prima ali + movimentos com id maior
+CREATE FUNCTION raw_material_balance(material UUID, warehouse UUID) RETURNS NUMERIC(14,3)
+LANGUAGE sql STABLE AS $$
+  WITH s AS (
+    SELECT balance, movement_id FROM stock_snapshots
+    WHERE raw_material_id = material AND warehouse_id = warehouse
+    ORDER BY movement_id DESC LIMIT 1
+  )
+  SELECT (coalesce((SELECT balance FROM s), 0)
+        + coalesce((SELECT sum(quantity) FROM stock_movements
+                    WHERE raw_material_id = material AND warehouse_id = warehouse
+                      AND id > coalesce((SELECT movement_id FROM s), 0)), 0))::NUMERIC(14,3)
+$$;
+
+CREATE FUNCTION raw_material_balance_at(material UUID, warehouse UUID, at TIMESTAMPTZ) RETURNS NUMERIC(14,3)
+LANGUAGE sql STABLE AS $$
+  WITH s AS (
+    SELECT balance, movement_id FROM stock_snapshots
+    WHERE raw_material_id = material AND warehouse_id = warehouse AND taken_at <= at
+    ORDER BY movement_id DESC LIMIT 1
+  )
+  SELECT (coalesce((SELECT balance FROM s), 0)
+        + coalesce((SELECT sum(quantity) FROM stock_movements
+                    WHERE raw_material_id = material AND warehouse_id = warehouse
+                      AND id > coalesce((SELECT movement_id FROM s), 0)
+                      AND created_at <= at), 0))::NUMERIC(14,3)
+$$;
+
+-- O saldo global (coluna calculada de RawMaterial e listagens) vira a soma dos depósitos
+CREATE OR REPLACE FUNCTION raw_material_balance(material UUID) RETURNS NUMERIC(14,3)
+LANGUAGE sql STABLE AS $$
+  SELECT coalesce(sum(raw_material_balance(material, w.id)), 0)::NUMERIC(14,3) FROM warehouses w
+$$;
+
+CREATE OR REPLACE FUNCTION raw_material_balance_at(material UUID, at TIMESTAMPTZ) RETURNS NUMERIC(14,3)
+LANGUAGE sql STABLE AS $$
+  SELECT coalesce(sum(raw_material_balance_at(material, w.id, at)), 0)::NUMERIC(14,3) FROM warehouses w
+$$;
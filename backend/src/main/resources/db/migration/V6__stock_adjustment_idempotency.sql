@@ -0,0 +1,8 @@
+-- Ajustes em lote dos coletores: cada movimento pode trazer uma chave de idempotência, e um
+-- reenvio com a mesma chave não gera outro movimento. Movimentos antigos ficam sem chave.
+
+ALTER TABLE stock_movements ADD COLUMN idempotency_key VARCHAR(100);
+
+CREATE UNIQUE INDEX ux_stock_movements_idempotency_key
+  ON stock_movements (idempotency_key)
+  WHERE idempotency_key IS NOT NULL;
@@ -0,0 +1,59 @@
+-- Snapshots sem travar a tabela de movimentos. A marca d'água por id exigia bloquear as
+-- inserções: um movimento com id menor podia ser commitado depois do snapshot e ficar de fora.
+-- Agora cada movimento guarda o id da transação que o gravou, e cada snapshot o horizonte em que
+-- foi tirado (o xmin do MVCC: abaixo dele nenhuma transação está mais em andamento). O snapshot
+-- cobre os movimentos com xid abaixo do horizonte; o saldo é ele mais os movimentos a partir dele.
+
+-- Default constante não reescreve a tabela; os movimentos existentes ficam abaixo de qualquer xid real
+ALTER TABLE stock_movements ADD COLUMN created_xid XID8 NOT NULL DEFAULT '0';
+ALTER TABLE stock_movements ALTER COLUMN created_xid SET DEFAULT pg_current_xact_id();
+
+-- Substitui o índice por id usado pelo cálculo do saldo
+DROP INDEX idx_stock_movements_warehouse_material_id;
+CREATE INDEX idx_stock_movements_warehouse_material_xid ON stock_movements (warehouse_id, raw_material_id, created_xid);
+
+-- Os snapshots por id são trocados por um só, com tudo o que já existe (horizonte 1, acima dos
+-- movimentos antigos). O histórico anterior continua exato: sem snapshot até lá, soma os movimentos.
+ALTER TABLE stock_snapshots ADD COLUMN horizon XID8;
+
+DELETE FROM stock_snapshots;
+
+INSERT INTO stock_snapshots (raw_material_id, warehouse_id, movement_id, balance, taken_at, horizon)
+SELECT raw_material_id, warehouse_id, max(id), sum(quantity), now(), '1'
+FROM stock_movements
+GROUP BY raw_material_id, warehouse_id;
+
+ALTER TABLE stock_snapshots ALTER COLUMN horizon SET NOT NULL;
+
+DROP INDEX idx_stock_snapshots_movement;
+CREATE INDEX idx_stock_snapshots_material_horizon ON stock_snapshots (raw_material_id, warehouse_id, horizon);
+-- Horizonte do último snapshot (max(horizon))
+CREATE INDEX idx_stock_snapshots_horizon ON stock_snapshots (horizon);
+
+-- Saldo em um depósito: último snapshot ali + movimentos de transações a partir do horizonte dele
+CREATE OR REPLACE FUNCTION raw_material_balance(material UUID, warehouse UUID) RETURNS NUMERIC(14,3)
+LANGUAGE sql STABLE AS $$
+  WITH s AS (
+    SELECT balance, horizon FROM stock_snapshots
+    WHERE raw_material_id = material AND warehouse_id = warehouse
+    ORDER BY horizon DESC LIMIT 1
+  )
+  SELECT (coalesce((SELECT balance FROM s), 0)
+        + coalesce((SELECT sum(quantity) FROM stock_movements
+                    WHERE raw_material_id = material AND warehouse_id = warehouse
+                      AND created_xid >= coalesce((SELECT horizon FROM s), '0')), 0))::NUMERIC(14,3)
+$$;
+
+CREATE OR REPLACE FUNCTION raw_material_balance_at(material UUID, warehouse UUID, at TIMESTAMPTZ) RETURNS NUMERIC(14,3)
+LANGUAGE sql STABLE AS $$
+  WITH s AS (
+    SELECT balance, horizon FROM stock_snapshots
+    WHERE raw_material_id = material AND warehouse_id = warehouse AND taken_at <= at
+    ORDER BY horizon DESC LIMIT 1
+  )
+  SELECT (coalesce((SELECT balance FROM s), 0)
+        + coalesce((SELECT sum(quantity) FROM stock_movements
+                    WHERE raw_material_id = material AND warehouse_id = warehouse
+                      AND created_xid >= coalesce((SELECT horizon FROM s), '0')
+                      AND created_at <= at), 0))::NUMERIC(14,3)
+$$;
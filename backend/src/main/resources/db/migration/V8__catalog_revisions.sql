@@ -0,0 +1,11 @@
+-- Revisões do catálogo (ETags, caches e sugestão) compartilhadas entre as instâncias. Cada
+-- escrita incrementa, na própria transação, a linha do que mudou: uma por tabela, 'version' para
+-- a sugestão e 'stock:<depósito>' para o estoque de cada depósito. Linhas novas nascem no upsert.
+CREATE TABLE catalog_revisions (
+  name VARCHAR(100) PRIMARY KEY,
+  revision BIGINT NOT NULL
+);
+
+-- Prefixo dos ETags: muda se o banco for recriado, para não reaproveitar ETags antigos
+INSERT INTO catalog_revisions (name, revision)
+VALUES ('epoch', floor(random() * 9007199254740991)::BIGINT);
@@ -0,0 +1,54 @@
+-- Saldo total materializado por matéria-prima, mantido por gatilho na mesma transação de cada
+-- movimento. A listagem filtra e pagina por ele com índice, em vez de calcular o saldo do razão
+-- para cada linha. O razão continua sendo a fonte: os saldos por depósito e o histórico vêm dele.
+
+CREATE TABLE raw_material_balances (
+  raw_material_id UUID PRIMARY KEY REFERENCES raw_materials(id) ON DELETE CASCADE,
+  balance NUMERIC(14,3) NOT NULL
+);
+
+-- Substitui idx_raw_materials_stock_id (V2), perdido junto com a coluna em V3
+CREATE INDEX idx_raw_material_balances_balance_id ON raw_material_balances (balance, raw_material_id);
+
+-- Toda matéria-prima tem linha: as listagens fazem join sem coalesce
+CREATE FUNCTION raw_material_balances_open() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  INSERT INTO raw_material_balances (raw_material_id, balance)
+  SELECT id, 0 FROM inserted;
+  RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER raw_materials_open_balance
+AFTER INSERT ON raw_materials
+REFERENCING NEW TABLE AS inserted
+FOR EACH STATEMENT EXECUTE FUNCTION raw_material_balances_open();
+
+-- Um UPDATE por matéria-prima do comando, em ordem de id (sem deadlock entre lotes concorrentes).
+-- Escritas na mesma matéria-prima passam a se enfileirar nessa linha até o commit.
+CREATE FUNCTION raw_material_balances_apply() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+  INSERT INTO raw_material_balances (raw_material_id, balance)
+  SELECT raw_material_id, sum(quantity) FROM inserted
+  GROUP BY raw_material_id
+  ORDER BY raw_material_id
+  ON CONFLICT (raw_material_id) DO UPDATE SET balance = raw_material_balances.balance + excluded.balance;
+  RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER stock_movements_apply_balance
+AFTER INSERT ON stock_movements
+REFERENCING NEW TABLE AS inserted
+FOR EACH STATEMENT EXECUTE FUNCTION raw_material_balances_apply();
+
+INSERT INTO raw_material_balances (raw_material_id, balance)
+SELECT id, raw_material_balance(id) FROM raw_materials;
+
+-- O saldo global (RawMaterial.stockQuantity, solver, exportação) passa a ler a linha materializada
+CREATE OR REPLACE FUNCTION raw_material_balance(material UUID) RETURNS NUMERIC(14,3)
+LANGUAGE sql STABLE AS $$
+  SELECT coalesce((SELECT balance FROM raw_material_balances WHERE raw_material_id = material), 0)::NUMERIC(14,3)
+$$;
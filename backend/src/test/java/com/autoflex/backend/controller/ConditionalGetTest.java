@@ -0,0 +1,24 @@
+package com.autoflex.backend.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalGetTest {
+
+    @Test
+    void shouldKeepOneEtagPerRepresentation() {
+        // Arrange
+        String etag = "\"run-1-2\"";
+
+        // Act + Assert
+        assertEquals(etag, ConditionalGet.variant(etag, null));
+        assertEquals(etag, ConditionalGet.variant(etag, "*/*"));
+        assertEquals(etag, ConditionalGet.variant(etag, "application/json, application/cbor;q=0.5"));
+        assertEquals("\"run-1-2-cbor\"", ConditionalGet.variant(etag, "application/cbor"));
+        assertEquals("\"run-1-2-cbor\"", ConditionalGet.variant(etag, "application/json;q=0.1, application/cbor"));
+        assertEquals("\"run-1-2-smile\"", ConditionalGet.variant(etag, "application/x-jackson-smile"));
+        assertEquals("\"run-1-2-ndjson\"", ConditionalGet.variant(etag, "application/x-ndjson"));
+        assertEquals(etag, ConditionalGet.variant(etag, "not a media type"));
+    }
+}
@@ -0,0 +1,28 @@
+package com.autoflex.backend.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvWriterTest {
+
+    @Test
+    void shouldQuoteOnlyWhenNeededAndWritePlainDecimals() {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        try (CsvWriter writer = new CsvWriter(out, "code", "name", "price")) {
+            writer.row("P001", "Mesa, \"grande\"", new BigDecimal("1E+3"));
+            writer.row("P002", null, new BigDecimal("0.50"));
+        }
+
+        // Assert
+        assertEquals("code,name,price\r\nP001,\"Mesa, \"\"grande\"\"\",1000\r\nP002,,0.50\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+}
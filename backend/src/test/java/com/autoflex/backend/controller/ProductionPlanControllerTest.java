@@ -0,0 +1,59 @@
+package com.autoflex.backend.controller;
+
+import com.autoflex.backend.dto.ProductionPlanItemRequest;
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.ProductMaterial;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.model.Warehouse;
+import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.SolverLines;
+import com.autoflex.backend.repository.StockMovementJdbcRepository;
+import com.autoflex.backend.repository.WarehouseRepository;
+import com.autoflex.backend.service.CatalogRevision;
+import com.autoflex.backend.service.ProductionPlanService;
+import com.autoflex.backend.service.ProductionSuggestionService;
+import com.autoflex.backend.service.SiteSuggestionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductionPlanControllerTest {
+
+    @Test
+    void shouldCommitSuggestionOfMainWarehouseWhenNoneIsGiven() {
+        // Arrange: 10 de madeira no total, mas só 4 no principal (6 na planta)
+        ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
+        StockMovementJdbcRepository movements = mock(StockMovementJdbcRepository.class);
+        ProductionPlanService planService = mock(ProductionPlanService.class);
+        CatalogRevision revision = new CatalogRevision();
+        ProductionSuggestionService suggestion = new ProductionSuggestionService(repo, revision, new SimpleMeterRegistry());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ProductionPlanController controller = new ProductionPlanController(planService,
+                new SiteSuggestionService(suggestion, movements, mock(WarehouseRepository.class), revision, pool),
+                new SuggestionBudget());
+
+        Product table = Product.builder()
+                .id(UUID.randomUUID()).code("P001").name("Table").price(new BigDecimal("100.00")).build();
+        RawMaterial wood = RawMaterial.builder()
+                .id(UUID.randomUUID()).code("RM001").name("Wood").stockQuantity(new BigDecimal("10.000")).build();
+        when(repo.findAllSolverLines()).thenReturn(SolverLines.of(List.of(
+                ProductMaterial.builder().product(table).rawMaterial(wood).requiredQuantity(new BigDecimal("2.000")).build())));
+        when(movements.findBalances(anyCollection(), eq(Warehouse.DEFAULT_ID)))
+                .thenReturn(Map.of(wood.getId(), new BigDecimal("4.000")));
+
+        // Act
+        controller.commit(null, "greedy", null, null);
+        pool.shutdownNow();
+
+        // Assert: 2 mesas (o que o principal cobre), não 5, baixadas do principal
+        verify(planService).commit(List.of(new ProductionPlanItemRequest(table.getId(), 2)), Warehouse.DEFAULT_ID);
+    }
+}
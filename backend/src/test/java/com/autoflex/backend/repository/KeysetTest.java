@@ -0,0 +1,90 @@
+package com.autoflex.backend.repository;
+
+import com.autoflex.backend.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetTest {
+
+    private static final List<Keyset.Column> SORTS = RawMaterialJdbcRepository.SORTS;
+
+    @Test
+    void shouldContinueAfterCursorWithRowComparisonOnNonUniqueSort() {
+        // Arrange
+        Keyset.Sort sort = Keyset.Sort.parse("stockQuantity,desc", SORTS);
+        UUID lastId = UUID.randomUUID();
+        Keyset.Cursor cursor = Keyset.Cursor.decode(
+                new Keyset.Cursor("stockQuantity,desc", lastId, "12.500").encode());
+
+        // Act
+        Keyset.Query query = new Keyset.Query("select id from raw_materials")
+                .startsWith("code", "RM_1%")
+                .after(sort, cursor)
+                .orderBy(sort)
+                .limit(51);
+
+        // Assert
+        assertEquals("select id from raw_materials"
+                + " where code like ? escape '\\' and (stock_quantity, id) < (?, ?)"
+                + " order by stock_quantity desc, id desc limit ?", query.sql());
+        assertArrayEquals(new Object[]{"RM\\_1\\%%", new BigDecimal("12.500"), lastId, 51}, query.args());
+    }
+
+    @Test
+    void shouldUseSingleColumnKeysetForUniqueCode() {
+        // Arrange
+        Keyset.Sort sort = Keyset.Sort.parse(null, SORTS);
+        Keyset.Cursor cursor = new Keyset.Cursor("code,asc", UUID.randomUUID(), "RM050");
+
+        // Act
+        Keyset.Query query = new Keyset.Query("select id from raw_materials").after(sort, cursor).orderBy(sort);
+
+        // Assert
+        assertEquals("select id from raw_materials where code > ? order by code asc", query.sql());
+        assertArrayEquals(new Object[]{"RM050"}, query.args());
+    }
+
+    @Test
+    void shouldCutExtraRowAndEmitCursorOfLastItem() {
+        // Arrange
+        Keyset.Sort sort = Keyset.Sort.parse("name", SORTS);
+        List<String> rows = List.of("Alpha", "Beta", "Gamma");
+        UUID id = UUID.randomUUID();
+
+        // Act
+        Keyset.Page<String> page = Keyset.page(rows, 2, sort, r -> id, (r, key) -> r);
+        Keyset.Page<String> last = Keyset.page(rows.subList(2, 3), 2, sort, r -> id, (r, key) -> r);
+
+        // Assert
+        assertEquals(List.of("Alpha", "Beta"), page.items());
+        assertEquals(new Keyset.Cursor("name,asc", id, "Beta"), Keyset.Cursor.decode(page.nextCursor()));
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    void shouldKeepUnpagedListingWhenNoLimitOrCursorIsGiven() {
+        Keyset.Cursor cursor = new Keyset.Cursor("code,asc", UUID.randomUUID(), "RM1");
+
+        assertNull(Keyset.pageSize(null, null));
+        assertEquals(Keyset.DEFAULT_LIMIT, Keyset.pageSize(null, cursor));
+        assertEquals(Keyset.MAX_LIMIT, Keyset.pageSize(1_000_000, null));
+        assertThrows(BadRequestException.class, () -> Keyset.pageSize(0, null));
+    }
+
+    @Test
+    void shouldRejectInvalidSortAndForeignCursor() {
+        Keyset.Sort byName = Keyset.Sort.parse("name,asc", SORTS);
+        Keyset.Cursor byCode = new Keyset.Cursor("code,asc", UUID.randomUUID(), "RM1");
+
+        assertThrows(BadRequestException.class, () -> Keyset.Sort.parse("price", SORTS));
+        assertThrows(BadRequestException.class, () -> Keyset.Sort.parse("name,up", SORTS));
+        assertThrows(BadRequestException.class, () -> Keyset.Cursor.decode("not a cursor"));
+        assertThrows(BadRequestException.class,
+                () -> new Keyset.Query("select id from raw_materials").after(byName, byCode));
+    }
+}
@@ -0,0 +1,20 @@
+package com.autoflex.backend.repository;
+
+import com.autoflex.backend.model.ProductMaterial;
+
+import java.util.List;
+
+/** Monta, a partir das entidades, a mesma projeção que {@code findAllSolverLines} devolve. */
+public final class SolverLines {
+
+    private SolverLines() {
+    }
+
+    public static List<SolverLine> of(List<ProductMaterial> rows) {
+        return rows.stream()
+                .map(pm -> new SolverLine(pm.getProduct().getId(), pm.getProduct().getCode(), pm.getProduct().getName(),
+                        pm.getProduct().getPrice(), pm.getRawMaterial().getId(), pm.getRawMaterial().getStockQuantity(),
+                        pm.getRequiredQuantity()))
+                .toList();
+    }
+}
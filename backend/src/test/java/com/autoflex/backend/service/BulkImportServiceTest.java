@@ -0,0 +1,168 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.BulkImportError;
+import com.autoflex.backend.dto.BulkImportResponse;
+import com.autoflex.backend.dto.ProductImportMaterialRequest;
+import com.autoflex.backend.dto.ProductImportRequest;
+import com.autoflex.backend.dto.RawMaterialRequest;
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.ProductMaterial;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.model.StockMovementKind;
+import com.autoflex.backend.repository.ProductJdbcRepository;
+import com.autoflex.backend.repository.ProductMaterialJdbcRepository;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import com.autoflex.backend.repository.StockMovement;
+import com.autoflex.backend.repository.StockMovementJdbcRepository;
+import com.autoflex.backend.repository.WarehouseRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class BulkImportServiceTest {
+
+    private RawMaterialJdbcRepository rawMaterialJdbc;
+    private ProductJdbcRepository productJdbc;
+    private ProductMaterialJdbcRepository productMaterialJdbc;
+    private StockMovementJdbcRepository stockMovementJdbc;
+    private CatalogRevision revision;
+    private BulkImportService service;
+
+    @BeforeEach
+    void setUp() {
+        rawMaterialJdbc = mock(RawMaterialJdbcRepository.class);
+        productJdbc = mock(ProductJdbcRepository.class);
+        productMaterialJdbc = mock(ProductMaterialJdbcRepository.class);
+        stockMovementJdbc = mock(StockMovementJdbcRepository.class);
+        revision = new CatalogRevision();
+        service = new BulkImportService(rawMaterialJdbc, productJdbc, productMaterialJdbc,
+                new StockLedgerService(stockMovementJdbc, rawMaterialJdbc, mock(WarehouseRepository.class), revision), revision,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldImportRawMaterialsReportingInvalidAndDuplicateRows() {
+        // Arrange
+        when(rawMaterialJdbc.findExistingCodes(anyCollection())).thenReturn(Set.of("RM-OLD"));
+
+        List<RawMaterialRequest> rows = List.of(
+                new RawMaterialRequest(" RM1 ", "Steel", new BigDecimal("10.000")),
+                new RawMaterialRequest("RM1", "Steel again", new BigDecimal("1.000")),
+                new RawMaterialRequest("RM-OLD", "Existing", new BigDecimal("1.000")),
+                new RawMaterialRequest("RM2", "", new BigDecimal("-1.000")),
+                new RawMaterialRequest("RM3", "Screw", new BigDecimal("500.000"))
+        );
+
+        // Act
+        BulkImportResponse resp = service.importRawMaterials(rows);
+
+        // Assert
+        assertEquals(5, resp.received());
+        assertEquals(2, resp.imported());
+        assertEquals(List.of(2, 3, 4), resp.errors().stream().map(BulkImportError::row).toList());
+        assertEquals("Duplicate code in request", resp.errors().get(0).message());
+        assertEquals("Raw material code already exists", resp.errors().get(1).message());
+
+        // Uma consulta de duplicidade para o lote inteiro
+        verify(rawMaterialJdbc, times(1)).findExistingCodes(anyCollection());
+        ArgumentCaptor<List<RawMaterial>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(rawMaterialJdbc).insertAll(inserted.capture());
+        assertEquals(List.of("RM1", "RM3"), inserted.getValue().stream().map(RawMaterial::getCode).toList());
+
+        // Estoque inicial vai para o razão, em um único lote
+        ArgumentCaptor<List<StockMovement>> opening = ArgumentCaptor.forClass(List.class);
+        verify(stockMovementJdbc).insertAll(opening.capture());
+        assertTrue(opening.getValue().stream().allMatch(m -> m.kind() == StockMovementKind.ADJUSTMENT));
+        assertEquals(0, revision.current(), "Matérias-primas novas não mudam a sugestão");
+    }
+
+    @Test
+    void shouldParseCsvAndReportMalformedNumbers() {
+        // Arrange
+        when(rawMaterialJdbc.findExistingCodes(anyCollection())).thenReturn(Set.of());
+        String csv = """
+                code,name,stock_quantity
+                RM1,"Steel, sheet",10.5
+                RM2,Screw,abc
+
+                RM3,"Glue ""strong"" tube",1
+                """;
+
+        // Act
+        BulkImportResponse resp = service.importRawMaterialsCsv(csv);
+
+        // Assert
+        assertEquals(3, resp.received());
+        assertEquals(2, resp.imported());
+        assertEquals(1, resp.errors().size());
+        assertEquals(2, resp.errors().get(0).row());
+        assertEquals("Invalid number: stock_quantity", resp.errors().get(0).message());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldImportProductsWithBomResolvedByMaterialCode() {
+        // Arrange
+        UUID steelId = UUID.randomUUID();
+        when(productJdbc.findExistingCodes(anyCollection())).thenReturn(Set.of());
+        when(rawMaterialJdbc.findIdsByCodes(anyCollection())).thenReturn(Map.of("RM1", steelId));
+
+        List<ProductImportRequest> rows = List.of(
+                new ProductImportRequest("P1", "Table", new BigDecimal("100.00"),
+                        List.of(new ProductImportMaterialRequest("RM1", new BigDecimal("2.000")))),
+                new ProductImportRequest("P2", "Chair", new BigDecimal("50.00"),
+                        List.of(new ProductImportMaterialRequest("RM404", new BigDecimal("1.000")))),
+                new ProductImportRequest("P3", "Bench", new BigDecimal("70.00"),
+                        List.of(new ProductImportMaterialRequest("RM1", new BigDecimal("1.000")),
+                                new ProductImportMaterialRequest("RM1", new BigDecimal("2.000"))))
+        );
+
+        // Act
+        BulkImportResponse resp = service.importProducts(rows);
+
+        // Assert
+        assertEquals(1, resp.imported());
+        assertEquals("Raw material not found: RM404", resp.errors().get(0).message());
+        assertEquals("Duplicate raw material in BOM: RM1", resp.errors().get(1).message());
+
+        verify(rawMaterialJdbc, times(1)).findIdsByCodes(anyCollection());
+        ArgumentCaptor<List<Product>> products = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<ProductMaterial>> lines = ArgumentCaptor.forClass(List.class);
+        verify(productJdbc).insertAll(products.capture());
+        verify(productMaterialJdbc).insertAll(lines.capture());
+        assertEquals("P1", products.getValue().get(0).getCode());
+        assertEquals(steelId, lines.getValue().get(0).getRawMaterial().getId());
+        assertEquals(1, revision.current());
+    }
+
+    @Test
+    void shouldParseProductCsvMaterialsColumn() {
+        // Arrange
+        when(productJdbc.findExistingCodes(anyCollection())).thenReturn(Set.of());
+        when(rawMaterialJdbc.findIdsByCodes(anyCollection()))
+                .thenReturn(Map.of("RM1", UUID.randomUUID(), "RM2", UUID.randomUUID()));
+        String csv = "code,name,price,materials\r\nP1,Table,100.00,RM1:2.5|RM2:1\r\nP2,Chair,10,RM1\r\n";
+
+        // Act
+        BulkImportResponse resp = service.importProductsCsv(csv);
+
+        // Assert
+        assertEquals(1, resp.imported());
+        assertEquals("Invalid materials entry: RM1", resp.errors().get(0).message());
+        verify(productMaterialJdbc).insertAll(argThat(lines -> lines.size() == 2));
+        verify(productJdbc).insertAll(any());
+    }
+}
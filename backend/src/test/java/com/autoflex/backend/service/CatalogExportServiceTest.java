@@ -0,0 +1,92 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.ProductMaterialExportResponse;
+import com.autoflex.backend.dto.ProductResponse;
+import com.autoflex.backend.repository.ComponentExportLine;
+import com.autoflex.backend.repository.ProductComponentRepository;
+import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.ProductRepository;
+import com.autoflex.backend.repository.RawMaterialRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogExportServiceTest {
+
+    @Test
+    void shouldForwardEveryRowAndCloseTheCursor() {
+        // Arrange
+        ProductRepository productRepo = mock(ProductRepository.class);
+        CatalogExportService service = new CatalogExportService(productRepo,
+                mock(RawMaterialRepository.class), mock(ProductMaterialRepository.class), mock(ProductComponentRepository.class));
+        ProductResponse table = new ProductResponse(UUID.randomUUID(), "P001", "Table", new BigDecimal("120.00"));
+        ProductResponse chair = new ProductResponse(UUID.randomUUID(), "P002", "Chair", new BigDecimal("45.00"));
+        AtomicBoolean closed = new AtomicBoolean();
+        when(productRepo.streamAllForExport()).thenReturn(Stream.of(table, chair).onClose(() -> closed.set(true)));
+        List<ProductResponse> written = new ArrayList<>();
+
+        // Act
+        long count = service.products(written::add);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(List.of(table, chair), written);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void shouldCloseTheCursorWhenTheClientGoesAway() {
+        // Arrange
+        ProductRepository productRepo = mock(ProductRepository.class);
+        CatalogExportService service = new CatalogExportService(productRepo,
+                mock(RawMaterialRepository.class), mock(ProductMaterialRepository.class), mock(ProductComponentRepository.class));
+        AtomicBoolean closed = new AtomicBoolean();
+        when(productRepo.streamAllForExport()).thenReturn(Stream.of(
+                new ProductResponse(UUID.randomUUID(), "P001", "Table", BigDecimal.TEN)).onClose(() -> closed.set(true)));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> service.products(p -> {
+            throw new IllegalStateException("broken pipe");
+        }));
+
+        // Assert
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void shouldExportSubAssemblyLinesAfterRawMaterialLines() {
+        // Arrange: a mesa leva madeira e duas pernas (submontagem)
+        ProductMaterialRepository productMaterialRepo = mock(ProductMaterialRepository.class);
+        ProductComponentRepository productComponentRepo = mock(ProductComponentRepository.class);
+        CatalogExportService service = new CatalogExportService(mock(ProductRepository.class),
+                mock(RawMaterialRepository.class), productMaterialRepo, productComponentRepo);
+        UUID table = UUID.randomUUID();
+        UUID leg = UUID.randomUUID();
+        ProductMaterialExportResponse wood = new ProductMaterialExportResponse(UUID.randomUUID(), table, "P001",
+                UUID.randomUUID(), "RM001", new BigDecimal("2.000"));
+        UUID lineId = UUID.randomUUID();
+        AtomicBoolean closed = new AtomicBoolean();
+        when(productMaterialRepo.streamAllForExport()).thenReturn(Stream.of(wood));
+        when(productComponentRepo.streamAllForExport()).thenReturn(Stream.of(
+                new ComponentExportLine(lineId, table, "P001", leg, "P900", 2)).onClose(() -> closed.set(true)));
+        List<ProductMaterialExportResponse> written = new ArrayList<>();
+
+        // Act
+        long count = service.productMaterials(written::add);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(wood, written.get(0));
+        assertEquals(new ProductMaterialExportResponse(lineId, table, "P001", null, null, new BigDecimal("2"), leg, "P900"),
+                written.get(1));
+        assertTrue(closed.get());
+    }
+}
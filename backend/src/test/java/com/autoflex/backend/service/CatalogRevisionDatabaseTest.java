@@ -0,0 +1,144 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.RawMaterialRequest;
+import com.autoflex.backend.dto.StockAdjustmentBatchResponse;
+import com.autoflex.backend.dto.StockAdjustmentRequest;
+import com.autoflex.backend.model.Warehouse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Revisões compartilhadas por duas instâncias sobre o mesmo PostgreSQL: a escrita de uma só
+ * aparece para a outra depois do commit, e os ETags coincidem; ajustes de estoque concorrentes
+ * não se enfileiram nas revisões. Roda só com {@code DATABASE_URL} definido (use um banco descartável).
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+class CatalogRevisionDatabaseTest {
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private RawMaterialService rawMaterialService;
+    @Autowired
+    private StockAdjustmentService adjustments;
+
+    @Test
+    void shouldShareRevisionsAcrossInstancesOnlyAfterCommit() {
+        // Arrange: duas instâncias, sem tolerância de atraso
+        CatalogRevision writer = new CatalogRevision(jdbc, 0);
+        CatalogRevision reader = new CatalogRevision(jdbc, 0);
+        long before = reader.current(CatalogRevision.Table.PRODUCTS);
+        long[] during = new long[1];
+
+        // Act
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            writer.changed(CatalogRevision.Table.PRODUCTS);
+            during[0] = reader.current(CatalogRevision.Table.PRODUCTS);
+        });
+        long after = reader.current(CatalogRevision.Table.PRODUCTS);
+
+        // Assert
+        assertEquals(before, during[0], "Escrita não commitada não aparece para a outra instância");
+        assertTrue(after > before);
+        assertEquals(after, writer.current(CatalogRevision.Table.PRODUCTS));
+        assertEquals(writer.etag(CatalogRevision.Table.PRODUCTS, CatalogRevision.Table.RAW_MATERIALS),
+                reader.etag(CatalogRevision.Table.PRODUCTS, CatalogRevision.Table.RAW_MATERIALS));
+    }
+
+    @Test
+    void shouldDiscardRevisionsOfRolledBackWrites() {
+        // Arrange
+        CatalogRevision writer = new CatalogRevision(jdbc, 0);
+        long before = writer.current();
+
+        // Act
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            writer.bump();
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(before, writer.current());
+        assertEquals(before, new CatalogRevision(jdbc, 0).current());
+    }
+
+    @Test
+    void shouldNotSerializeConcurrentAdjustmentsOnRevisions() throws Exception {
+        // Arrange: a transação A fica parada logo antes do commit, com o ajuste já gravado
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        UUID first = rawMaterialService.create(new RawMaterialRequest("REV-RM-" + suffix, "Revision material", BigDecimal.TEN)).id();
+        UUID second = rawMaterialService.create(new RawMaterialRequest("REV-RM2-" + suffix, "Other revision material", BigDecimal.TEN)).id();
+        CatalogRevision reader = new CatalogRevision(jdbc, 0);
+        String before = reader.etag(Warehouse.DEFAULT_ID, CatalogRevision.Table.PRODUCTS);
+        long stockBefore = reader.currentStock(Warehouse.DEFAULT_ID);
+
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> open = writer.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                adjustments.apply(List.of(receipt(first, "rev-a-" + suffix)));
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        committing.countDown();
+                        await(release);
+                    }
+                });
+            }));
+            assertTrue(committing.await(10, TimeUnit.SECONDS));
+
+            // Act: B ajusta outra matéria-prima no mesmo depósito enquanto A não termina
+            StockAdjustmentBatchResponse other = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> adjustments.apply(List.of(receipt(second, "rev-b-" + suffix))),
+                    "ajuste esperou a transação aberta");
+            String whileOpen = reader.etag(Warehouse.DEFAULT_ID, CatalogRevision.Table.PRODUCTS);
+            long stockWhileOpen = reader.currentStock(Warehouse.DEFAULT_ID);
+            release.countDown();
+            open.get(10, TimeUnit.SECONDS);
+
+            // Assert: o estoque avança a cada commit, lido do razão, sem linha de revisão gravada
+            assertEquals(1, other.applied());
+            assertNotEquals(before, whileOpen);
+            assertTrue(stockWhileOpen > stockBefore);
+            assertTrue(reader.currentStock(Warehouse.DEFAULT_ID) > stockWhileOpen);
+            assertEquals(0, jdbc.queryForObject(
+                    "select count(*) from catalog_revisions where name = 'STOCK_MOVEMENTS' or name like 'stock:%'", Integer.class));
+        } finally {
+            release.countDown();
+            writer.shutdownNow();
+            rawMaterialService.delete(first);
+            rawMaterialService.delete(second);
+        }
+    }
+
+    private static StockAdjustmentRequest receipt(UUID rawMaterialId, String key) {
+        return new StockAdjustmentRequest(rawMaterialId, null, BigDecimal.ONE, key, null, "revision test");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
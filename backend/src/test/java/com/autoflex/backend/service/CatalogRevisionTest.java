@@ -0,0 +1,71 @@
+package com.autoflex.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogRevisionTest {
+
+    @Test
+    void shouldChangeOnlyEtagsOfWrittenTables() {
+        // Arrange
+        CatalogRevision revision = new CatalogRevision();
+        String products = revision.etag(CatalogRevision.Table.PRODUCTS);
+        String bom = revision.etag(CatalogRevision.Table.PRODUCT_MATERIALS, CatalogRevision.Table.RAW_MATERIALS);
+
+        // Act
+        revision.changed(CatalogRevision.Table.RAW_MATERIALS);
+
+        // Assert
+        assertEquals(products, revision.etag(CatalogRevision.Table.PRODUCTS));
+        assertNotEquals(bom, revision.etag(CatalogRevision.Table.PRODUCT_MATERIALS, CatalogRevision.Table.RAW_MATERIALS));
+        assertTrue(products.startsWith("\"") && products.endsWith("\""), "ETag forte, entre aspas");
+        assertEquals(0, revision.current(), "Revisão da sugestão é independente");
+        assertNotEquals(products, new CatalogRevision().etag(CatalogRevision.Table.PRODUCTS), "Outra execução, outro ETag");
+    }
+
+    @Test
+    void shouldApplyTableChangeOnlyAfterCommit() {
+        // Arrange
+        CatalogRevision revision = new CatalogRevision();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            revision.changed(CatalogRevision.Table.PRODUCTS);
+            long during = revision.current(CatalogRevision.Table.PRODUCTS);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            assertEquals(0, during);
+            assertEquals(1, revision.current(CatalogRevision.Table.PRODUCTS));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldChangeOnlyEtagOfWarehouseWhoseStockMoved() {
+        // Arrange
+        CatalogRevision revision = new CatalogRevision();
+        UUID main = UUID.randomUUID();
+        UUID plant = UUID.randomUUID();
+        String mainTag = revision.etag(main, CatalogRevision.Table.PRODUCTS);
+        String plantTag = revision.etag(plant, CatalogRevision.Table.PRODUCTS);
+        String allTag = revision.etag(CatalogRevision.Table.PRODUCTS, CatalogRevision.Table.STOCK_MOVEMENTS);
+
+        // Act
+        revision.stockChanged(plant);
+
+        // Assert
+        assertEquals(mainTag, revision.etag(main, CatalogRevision.Table.PRODUCTS));
+        assertNotEquals(plantTag, revision.etag(plant, CatalogRevision.Table.PRODUCTS));
+        assertNotEquals(allTag, revision.etag(CatalogRevision.Table.PRODUCTS, CatalogRevision.Table.STOCK_MOVEMENTS));
+        assertNotEquals(mainTag, plantTag, "O depósito faz parte do ETag");
+        assertEquals(1, revision.current(), "Movimento de estoque refaz a sugestão");
+        assertThrows(IllegalArgumentException.class, () -> revision.changed(CatalogRevision.Table.STOCK_MOVEMENTS));
+    }
+}
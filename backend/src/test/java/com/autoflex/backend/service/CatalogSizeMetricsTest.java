@@ -0,0 +1,36 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.repository.CatalogCounts;
+import com.autoflex.backend.repository.ProductJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogSizeMetricsTest {
+
+    @Test
+    void shouldCountCatalogOnceUntilATableChanges() {
+        // Arrange
+        ProductJdbcRepository productJdbc = mock(ProductJdbcRepository.class);
+        when(productJdbc.countCatalog()).thenReturn(new CatalogCounts(3, 5, 7), new CatalogCounts(4, 5, 7));
+        CatalogRevision revision = new CatalogRevision();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new CatalogSizeMetrics(productJdbc, revision, registry);
+
+        // Act
+        double products = registry.get("production.catalog.size").tag("entity", "products").gauge().value();
+        double rawMaterials = registry.get("production.catalog.size").tag("entity", "raw_materials").gauge().value();
+        double bomLines = registry.get("production.catalog.size").tag("entity", "bom_lines").gauge().value();
+        revision.changed(CatalogRevision.Table.PRODUCTS);
+        double afterWrite = registry.get("production.catalog.size").tag("entity", "products").gauge().value();
+
+        // Assert: contagem real antes de qualquer sugestão, refeita só depois da escrita
+        assertEquals(3.0, products);
+        assertEquals(5.0, rawMaterials);
+        assertEquals(7.0, bomLines);
+        assertEquals(4.0, afterWrite);
+        verify(productJdbc, times(2)).countCatalog();
+    }
+}
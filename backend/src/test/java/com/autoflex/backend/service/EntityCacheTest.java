@@ -0,0 +1,127 @@
+package com.autoflex.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityCacheTest {
+
+    @Test
+    void shouldServeRepeatedLookupsFromMemoryUntilTheTableChanges() {
+        // Arrange
+        CatalogRevision revision = new CatalogRevision();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        EntityCache<CatalogEntityCache.RawMaterialEntry> cache = new EntityCache<>("raw_materials",
+                CatalogRevision.Table.RAW_MATERIALS, revision, registry, 100, Duration.ofMinutes(5));
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger codeQueries = new AtomicInteger();
+        String[] name = {"Wood"};
+
+        // Act: movimentos de estoque no meio não expiram o cadastro
+        for (int i = 0; i < 3; i++) {
+            cache.byId(id, key -> {
+                loads.incrementAndGet();
+                return Optional.of(new CatalogEntityCache.RawMaterialEntry(key, "RM001", name[0]));
+            });
+            revision.stockChanged(UUID.randomUUID());
+            cache.codeExists("RM999", code -> {
+                codeQueries.incrementAndGet();
+                return false;
+            });
+        }
+        // Uma edição do cadastro avança a revisão da tabela
+        name[0] = "Pine";
+        revision.changed(CatalogRevision.Table.RAW_MATERIALS);
+        CatalogEntityCache.RawMaterialEntry after = cache.byId(id, key -> {
+            loads.incrementAndGet();
+            return Optional.of(new CatalogEntityCache.RawMaterialEntry(key, "RM001", name[0]));
+        }).orElseThrow();
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(1, codeQueries.get());
+        assertEquals("Pine", after.name());
+        assertEquals(2, registry.get("catalog.entity.cache").tags("key", "id", "result", "hit").counter().count());
+        assertEquals(2, registry.get("catalog.entity.cache").tags("key", "id", "result", "miss").counter().count());
+        assertEquals(2, registry.get("catalog.entity.cache").tags("key", "code", "result", "hit").counter().count());
+    }
+
+    @Test
+    void shouldNeverServeAValueOlderThanTheLastFinishedWrite() throws Exception {
+        // Arrange: "banco" em memória com leitura lenta, para a escrita cair no meio das cargas
+        CatalogRevision revision = new CatalogRevision();
+        EntityCache<Long> cache = new EntityCache<>("products",
+                CatalogRevision.Table.PRODUCTS, revision, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+        int keys = 4;
+        int writes = 300;
+        UUID[] ids = new UUID[keys];
+        Map<UUID, Long> database = new ConcurrentHashMap<>();
+        AtomicLongArray finished = new AtomicLongArray(keys);
+        for (int k = 0; k < keys; k++) {
+            ids[k] = UUID.randomUUID();
+            database.put(ids[k], 0L);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        AtomicLong staleReads = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        // Act: um escritor por chave (commit, revisão, invalidação, como os serviços) e leitores
+        for (int k = 0; k < keys; k++) {
+            int key = k;
+            tasks.add(pool.submit(() -> {
+                start.await();
+                for (long v = 1; v <= writes; v++) {
+                    database.put(ids[key], v);
+                    revision.changed(CatalogRevision.Table.PRODUCTS);
+                    cache.invalidate(ids[key]);
+                    finished.set(key, v);
+                    LockSupport.parkNanos(50_000);
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < 4; r++) {
+            tasks.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 2_000; i++) {
+                    int key = random.nextInt(keys);
+                    long floor = finished.get(key);
+                    long seen = cache.byId(ids[key], id -> {
+                        Long value = database.get(id);
+                        // Consulta lenta: a escrita termina antes de a carga voltar
+                        if (random.nextInt(4) == 0) LockSupport.parkNanos(100_000);
+                        return Optional.of(value);
+                    }).orElseThrow();
+                    if (seen < floor) staleReads.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> task : tasks) task.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // Assert: nenhuma leitura anterior à última escrita concluída, e o cache termina atualizado
+        assertEquals(0, staleReads.get());
+        for (int k = 0; k < keys; k++) {
+            assertEquals(writes, cache.byId(ids[k], id -> Optional.of(database.get(id))).orElseThrow());
+        }
+    }
+}
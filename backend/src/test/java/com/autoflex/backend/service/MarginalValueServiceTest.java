@@ -0,0 +1,59 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.MarginalValueMethod;
+import com.autoflex.backend.dto.MarginalValuesResponse;
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.ProductMaterial;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import com.autoflex.backend.repository.SolverLines;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MarginalValueServiceTest {
+
+    @Test
+    void shouldRankMaterialsByShadowPriceInOnePass() {
+        // Arrange
+        ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
+        RawMaterialJdbcRepository rawMaterialJdbc = mock(RawMaterialJdbcRepository.class);
+        ProductionSuggestionService suggestion = new ProductionSuggestionService(repo, new CatalogRevision(), new SimpleMeterRegistry());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        MarginalValueService service = new MarginalValueService(suggestion, rawMaterialJdbc, pool);
+
+        Product table = Product.builder()
+                .id(UUID.randomUUID()).code("P001").name("Table").price(new BigDecimal("120.00")).build();
+        RawMaterial wood = RawMaterial.builder()
+                .id(UUID.randomUUID()).code("RM001").name("Wood").stockQuantity(new BigDecimal("100.000")).build();
+        RawMaterial steel = RawMaterial.builder()
+                .id(UUID.randomUUID()).code("RM002").name("Steel").stockQuantity(new BigDecimal("30.000")).build();
+        when(repo.findAllSolverLines()).thenReturn(SolverLines.of(List.of(
+                ProductMaterial.builder().product(table).rawMaterial(wood).requiredQuantity(new BigDecimal("2.000")).build(),
+                ProductMaterial.builder().product(table).rawMaterial(steel).requiredQuantity(new BigDecimal("3.000")).build())));
+        when(rawMaterialJdbc.findStock(anyCollection())).thenReturn(Map.of(wood.getId(), wood, steel.getId(), steel));
+
+        // Act
+        MarginalValuesResponse resp = service.marginalValues(Duration.ofSeconds(5));
+        pool.shutdownNow();
+
+        // Assert: 10 mesas esgotam o aço (3 por mesa) e sobra madeira
+        assertEquals(MarginalValueMethod.LP_DUAL, resp.method());
+        assertEquals("RM002", resp.materials().get(0).rawMaterialCode());
+        assertEquals(new BigDecimal("40.00"), resp.materials().get(0).marginalValue());
+        assertEquals("RM001", resp.materials().get(1).rawMaterialCode());
+        assertEquals(new BigDecimal("0.00"), resp.materials().get(1).marginalValue());
+        verify(repo, times(1)).findAllSolverLines();
+    }
+}
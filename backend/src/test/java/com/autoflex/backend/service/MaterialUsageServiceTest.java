@@ -0,0 +1,99 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.BottleneckResponse;
+import com.autoflex.backend.dto.RawMaterialUsageResponse;
+import com.autoflex.backend.exception.NotFoundException;
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.ProductMaterial;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import com.autoflex.backend.repository.SolverLines;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MaterialUsageServiceTest {
+
+    private ProductMaterialRepository repo;
+    private MaterialUsageService service;
+
+    private final RawMaterial wood = RawMaterial.builder()
+            .id(UUID.randomUUID()).code("RM001").name("Wood").stockQuantity(new BigDecimal("100.000")).build();
+    private final RawMaterial screw = RawMaterial.builder()
+            .id(UUID.randomUUID()).code("RM002").name("Screw").stockQuantity(new BigDecimal("10.000")).build();
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(ProductMaterialRepository.class);
+        RawMaterialJdbcRepository rawMaterialJdbc = mock(RawMaterialJdbcRepository.class);
+        ProductionSuggestionService suggestion = new ProductionSuggestionService(repo, new CatalogRevision(), new SimpleMeterRegistry());
+        service = new MaterialUsageService(suggestion, rawMaterialJdbc);
+
+        Product table = product("P001", "300.00");
+        Product chair = product("P002", "100.00");
+        Product shelf = product("P003", "50.00");
+        when(repo.findAllSolverLines()).thenReturn(SolverLines.of(List.of(
+                line(table, wood, "10.000"), line(table, screw, "4.000"),
+                line(chair, wood, "5.000"), line(chair, screw, "1.000"),
+                line(shelf, wood, "20.000"))));
+        when(rawMaterialJdbc.findStock(anyCollection())).thenAnswer(inv -> {
+            Map<UUID, RawMaterial> found = new HashMap<>();
+            for (Object id : inv.<Collection<?>>getArgument(0)) {
+                if (wood.getId().equals(id)) found.put(wood.getId(), wood);
+                if (screw.getId().equals(id)) found.put(screw.getId(), screw);
+            }
+            return found;
+        });
+    }
+
+    private static Product product(String code, String price) {
+        return Product.builder().id(UUID.randomUUID()).code(code).name("Product " + code).price(new BigDecimal(price)).build();
+    }
+
+    private static ProductMaterial line(Product product, RawMaterial rm, String required) {
+        return ProductMaterial.builder().product(product).rawMaterial(rm).requiredQuantity(new BigDecimal(required)).build();
+    }
+
+    @Test
+    void shouldListProductsUsingMaterialFromCompiledModel() {
+        // Act
+        RawMaterialUsageResponse usage = service.usage(wood.getId());
+
+        // Assert: plano guloso = 2 mesas, 2 cadeiras e 3 estantes
+        assertEquals(List.of("P001", "P002", "P003"),
+                usage.products().stream().map(p -> p.productCode()).toList());
+        assertEquals(3, usage.products().get(2).plannedQuantity());
+        assertEquals(new BigDecimal("60.000"), usage.products().get(2).plannedConsumption());
+        assertEquals(new BigDecimal("90.000"), usage.plannedConsumption());
+        verify(repo, times(1)).findAllSolverLines();
+        assertThrows(NotFoundException.class, () -> service.usage(UUID.randomUUID()));
+    }
+
+    @Test
+    void shouldRankBindingMaterialsByBlockedValue() {
+        // Act
+        List<BottleneckResponse> bottlenecks = service.bottlenecks();
+
+        // Assert: sem parafuso, mesa e cadeira param; a estante para por falta de madeira
+        assertEquals(2, bottlenecks.size());
+        BottleneckResponse first = bottlenecks.get(0);
+        assertEquals("RM002", first.rawMaterialCode());
+        assertEquals(new BigDecimal("400.00"), first.blockedValue());
+        assertEquals(0, first.remainingQuantity().signum());
+        assertEquals("P001", first.blockedProducts().get(0).productCode());
+
+        BottleneckResponse second = bottlenecks.get(1);
+        assertEquals("RM001", second.rawMaterialCode());
+        assertEquals(new BigDecimal("50.00"), second.blockedValue());
+        assertEquals(new BigDecimal("10.000"), second.blockedProducts().get(0).missingQuantity());
+        assertTrue(second.blockedProducts().get(0).soleConstraint());
+    }
+}
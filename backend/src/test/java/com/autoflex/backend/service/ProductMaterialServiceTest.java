@@ -0,0 +1,236 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.ProductMaterialItemRequest;
+import com.autoflex.backend.dto.ProductMaterialItemResponse;
+import com.autoflex.backend.exception.BadRequestException;
+import com.autoflex.backend.exception.NotFoundException;
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.repository.ProductComponentJdbcRepository;
+import com.autoflex.backend.repository.ProductComponentRepository;
+import com.autoflex.backend.repository.ProductMaterialJdbcRepository;
+import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.ProductRepository;
+import com.autoflex.backend.repository.RawMaterialRepository;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductMaterialServiceTest {
+
+    private ProductRepository productRepo;
+    private RawMaterialRepository rawMaterialRepo;
+    private ProductMaterialRepository productMaterialRepo;
+    private JdbcTemplate jdbc;
+    private ProductComponentRepository productComponentRepo;
+    private ProductComponentJdbcRepository productComponentJdbc;
+    private CatalogRevision revision;
+    private ProductMaterialService service;
+
+    private final Product product = Product.builder()
+            .id(UUID.randomUUID()).code("P001").name("Table").price(new BigDecimal("100.00")).build();
+
+    @BeforeEach
+    void setUp() {
+        productRepo = mock(ProductRepository.class);
+        rawMaterialRepo = mock(RawMaterialRepository.class);
+        productMaterialRepo = mock(ProductMaterialRepository.class);
+        jdbc = mock(JdbcTemplate.class);
+        productComponentRepo = mock(ProductComponentRepository.class);
+        productComponentJdbc = mock(ProductComponentJdbcRepository.class);
+        revision = new CatalogRevision();
+        service = new ProductMaterialService(productRepo, rawMaterialRepo, productMaterialRepo,
+                new ProductMaterialJdbcRepository(jdbc), productComponentRepo, productComponentJdbc, revision);
+
+        when(productRepo.findById(product.getId())).thenReturn(Optional.of(product));
+    }
+
+    private static List<RawMaterial> rawMaterials(int count) {
+        List<RawMaterial> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(RawMaterial.builder()
+                    .id(UUID.randomUUID())
+                    .code("RM%03d".formatted(i))
+                    .name("Material " + i)
+                    .stockQuantity(new BigDecimal("100.000"))
+                    .build());
+        }
+        return result;
+    }
+
+    @Test
+    void shouldReplaceLargeBomWithOneCallPerRepository() {
+        // Arrange
+        List<RawMaterial> rms = rawMaterials(200);
+        when(rawMaterialRepo.findAllById(anyIterable())).thenReturn(rms);
+        List<ProductMaterialItemRequest> items = rms.stream()
+                .map(rm -> new ProductMaterialItemRequest(rm.getId(), new BigDecimal("1.500")))
+                .toList();
+
+        // Act
+        List<ProductMaterialItemResponse> resp = service.replaceMaterials(product.getId(), items);
+
+        // Assert
+        assertEquals(200, resp.size());
+        assertEquals("RM000", resp.get(0).rawMaterialCode());
+        assertEquals(1, revision.current());
+
+        // Uma chamada por repositório e um único batch; o SQL real é contado em ProductMaterialStatementCountTest
+        verify(productRepo, times(1)).findById(product.getId());
+        verify(rawMaterialRepo, times(1)).findAllById(anyIterable());
+        verify(productMaterialRepo, times(1)).deleteAllByProductIdInBulk(product.getId());
+        verify(jdbc, times(1)).batchUpdate(anyString(), argThat(lines -> lines.size() == 200), anyInt(), any());
+
+        verify(rawMaterialRepo, never()).findById(any());
+        verify(productMaterialRepo, never()).save(any());
+        verifyNoMoreInteractions(rawMaterialRepo, productMaterialRepo, jdbc);
+    }
+
+    @Test
+    void shouldSkipInsertWhenBomIsCleared() {
+        // Arrange
+        when(rawMaterialRepo.findAllById(anyIterable())).thenReturn(List.of());
+
+        // Act
+        List<ProductMaterialItemResponse> resp = service.replaceMaterials(product.getId(), List.of());
+
+        // Assert
+        assertTrue(resp.isEmpty());
+        verify(productMaterialRepo, times(1)).deleteAllByProductIdInBulk(product.getId());
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void shouldRejectUnknownRawMaterialBeforeDeletingCurrentBom() {
+        // Arrange
+        List<RawMaterial> rms = rawMaterials(1);
+        UUID missing = UUID.randomUUID();
+        when(rawMaterialRepo.findAllById(anyIterable())).thenReturn(rms);
+        List<ProductMaterialItemRequest> items = List.of(
+                new ProductMaterialItemRequest(rms.get(0).getId(), BigDecimal.ONE),
+                new ProductMaterialItemRequest(missing, BigDecimal.ONE));
+
+        // Act + Assert
+        NotFoundException ex = assertThrows(NotFoundException.class,
+                () -> service.replaceMaterials(product.getId(), items));
+        assertEquals("Raw material not found: " + missing, ex.getMessage());
+        verify(productMaterialRepo, never()).deleteAllByProductIdInBulk(any());
+        verifyNoInteractions(jdbc);
+        assertEquals(0, revision.current());
+    }
+
+    @Test
+    void shouldRejectDuplicateRawMaterialInRequest() {
+        // Arrange
+        UUID rmId = UUID.randomUUID();
+        List<ProductMaterialItemRequest> items = List.of(
+                new ProductMaterialItemRequest(rmId, BigDecimal.ONE),
+                new ProductMaterialItemRequest(rmId, BigDecimal.TEN));
+
+        // Act + Assert
+        assertThrows(BadRequestException.class, () -> service.replaceMaterials(product.getId(), items));
+        verifyNoInteractions(rawMaterialRepo, productMaterialRepo, jdbc);
+    }
+
+    @Test
+    void shouldRejectSubAssemblyThatAlreadyUsesProduct() {
+        // Arrange
+        Product frame = Product.builder()
+                .id(UUID.randomUUID()).code("P002").name("Frame").price(new BigDecimal("40.00")).build();
+        Product bolt = Product.builder()
+                .id(UUID.randomUUID()).code("P003").name("Bolt kit").price(new BigDecimal("5.00")).build();
+        when(rawMaterialRepo.findAllById(anyIterable())).thenReturn(List.of());
+        when(productRepo.findAllById(anyIterable())).thenReturn(List.of(frame));
+        // P002 -> P003 -> P001: usar P002 em P001 fecharia o ciclo
+        when(productComponentJdbc.findEdges()).thenReturn(new HashMap<>(Map.of(
+                frame.getId(), List.of(bolt.getId()),
+                bolt.getId(), List.of(product.getId()))));
+
+        // Act + Assert
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> service.replaceMaterials(product.getId(),
+                List.of(new ProductMaterialItemRequest(null, frame.getId(), new BigDecimal("2")))));
+        assertTrue(ex.getMessage().startsWith("Cycle in BOM: P002 already uses P001"));
+        verify(productComponentJdbc, times(1)).lockForWrite();
+        verify(productMaterialRepo, never()).deleteAllByProductIdInBulk(any());
+        verify(productComponentJdbc, never()).insertAll(any());
+        assertEquals(0, revision.current());
+    }
+
+    @Test
+    void shouldStoreSubAssemblyInWholeUnits() {
+        // Arrange
+        Product frame = Product.builder()
+                .id(UUID.randomUUID()).code("P002").name("Frame").price(new BigDecimal("40.00")).build();
+        when(rawMaterialRepo.findAllById(anyIterable())).thenReturn(List.of());
+        when(productRepo.findAllById(anyIterable())).thenReturn(List.of(frame));
+        when(productComponentJdbc.findEdges()).thenReturn(new HashMap<>());
+
+        // Act
+        List<ProductMaterialItemResponse> resp = service.replaceMaterials(product.getId(),
+                List.of(new ProductMaterialItemRequest(null, frame.getId(), new BigDecimal("2.000"))));
+
+        // Assert
+        assertEquals("P002", resp.get(0).componentProductCode());
+        assertNull(resp.get(0).rawMaterialId());
+        verify(productComponentRepo, times(1)).deleteAllByProductIdInBulk(product.getId());
+        verify(productComponentJdbc, times(1)).insertAll(argThat(lines -> lines.get(0).getQuantity() == 2));
+        assertThrows(BadRequestException.class, () -> service.replaceMaterials(product.getId(),
+                List.of(new ProductMaterialItemRequest(null, frame.getId(), new BigDecimal("1.5")))));
+        assertEquals(1, revision.current());
+    }
+
+    @Test
+    void shouldRejectSubAssemblyQuantityBeyondIntegerRange() {
+        // Arrange
+        UUID frameId = UUID.randomUUID();
+        List<ProductMaterialItemRequest> items = List.of(
+                new ProductMaterialItemRequest(null, frameId, new BigDecimal("3000000000")));
+
+        // Act + Assert: vira 400, não ArithmeticException
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> service.replaceMaterials(product.getId(), items));
+        assertTrue(ex.getMessage().startsWith("Sub-assembly quantity must be a whole number up to 2147483647"));
+        verifyNoInteractions(productMaterialRepo, productComponentRepo, productComponentJdbc);
+    }
+
+    @Test
+    void shouldRecordServiceTimerPerMethod() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(service);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new TimedAspect(registry));
+        ProductMaterialService timed = factory.getProxy();
+        when(productRepo.existsById(product.getId())).thenReturn(true);
+        when(productMaterialRepo.findByProductId(product.getId())).thenReturn(List.of());
+
+        // Act
+        timed.listMaterials(product.getId());
+        assertThrows(NotFoundException.class, () -> timed.listMaterials(UUID.randomUUID()));
+
+        // Assert
+        assertEquals(2, registry.get("catalog.service")
+                .tag("class", ProductMaterialService.class.getName())
+                .tag("method", "listMaterials")
+                .timers().stream().mapToLong(Timer::count).sum());
+        assertEquals(1, registry.get("catalog.service")
+                .tag("method", "listMaterials")
+                .tag("exception", "NotFoundException")
+                .timer().count());
+    }
+}
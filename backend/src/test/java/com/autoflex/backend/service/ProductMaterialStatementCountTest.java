@@ -0,0 +1,146 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.ProductMaterialItemRequest;
+import com.autoflex.backend.dto.ProductRequest;
+import com.autoflex.backend.dto.RawMaterialRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Conta as idas ao banco (execute* e executeBatch) que a troca do BOM faz contra um PostgreSQL
+ * real. Roda só com {@code DATABASE_URL} definido (use um banco descartável).
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+class ProductMaterialStatementCountTest {
+
+    @Autowired
+    private ProductMaterialService productMaterialService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    private UUID productId;
+    private final List<UUID> rawMaterialIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        productId = productService.create(new ProductRequest("COUNT-P-" + suffix, "Count product", BigDecimal.TEN)).id();
+        for (int i = 0; i < 200; i++) {
+            rawMaterialIds.add(rawMaterialService.create(
+                    new RawMaterialRequest("COUNT-RM-" + suffix + "-" + i, "Count material " + i, BigDecimal.TEN)).id());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        productService.delete(productId);
+        rawMaterialIds.forEach(rawMaterialService::delete);
+    }
+
+    @Test
+    void shouldReplaceBomWithSameStatementCountRegardlessOfSize() {
+        // Arrange
+        List<ProductMaterialItemRequest> small = items(10);
+        List<ProductMaterialItemRequest> large = items(200);
+
+        // Act
+        int smallCount = StatementCounter.count(() -> productMaterialService.replaceMaterials(productId, small));
+        int largeCount = StatementCounter.count(() -> productMaterialService.replaceMaterials(productId, large));
+
+        // Assert: produto + matérias-primas + DELETE de cada tabela do BOM + INSERT em lote + revisões
+        assertEquals(6, largeCount);
+        assertEquals(smallCount, largeCount);
+        assertEquals(200, productMaterialService.listMaterials(productId).size());
+    }
+
+    private List<ProductMaterialItemRequest> items(int count) {
+        return rawMaterialIds.subList(0, count).stream()
+                .map(id -> new ProductMaterialItemRequest(id, new BigDecimal("1.500")))
+                .toList();
+    }
+
+    @TestConfiguration
+    static class StatementCounter {
+
+        private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate",
+                "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+        // Só a thread do teste conta: o agendador e o aquecimento também usam o pool
+        private static final ThreadLocal<AtomicInteger> COUNTER = new ThreadLocal<>();
+
+        static int count(Runnable action) {
+            AtomicInteger counter = new AtomicInteger();
+            COUNTER.set(counter);
+            try {
+                action.run();
+            } finally {
+                COUNTER.remove();
+            }
+            return counter.get();
+        }
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) return bean;
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return proxy(Connection.class, super.getConnection());
+                        }
+                    };
+                }
+            };
+        }
+
+        // Conexões devolvem comandos também contados; os demais métodos passam direto
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                AtomicInteger counter = COUNTER.get();
+                if (counter != null && target instanceof Statement && EXECUTE.contains(method.getName())) {
+                    counter.incrementAndGet();
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Statement statement && method.getReturnType().isInterface()
+                        && Statement.class.isAssignableFrom(method.getReturnType())) {
+                    return proxy((Class<Statement>) method.getReturnType(), statement);
+                }
+                return result;
+            });
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.exception.BadRequestException;
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.repository.ProductJdbcRepository;
+import com.autoflex.backend.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductServiceTest {
+
+    @Test
+    void shouldRejectDeleteWhenProductBecomesSubAssemblyConcurrently() {
+        // Arrange: a checagem passa, mas outro BOM passa a usar o produto antes do DELETE
+        ProductRepository repo = mock(ProductRepository.class);
+        CatalogRevision revision = new CatalogRevision();
+        ProductService service = new ProductService(repo, mock(ProductJdbcRepository.class), revision,
+                new CatalogEntityCache(revision, new SimpleMeterRegistry(), 100, 60_000));
+        Product product = Product.builder()
+                .id(UUID.randomUUID()).code("P001").name("Table").price(new BigDecimal("100.00")).build();
+        when(repo.findById(product.getId())).thenReturn(Optional.of(product));
+        when(repo.isUsedAsComponent(product.getId())).thenReturn(false);
+        doThrow(new DataIntegrityViolationException("product_components_component_id_fkey"))
+                .when(repo).deleteById(product.getId());
+
+        // Act + Assert
+        BadRequestException ex = assertThrows(BadRequestException.class, () -> service.delete(product.getId()));
+        assertEquals("Product is used as a sub-assembly in another BOM", ex.getMessage());
+        assertEquals(0, revision.current(CatalogRevision.Table.PRODUCTS));
+    }
+}
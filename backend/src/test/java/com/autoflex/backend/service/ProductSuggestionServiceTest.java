@@ -1,13 +1,21 @@
 package com.autoflex.backend.service;
 
+import com.autoflex.backend.dto.ProductionSuggestionItemResponse;
 import com.autoflex.backend.dto.ProductionSuggestionResponse;
+import com.autoflex.backend.dto.ProductionSuggestionSummaryResponse;
+import com.autoflex.backend.dto.SuggestionMode;
 import com.autoflex.backend.model.Product;
 import com.autoflex.backend.model.ProductMaterial;
 import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.repository.ComponentLine;
 import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.SolverLines;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,7 +28,7 @@ class ProductionSuggestionServiceTest {
     void shouldSuggestQuantityAndTotalForSingleProduct() {
         // Arrange 
         ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
-        ProductionSuggestionService service = new ProductionSuggestionService(repo);
+        ProductionSuggestionService service = new ProductionSuggestionService(repo, new CatalogRevision(), new SimpleMeterRegistry());
 
         Product product = Product.builder()
                 .id(UUID.randomUUID())
@@ -43,7 +51,7 @@ class ProductionSuggestionServiceTest {
                 .requiredQuantity(new BigDecimal("10.000"))
                 .build();
 
-        when(repo.findAllWithProductAndRawMaterial()).thenReturn(List.of(pm));
+        when(repo.findAllSolverLines()).thenAnswer(inv -> SolverLines.of(List.of(pm)));
 
         // Act 
         ProductionSuggestionResponse resp = service.suggest();
@@ -62,7 +70,7 @@ class ProductionSuggestionServiceTest {
     void shouldPrioritizeHigherPriceProductsWhenStockIsShared() {
         // Arrange
         ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
-        ProductionSuggestionService service = new ProductionSuggestionService(repo);
+        ProductionSuggestionService service = new ProductionSuggestionService(repo, new CatalogRevision(), new SimpleMeterRegistry());
 
         RawMaterial sharedRm = RawMaterial.builder()
                 .id(UUID.randomUUID())
@@ -102,7 +110,7 @@ class ProductionSuggestionServiceTest {
                 .requiredQuantity(new BigDecimal("10.000"))
                 .build();
 
-        when(repo.findAllWithProductAndRawMaterial()).thenReturn(List.of(premiumPm, regularPm));
+        when(repo.findAllSolverLines()).thenAnswer(inv -> SolverLines.of(List.of(premiumPm, regularPm)));
 
         // Act 
         ProductionSuggestionResponse resp = service.suggest();
@@ -118,7 +126,7 @@ class ProductionSuggestionServiceTest {
     void shouldRespectLimitingRawMaterialInBom() {
         // Arrange
         ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
-        ProductionSuggestionService service = new ProductionSuggestionService(repo);
+        ProductionSuggestionService service = new ProductionSuggestionService(repo, new CatalogRevision(), new SimpleMeterRegistry());
 
         Product product = Product.builder()
                 .id(UUID.randomUUID())
@@ -155,7 +163,7 @@ class ProductionSuggestionServiceTest {
                 .requiredQuantity(new BigDecimal("1.000"))
                 .build();
 
-        when(repo.findAllWithProductAndRawMaterial()).thenReturn(List.of(pm1, pm2));
+        when(repo.findAllSolverLines()).thenAnswer(inv -> SolverLines.of(List.of(pm1, pm2)));
 
         // Act 
         ProductionSuggestionResponse resp = service.suggest();
@@ -171,9 +179,9 @@ class ProductionSuggestionServiceTest {
     void shouldReturnEmptyWhenThereAreNoAssociations() {
         // Arrange
         ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
-        ProductionSuggestionService service = new ProductionSuggestionService(repo);
+        ProductionSuggestionService service = new ProductionSuggestionService(repo, new CatalogRevision(), new SimpleMeterRegistry());
 
-        when(repo.findAllWithProductAndRawMaterial()).thenReturn(List.of());
+        when(repo.findAllSolverLines()).thenAnswer(inv -> SolverLines.of(List.of()));
 
         // Act
         ProductionSuggestionResponse resp = service.suggest();
@@ -188,7 +196,7 @@ class ProductionSuggestionServiceTest {
     void shouldNotSuggestProductWhenStockIsInsufficient() {
         // Arrange
         ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
-        ProductionSuggestionService service = new ProductionSuggestionService(repo);
+        ProductionSuggestionService service = new ProductionSuggestionService(repo, new CatalogRevision(), new SimpleMeterRegistry());
 
         Product product = Product.builder()
                 .id(UUID.randomUUID())
@@ -211,7 +219,7 @@ class ProductionSuggestionServiceTest {
                 .requiredQuantity(new BigDecimal("10.000")) // precisa de 10, mas só tem 5
                 .build();
 
-        when(repo.findAllWithProductAndRawMaterial()).thenReturn(List.of(pm));
+        when(repo.findAllSolverLines()).thenAnswer(inv -> SolverLines.of(List.of(pm)));
 
         // Act
         ProductionSuggestionResponse resp = service.suggest();
@@ -225,7 +233,7 @@ class ProductionSuggestionServiceTest {
     void shouldIgnoreInvalidRequiredQuantityZero() {
         // Arrange
         ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
-        ProductionSuggestionService service = new ProductionSuggestionService(repo);
+        ProductionSuggestionService service = new ProductionSuggestionService(repo, new CatalogRevision(), new SimpleMeterRegistry());
 
         Product product = Product.builder()
                 .id(UUID.randomUUID())
@@ -248,7 +256,7 @@ class ProductionSuggestionServiceTest {
                 .requiredQuantity(new BigDecimal("0.000")) // inválido
                 .build();
 
-        when(repo.findAllWithProductAndRawMaterial()).thenReturn(List.of(pm));
+        when(repo.findAllSolverLines()).thenAnswer(inv -> SolverLines.of(List.of(pm)));
 
         // Act
         ProductionSuggestionResponse resp = service.suggest();
@@ -262,7 +270,7 @@ class ProductionSuggestionServiceTest {
     void shouldSuggestMultipleProductsWhenStocksDoNotConflict() {
         // Arrange
         ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
-        ProductionSuggestionService service = new ProductionSuggestionService(repo);
+        ProductionSuggestionService service = new ProductionSuggestionService(repo, new CatalogRevision(), new SimpleMeterRegistry());
 
         // Produto A usa RM-A
         RawMaterial rmA = RawMaterial.builder()
@@ -308,7 +316,7 @@ class ProductionSuggestionServiceTest {
                 .requiredQuantity(new BigDecimal("7.000")) // 21/7 = 3
                 .build();
 
-        when(repo.findAllWithProductAndRawMaterial()).thenReturn(List.of(pmA, pmB));
+        when(repo.findAllSolverLines()).thenAnswer(inv -> SolverLines.of(List.of(pmA, pmB)));
 
         // Act
         ProductionSuggestionResponse resp = service.suggest();
@@ -319,4 +327,149 @@ class ProductionSuggestionServiceTest {
         // Total esperado: A => 5*100 = 500; B => 3*80 = 240; total=740
         assertEquals(new BigDecimal("740.00"), resp.totalValue());
     }
+
+    @Test
+    void shouldServeRepeatedReadsFromCacheUntilCatalogChanges() {
+        // Arrange
+        ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
+        CatalogRevision revision = new CatalogRevision();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ProductionSuggestionService service = new ProductionSuggestionService(repo, revision, registry);
+
+        Product product = Product.builder()
+                .id(UUID.randomUUID())
+                .code("P700")
+                .name("Cached Product")
+                .price(new BigDecimal("10.00"))
+                .build();
+
+        RawMaterial rm = RawMaterial.builder()
+                .id(UUID.randomUUID())
+                .code("RM700")
+                .name("Material")
+                .stockQuantity(new BigDecimal("30.000"))
+                .build();
+
+        ProductMaterial pm = ProductMaterial.builder()
+                .id(UUID.randomUUID())
+                .product(product)
+                .rawMaterial(rm)
+                .requiredQuantity(new BigDecimal("10.000"))
+                .build();
+
+        when(repo.findAllSolverLines()).thenAnswer(inv -> SolverLines.of(List.of(pm)));
+
+        // Act
+        service.suggest();
+        service.suggest();
+        rm.setStockQuantity(new BigDecimal("50.000"));
+        ProductionSuggestionResponse stale = service.suggest();
+        revision.bump();
+        ProductionSuggestionResponse fresh = service.suggest();
+
+        // Assert
+        verify(repo, times(2)).findAllSolverLines();
+        assertEquals(3, stale.items().get(0).suggestedQuantity(), "Sem nova versão o snapshot anterior é reutilizado");
+        assertEquals(5, fresh.items().get(0).suggestedQuantity());
+        assertEquals(2.0, registry.get("production.suggestion.cache").tag("result", "hit").counter().count());
+        assertEquals(2.0, registry.get("production.suggestion.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void shouldStreamSameItemsAsSuggestFollowedBySummary() {
+        // Arrange
+        ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
+        ProductionSuggestionService service = new ProductionSuggestionService(repo, new CatalogRevision(), new SimpleMeterRegistry());
+
+        RawMaterial rm = RawMaterial.builder()
+                .id(UUID.randomUUID())
+                .code("RM800")
+                .name("Shared Material")
+                .stockQuantity(new BigDecimal("95.000"))
+                .build();
+
+        Product premium = Product.builder().id(UUID.randomUUID()).code("P801").name("Premium").price(new BigDecimal("50.00")).build();
+        Product regular = Product.builder().id(UUID.randomUUID()).code("P802").name("Regular").price(new BigDecimal("20.00")).build();
+
+        ProductMaterial premiumPm = ProductMaterial.builder().id(UUID.randomUUID()).product(premium).rawMaterial(rm)
+                .requiredQuantity(new BigDecimal("30.000")).build();
+        ProductMaterial regularPm = ProductMaterial.builder().id(UUID.randomUUID()).product(regular).rawMaterial(rm)
+                .requiredQuantity(new BigDecimal("1.000")).build();
+
+        when(repo.findAllSolverLines()).thenAnswer(inv -> SolverLines.of(List.of(regularPm, premiumPm)));
+
+        // Act
+        List<ProductionSuggestionItemResponse> streamed = new ArrayList<>();
+        ProductionSuggestionSummaryResponse summary = service.stream(SuggestionMode.GREEDY, Duration.ZERO, streamed::add);
+        ProductionSuggestionResponse resp = service.suggest();
+
+        // Assert: o guloso sai do plano em cache, sem resolver de novo
+        assertEquals(resp.items(), streamed);
+        assertSame(resp.items().get(0), streamed.get(0));
+        verify(repo, times(1)).findAllSolverLines();
+        assertEquals(List.of("P801", "P802"), streamed.stream().map(ProductionSuggestionItemResponse::productCode).toList());
+        assertEquals(2, summary.itemCount());
+        assertEquals(new BigDecimal("250.00"), summary.totalValue());
+        assertEquals(resp.totalValue(), summary.totalValue());
+    }
+
+    @Test
+    void shouldTimePipelinePhases() {
+        // Arrange
+        ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ProductionSuggestionService service = new ProductionSuggestionService(repo, new CatalogRevision(), registry);
+
+        RawMaterial rm = RawMaterial.builder().id(UUID.randomUUID()).code("RM900").name("Resin")
+                .stockQuantity(new BigDecimal("10.000")).build();
+        Product product = Product.builder().id(UUID.randomUUID()).code("P900").name("Vase").price(new BigDecimal("15.00")).build();
+        ProductMaterial pm = ProductMaterial.builder().id(UUID.randomUUID()).product(product).rawMaterial(rm)
+                .requiredQuantity(new BigDecimal("2.000")).build();
+        when(repo.findAllSolverLines()).thenAnswer(inv -> SolverLines.of(List.of(pm)));
+
+        // Act
+        service.suggest();
+        service.suggest();
+        service.suggest(SuggestionMode.OPTIMAL, Duration.ofMillis(100));
+
+        // Assert
+        assertEquals(2, registry.get("production.suggestion").tag("mode", "greedy").timer().count());
+        assertEquals(1, registry.get("production.suggestion").tag("mode", "optimal").timer().count());
+        for (String phase : List.of("fetch", "group", "sort")) {
+            assertEquals(1, registry.get("production.suggestion.phase").tag("phase", phase).timer().count(), phase);
+        }
+        assertEquals(2, registry.get("production.suggestion.phase").tag("phase", "solve").timer().count());
+        assertEquals(2, registry.get("production.suggestion.phase").tag("phase", "response").timer().count());
+    }
+
+    @Test
+    void shouldSuggestProductsWithSubAssembliesThroughExplodedBom() {
+        // Arrange
+        ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
+        ProductionSuggestionService service = new ProductionSuggestionService(repo, new CatalogRevision(), new SimpleMeterRegistry());
+
+        Product table = Product.builder()
+                .id(UUID.randomUUID()).code("P200").name("Table").price(new BigDecimal("500.00")).build();
+        Product leg = Product.builder()
+                .id(UUID.randomUUID()).code("P201").name("Leg").price(new BigDecimal("10.00")).build();
+        RawMaterial wood = RawMaterial.builder()
+                .id(UUID.randomUUID()).code("RM001").name("Wood").stockQuantity(new BigDecimal("100.000")).build();
+
+        when(repo.findAllSolverLines()).thenReturn(SolverLines.of(List.of(
+                ProductMaterial.builder().product(table).rawMaterial(wood).requiredQuantity(new BigDecimal("10.000")).build(),
+                ProductMaterial.builder().product(leg).rawMaterial(wood).requiredQuantity(new BigDecimal("2.000")).build())));
+        when(repo.findAllComponentLines()).thenReturn(List.of(
+                new ComponentLine(table.getId(), "P200", "Table", table.getPrice(), leg.getId(), 4)));
+
+        // Act
+        ProductionSuggestionResponse resp = service.suggest();
+
+        // Assert: cada mesa consome 10 + 4 x 2 de madeira; a sobra vira pernas avulsas
+        assertEquals(2, resp.items().size());
+        assertEquals("P200", resp.items().get(0).productCode());
+        assertEquals(5, resp.items().get(0).suggestedQuantity());
+        assertEquals("P201", resp.items().get(1).productCode());
+        assertEquals(5, resp.items().get(1).suggestedQuantity());
+        assertEquals(new BigDecimal("2550.00"), resp.totalValue());
+    }
 }
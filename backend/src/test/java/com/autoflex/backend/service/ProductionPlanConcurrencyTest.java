@@ -0,0 +1,96 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.*;
+import com.autoflex.backend.exception.InsufficientStockException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Baixas concorrentes contra um PostgreSQL real: nenhuma unidade vendida duas vezes e
+ * nenhuma baixa perdida. Roda só com {@code DATABASE_URL} definido (use um banco descartável).
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+class ProductionPlanConcurrencyTest {
+
+    private static final int STOCK = 1000;
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ProductionPlanService planService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private RawMaterialService rawMaterialService;
+    @Autowired
+    private ProductMaterialService productMaterialService;
+
+    private UUID productId;
+    private UUID rawMaterialId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        rawMaterialId = rawMaterialService.create(
+                new RawMaterialRequest("STRESS-RM-" + suffix, "Stress material", new BigDecimal(STOCK))).id();
+        productId = productService.create(
+                new ProductRequest("STRESS-P-" + suffix, "Stress product", new BigDecimal("1.00"))).id();
+        productMaterialService.replaceMaterials(productId,
+                List.of(new ProductMaterialItemRequest(rawMaterialId, BigDecimal.ONE)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productService.delete(productId);
+        rawMaterialService.delete(rawMaterialId);
+    }
+
+    @Test
+    void shouldNeverOversellUnderContention() throws Exception {
+        // Arrange
+        AtomicInteger committed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+
+        // Act: cada thread tenta produzir uma unidade por vez até o estoque acabar
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                while (true) {
+                    try {
+                        planService.commit(List.of(new ProductionPlanItemRequest(productId, 1)), null);
+                        committed.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                        return null;
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(STOCK, committed.get());
+        assertEquals(THREADS, rejected.get());
+        assertEquals(0, BigDecimal.ZERO.compareTo(rawMaterialService.findById(rawMaterialId).stockQuantity()));
+    }
+}
@@ -0,0 +1,134 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.ProductionPlanItemRequest;
+import com.autoflex.backend.dto.ProductionPlanResponse;
+import com.autoflex.backend.exception.BadRequestException;
+import com.autoflex.backend.exception.InsufficientStockException;
+import com.autoflex.backend.exception.NotFoundException;
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.model.Warehouse;
+import com.autoflex.backend.repository.BomLine;
+import com.autoflex.backend.repository.ProductMaterialJdbcRepository;
+import com.autoflex.backend.repository.ProductRepository;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductionPlanServiceTest {
+
+    private ProductRepository productRepo;
+    private ProductMaterialJdbcRepository productMaterialJdbc;
+    private RawMaterialJdbcRepository rawMaterialJdbc;
+    private StockLedgerService stockLedger;
+    private ProductionPlanService service;
+
+    private final Product table = Product.builder()
+            .id(UUID.randomUUID()).code("P001").name("Table").price(new BigDecimal("100.00")).build();
+    private final Product chair = Product.builder()
+            .id(UUID.randomUUID()).code("P002").name("Chair").price(new BigDecimal("40.00")).build();
+    private final RawMaterial wood = RawMaterial.builder()
+            .id(UUID.randomUUID()).code("RM001").name("Wood").stockQuantity(new BigDecimal("10.000")).build();
+    private final RawMaterial screw = RawMaterial.builder()
+            .id(UUID.randomUUID()).code("RM002").name("Screw").stockQuantity(new BigDecimal("50.000")).build();
+
+    @BeforeEach
+    void setUp() {
+        productRepo = mock(ProductRepository.class);
+        productMaterialJdbc = mock(ProductMaterialJdbcRepository.class);
+        rawMaterialJdbc = mock(RawMaterialJdbcRepository.class);
+        stockLedger = mock(StockLedgerService.class);
+        service = new ProductionPlanService(productRepo, productMaterialJdbc, rawMaterialJdbc, stockLedger);
+        when(stockLedger.warehouse(any())).thenAnswer(inv -> inv.getArgument(0) == null ? Warehouse.DEFAULT_ID : inv.getArgument(0));
+
+        when(productRepo.findAllById(anyIterable())).thenReturn(List.of(table, chair));
+        List<BomLine> bom = List.of(
+                new BomLine(table.getId(), wood.getId(), new BigDecimal("2.000")),
+                new BomLine(table.getId(), screw.getId(), new BigDecimal("8.000")),
+                new BomLine(chair.getId(), wood.getId(), new BigDecimal("1.000")));
+        when(productMaterialJdbc.findExplodedByProductIds(anyCollection())).thenAnswer(inv -> {
+            Collection<UUID> ids = inv.getArgument(0);
+            return bom.stream().filter(line -> ids.contains(line.productId())).toList();
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldConsumeTotalsPerMaterialInIdOrder() {
+        // Arrange
+        when(stockLedger.consume(any(), any(), anyString())).thenReturn(Set.of());
+        when(rawMaterialJdbc.findStock(anyCollection())).thenReturn(Map.of(wood.getId(), wood, screw.getId(), screw));
+        when(stockLedger.balances(anyCollection(), eq(Warehouse.DEFAULT_ID))).thenReturn(Map.of(
+                wood.getId(), new BigDecimal("3.000"),
+                screw.getId(), new BigDecimal("26.000")));
+
+        // Act
+        ProductionPlanResponse resp = service.commit(List.of(
+                new ProductionPlanItemRequest(table.getId(), 3),
+                new ProductionPlanItemRequest(chair.getId(), 1)), null);
+
+        // Assert
+        ArgumentCaptor<SortedMap<UUID, BigDecimal>> captor = ArgumentCaptor.forClass(SortedMap.class);
+        verify(stockLedger).consume(captor.capture(), eq(Warehouse.DEFAULT_ID), eq("Production plan"));
+        SortedMap<UUID, BigDecimal> consumed = captor.getValue();
+        assertEquals(new TreeSet<>(Set.of(wood.getId(), screw.getId())), new TreeSet<>(consumed.keySet()));
+        assertEquals(0, new BigDecimal("7.000").compareTo(consumed.get(wood.getId())));
+        assertEquals(0, new BigDecimal("24.000").compareTo(consumed.get(screw.getId())));
+
+        assertEquals(0, new BigDecimal("340.00").compareTo(resp.totalValue()));
+        assertEquals(2, resp.items().size());
+        assertEquals("RM001", resp.consumption().get(0).rawMaterialCode());
+        assertEquals(0, new BigDecimal("3.000").compareTo(resp.consumption().get(0).remainingStock()));
+    }
+
+    @Test
+    void shouldReportShortagesFromWarehouseBalances() {
+        // Arrange
+        UUID plant = UUID.randomUUID();
+        when(stockLedger.consume(any(), eq(plant), anyString())).thenReturn(Set.of(screw.getId()));
+        when(rawMaterialJdbc.findStock(anyCollection())).thenReturn(Map.of(wood.getId(), wood, screw.getId(), screw));
+        when(stockLedger.balances(anyCollection(), eq(plant))).thenReturn(Map.of(
+                wood.getId(), new BigDecimal("4.000"),
+                screw.getId(), new BigDecimal("5.000")));
+
+        // Act
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class, () -> service.commit(List.of(
+                new ProductionPlanItemRequest(table.getId(), 3)), plant));
+
+        // Assert
+        assertEquals(1, ex.getShortages().size());
+        assertEquals("RM002", ex.getShortages().get(0).rawMaterialCode());
+        assertEquals(0, new BigDecimal("24.000").compareTo(ex.getShortages().get(0).required()));
+        assertEquals(0, new BigDecimal("5.000").compareTo(ex.getShortages().get(0).available()));
+    }
+
+    @Test
+    void shouldRejectInvalidPlansBeforeTouchingStock() {
+        // Arrange
+        UUID unknown = UUID.randomUUID();
+        Product lamp = Product.builder()
+                .id(UUID.randomUUID()).code("P003").name("Lamp").price(new BigDecimal("15.00")).build();
+
+        // Act + Assert
+        assertThrows(BadRequestException.class, () -> service.commit(List.of(), null));
+        assertThrows(BadRequestException.class, () -> service.commit(List.of(
+                new ProductionPlanItemRequest(table.getId(), 1),
+                new ProductionPlanItemRequest(table.getId(), 2)), null));
+        assertThrows(NotFoundException.class, () -> service.commit(List.of(
+                new ProductionPlanItemRequest(unknown, 1)), null));
+
+        when(productRepo.findAllById(anyIterable())).thenReturn(List.of(lamp));
+        assertThrows(BadRequestException.class, () -> service.commit(List.of(
+                new ProductionPlanItemRequest(lamp.getId(), 1)), null));
+
+        verify(stockLedger, never()).consume(any(), any(), anyString());
+    }
+}
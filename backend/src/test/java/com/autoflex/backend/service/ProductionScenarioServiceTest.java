@@ -0,0 +1,144 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.*;
+import com.autoflex.backend.exception.BadRequestException;
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.ProductMaterial;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.SolverLines;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductionScenarioServiceTest {
+
+    private ProductMaterialRepository repo;
+    private ProductionScenarioService service;
+
+    private final RawMaterial steel = rawMaterial("RM001", "Steel", "100.000");
+    private final RawMaterial screw = rawMaterial("RM002", "Screw", "40.000");
+    private final Product table = product("P001", "Table", "300.00");
+    private final Product chair = product("P002", "Chair", "120.00");
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(ProductMaterialRepository.class);
+        when(repo.findAllSolverLines()).thenAnswer(inv -> SolverLines.of(List.of(
+                line(table, steel, "20.000"),
+                line(table, screw, "8.000"),
+                line(chair, steel, "10.000"),
+                line(chair, screw, "4.000")
+        )));
+        ProductionSuggestionService suggestionService =
+                new ProductionSuggestionService(repo, new CatalogRevision(), new SimpleMeterRegistry());
+        service = new ProductionScenarioService(suggestionService, pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void shouldCompareScenariosAgainstCurrentPlan() {
+        // Arrange: hoje 5 mesas (limitado pelos parafusos)
+        List<ScenarioRequest> scenarios = List.of(
+                new ScenarioRequest("Double stock", List.of(
+                        new ScenarioStockOverride(steel.getId(), null, new BigDecimal("100.000")),
+                        new ScenarioStockOverride(screw.getId(), new BigDecimal("80.000"), null)), null),
+                new ScenarioRequest("Chair premium", null,
+                        List.of(new ScenarioPriceOverride(chair.getId(), new BigDecimal("400.00")))),
+                new ScenarioRequest(null,
+                        List.of(new ScenarioStockOverride(steel.getId(), BigDecimal.ZERO, null)), null)
+        );
+
+        // Act
+        ScenarioComparisonResponse resp = service.simulate(scenarios, SuggestionMode.GREEDY, Duration.ZERO);
+
+        // Assert
+        assertEquals(new BigDecimal("1500.00"), resp.baseline().totalValue());
+
+        ScenarioResultResponse doubled = resp.scenarios().get(0);
+        assertEquals(new BigDecimal("1500.00"), doubled.valueDelta());
+        assertEquals(List.of(new ScenarioItemChange(table.getId(), "P001", "Table", 5, 10)), doubled.changes());
+
+        ScenarioResultResponse premium = resp.scenarios().get(1);
+        assertEquals("P002", premium.plan().items().get(0).productCode());
+        assertEquals(new BigDecimal("4000.00"), premium.plan().totalValue());
+        assertEquals(2, premium.changes().size());
+
+        ScenarioResultResponse noSteel = resp.scenarios().get(2);
+        assertEquals("Scenario 3", noSteel.name());
+        assertEquals(BigDecimal.ZERO, noSteel.plan().totalValue());
+        assertEquals(new BigDecimal("-1500.00"), noSteel.valueDelta());
+
+        assertEquals("Chair premium", resp.bestScenario());
+    }
+
+    @Test
+    void shouldReadCatalogOnceAndNeverWrite() {
+        // Arrange
+        List<ScenarioRequest> scenarios = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            scenarios.add(new ScenarioRequest("S" + i,
+                    List.of(new ScenarioStockOverride(steel.getId(), null, BigDecimal.valueOf(i))), null));
+        }
+
+        // Act
+        ScenarioComparisonResponse resp = service.simulate(scenarios, SuggestionMode.OPTIMAL, Duration.ofMillis(200));
+        ScenarioComparisonResponse again = service.simulate(scenarios, SuggestionMode.GREEDY, Duration.ZERO);
+
+        // Assert
+        assertEquals(50, resp.scenarios().size());
+        assertEquals("S0", resp.scenarios().get(0).name());
+        assertEquals("S49", again.scenarios().get(49).name());
+        assertEquals(SuggestionMode.OPTIMAL, resp.baseline().mode());
+        verify(repo, times(1)).findAllSolverLines();
+        verify(repo, times(1)).findAllComponentLines();
+        verifyNoMoreInteractions(repo);
+
+        // O snapshot não é alterado pelos cenários
+        assertEquals(new BigDecimal("1500.00"), again.baseline().totalValue());
+    }
+
+    @Test
+    void shouldRejectInvalidOverrides() {
+        ScenarioStockOverride both = new ScenarioStockOverride(steel.getId(), BigDecimal.ONE, BigDecimal.ONE);
+        ScenarioStockOverride negative = new ScenarioStockOverride(steel.getId(), null, new BigDecimal("-100.001"));
+        ScenarioStockOverride unknown = new ScenarioStockOverride(UUID.randomUUID(), BigDecimal.ONE, null);
+
+        for (ScenarioStockOverride o : List.of(both, negative, unknown)) {
+            List<ScenarioRequest> scenarios = List.of(new ScenarioRequest("Bad", List.of(o), null));
+            assertThrows(BadRequestException.class,
+                    () -> service.simulate(scenarios, SuggestionMode.GREEDY, Duration.ZERO));
+        }
+    }
+
+    private static RawMaterial rawMaterial(String code, String name, String stock) {
+        return RawMaterial.builder().id(UUID.randomUUID()).code(code).name(name)
+                .stockQuantity(new BigDecimal(stock)).build();
+    }
+
+    private static Product product(String code, String name, String price) {
+        return Product.builder().id(UUID.randomUUID()).code(code).name(name).price(new BigDecimal(price)).build();
+    }
+
+    private static ProductMaterial line(Product product, RawMaterial rm, String required) {
+        return ProductMaterial.builder().id(UUID.randomUUID()).product(product).rawMaterial(rm)
+                .requiredQuantity(new BigDecimal(required)).build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.ProductMaterialItemRequest;
+import com.autoflex.backend.dto.ProductRequest;
+import com.autoflex.backend.dto.RawMaterialRequest;
+import com.autoflex.backend.exception.BadRequestException;
+import com.autoflex.backend.exception.NotFoundException;
+import com.autoflex.backend.repository.StockMovementJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exclusão de matéria-prima contra um PostgreSQL real: o histórico de estoque fica, a exclusão
+ * física é bloqueada e o código pode ser reaproveitado. Roda só com {@code DATABASE_URL} definido
+ * (use um banco descartável).
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+class RawMaterialDeletionDatabaseTest {
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductMaterialService productMaterialService;
+    @Autowired
+    private StockMovementJdbcRepository movements;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private String code;
+    private UUID rawMaterialId;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        code = "DEL-RM-" + suffix;
+        rawMaterialId = rawMaterialService.create(new RawMaterialRequest(code, "Deleted material", new BigDecimal("10"))).id();
+        productId = productService.create(new ProductRequest("DEL-P-" + suffix, "Deletion product", new BigDecimal("1.00"))).id();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productService.delete(productId);
+    }
+
+    @Test
+    void shouldKeepStockHistoryOfDeletedRawMaterial() {
+        // Arrange
+        productMaterialService.replaceMaterials(productId, List.of(new ProductMaterialItemRequest(rawMaterialId, BigDecimal.ONE)));
+
+        // Act: em uso num BOM a exclusão é recusada; fora dele, só marca a linha
+        assertThrows(BadRequestException.class, () -> rawMaterialService.delete(rawMaterialId));
+        productMaterialService.replaceMaterials(productId, List.of());
+        rawMaterialService.delete(rawMaterialId);
+
+        // Assert
+        assertThrows(NotFoundException.class, () -> rawMaterialService.findById(rawMaterialId));
+        assertEquals(1, movements.findRecent(rawMaterialId, 10).size(), "Movimento de abertura continua no razão");
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbc.update("delete from raw_materials where id = ?", rawMaterialId));
+        assertThrows(NotFoundException.class, () -> productMaterialService.replaceMaterials(productId,
+                List.of(new ProductMaterialItemRequest(rawMaterialId, BigDecimal.ONE))));
+
+        UUID recreated = rawMaterialService.create(new RawMaterialRequest(code, "Same code", BigDecimal.ZERO)).id();
+        rawMaterialService.delete(recreated);
+    }
+}
@@ -0,0 +1,48 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.RawMaterialResponse;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import com.autoflex.backend.repository.RawMaterialRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RawMaterialServiceTest {
+
+    @Test
+    void shouldKeepCachedRecordAcrossStockMovementsAndReadBalanceFromLedger() {
+        // Arrange
+        RawMaterialRepository repo = mock(RawMaterialRepository.class);
+        StockLedgerService stockLedger = mock(StockLedgerService.class);
+        CatalogRevision revision = new CatalogRevision();
+        RawMaterialService service = new RawMaterialService(repo, mock(RawMaterialJdbcRepository.class),
+                mock(ProductMaterialRepository.class), stockLedger,
+                revision, new CatalogEntityCache(revision, new SimpleMeterRegistry(), 100, 60_000));
+        RawMaterial wood = RawMaterial.builder()
+                .id(UUID.randomUUID()).code("RM001").name("Wood").stockQuantity(new BigDecimal("10.000")).build();
+        when(repo.findById(wood.getId())).thenReturn(Optional.of(wood));
+        when(stockLedger.balances(List.of(wood.getId()), null)).thenReturn(Map.of(wood.getId(), new BigDecimal("4.000")));
+
+        // Act
+        RawMaterialResponse first = service.findById(wood.getId());
+        revision.stockChanged(UUID.randomUUID());
+        RawMaterialResponse afterMovement = service.findById(wood.getId());
+
+        // Assert: a carga traz o saldo; depois, só o saldo é relido
+        assertEquals(new BigDecimal("10.000"), first.stockQuantity());
+        assertEquals(new BigDecimal("4.000"), afterMovement.stockQuantity());
+        assertEquals("Wood", afterMovement.name());
+        verify(repo, times(1)).findById(any());
+    }
+}
@@ -0,0 +1,112 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.ProductionSuggestionItemResponse;
+import com.autoflex.backend.dto.ProductionSuggestionResponse;
+import com.autoflex.backend.dto.ProductionSuggestionSummaryResponse;
+import com.autoflex.backend.dto.SiteSuggestionsResponse;
+import com.autoflex.backend.dto.SuggestionMode;
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.ProductMaterial;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.model.Warehouse;
+import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.SolverLines;
+import com.autoflex.backend.repository.StockMovementJdbcRepository;
+import com.autoflex.backend.repository.WarehouseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SiteSuggestionServiceTest {
+
+    @Test
+    void shouldSolveSitesSeparatelyAndRefreshOnlyTheSiteThatMoved() {
+        // Arrange
+        ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
+        StockMovementJdbcRepository movements = mock(StockMovementJdbcRepository.class);
+        WarehouseRepository warehouseRepo = mock(WarehouseRepository.class);
+        CatalogRevision revision = new CatalogRevision();
+        ProductionSuggestionService suggestion = new ProductionSuggestionService(repo, revision, new SimpleMeterRegistry());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        SiteSuggestionService service = new SiteSuggestionService(suggestion, movements, warehouseRepo, revision, pool);
+
+        Warehouse main = Warehouse.builder().id(Warehouse.DEFAULT_ID).code("MAIN").name("Main warehouse").build();
+        Warehouse plant = Warehouse.builder().id(UUID.randomUUID()).code("PLANT-2").name("Second plant").build();
+        when(warehouseRepo.findAll(any(Sort.class))).thenReturn(List.of(main, plant));
+
+        Product table = Product.builder()
+                .id(UUID.randomUUID()).code("P001").name("Table").price(new BigDecimal("100.00")).build();
+        RawMaterial wood = RawMaterial.builder()
+                .id(UUID.randomUUID()).code("RM001").name("Wood").stockQuantity(new BigDecimal("10.000")).build();
+        when(repo.findAllSolverLines()).thenReturn(SolverLines.of(List.of(
+                ProductMaterial.builder().product(table).rawMaterial(wood).requiredQuantity(new BigDecimal("2.000")).build())));
+        // 10 de madeira no total: 7 no principal, 3 na planta (e depois 5)
+        when(movements.findBalances(anyCollection(), eq(main.getId())))
+                .thenReturn(Map.of(wood.getId(), new BigDecimal("7.000")));
+        when(movements.findBalances(anyCollection(), eq(plant.getId())))
+                .thenReturn(Map.of(wood.getId(), new BigDecimal("3.000")))
+                .thenReturn(Map.of(wood.getId(), new BigDecimal("5.000")));
+
+        // Act
+        SiteSuggestionsResponse before = service.suggestAll(SuggestionMode.GREEDY, Duration.ofSeconds(1));
+        revision.stockChanged(plant.getId());
+        SiteSuggestionsResponse after = service.suggestAll(SuggestionMode.GREEDY, Duration.ofSeconds(1));
+        pool.shutdownNow();
+
+        // Assert: a sobra de cada depósito não se soma (3 + 1 mesas, não 5)
+        assertEquals(3, before.sites().get(0).suggestion().items().get(0).suggestedQuantity());
+        assertEquals(1, before.sites().get(1).suggestion().items().get(0).suggestedQuantity());
+        assertEquals(4, before.items().get(0).suggestedQuantity());
+        assertEquals(new BigDecimal("400.00"), before.totalValue());
+
+        assertEquals(5, after.items().get(0).suggestedQuantity());
+        assertSame(before.sites().get(0).suggestion(), after.sites().get(0).suggestion());
+        verify(movements, times(1)).findBalances(anyCollection(), eq(main.getId()));
+        verify(movements, times(2)).findBalances(anyCollection(), eq(plant.getId()));
+    }
+
+    @Test
+    void shouldStreamSiteSuggestionFromItsSnapshot() {
+        // Arrange
+        ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
+        StockMovementJdbcRepository movements = mock(StockMovementJdbcRepository.class);
+        WarehouseRepository warehouseRepo = mock(WarehouseRepository.class);
+        CatalogRevision revision = new CatalogRevision();
+        ProductionSuggestionService suggestion = new ProductionSuggestionService(repo, revision, new SimpleMeterRegistry());
+        SiteSuggestionService service = new SiteSuggestionService(suggestion, movements, warehouseRepo, revision, ForkJoinPool.commonPool());
+
+        UUID plant = UUID.randomUUID();
+        when(warehouseRepo.existsById(plant)).thenReturn(true);
+        Product table = Product.builder()
+                .id(UUID.randomUUID()).code("P001").name("Table").price(new BigDecimal("100.00")).build();
+        RawMaterial wood = RawMaterial.builder()
+                .id(UUID.randomUUID()).code("RM001").name("Wood").stockQuantity(new BigDecimal("10.000")).build();
+        when(repo.findAllSolverLines()).thenReturn(SolverLines.of(List.of(
+                ProductMaterial.builder().product(table).rawMaterial(wood).requiredQuantity(new BigDecimal("2.000")).build())));
+        when(movements.findBalances(anyCollection(), eq(plant))).thenReturn(Map.of(wood.getId(), new BigDecimal("3.000")));
+
+        // Act
+        List<ProductionSuggestionItemResponse> streamed = new ArrayList<>();
+        ProductionSuggestionSummaryResponse summary = service.stream(plant, SuggestionMode.GREEDY, Duration.ofSeconds(1), streamed::add);
+        ProductionSuggestionResponse plan = service.suggest(plant, SuggestionMode.GREEDY, Duration.ofSeconds(1));
+
+        // Assert: só o estoque da planta (1 mesa, não 5), do mesmo snapshot
+        assertEquals(plan.items(), streamed);
+        assertEquals(1, streamed.get(0).suggestedQuantity());
+        assertEquals(1, summary.itemCount());
+        assertEquals(new BigDecimal("100.00"), summary.totalValue());
+        verify(movements, times(1)).findBalances(anyCollection(), eq(plant));
+    }
+}
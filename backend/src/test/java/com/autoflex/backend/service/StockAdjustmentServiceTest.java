@@ -0,0 +1,145 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.StockAdjustmentBatchResponse;
+import com.autoflex.backend.dto.StockAdjustmentRequest;
+import com.autoflex.backend.model.StockMovementKind;
+import com.autoflex.backend.model.Warehouse;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import com.autoflex.backend.repository.StockMovement;
+import com.autoflex.backend.repository.StockMovementJdbcRepository;
+import com.autoflex.backend.repository.WarehouseRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StockAdjustmentServiceTest {
+
+    private final UUID steel = UUID.randomUUID();
+    private final UUID wood = UUID.randomUUID();
+
+    private StockMovementJdbcRepository movements;
+    private RawMaterialJdbcRepository rawMaterialJdbc;
+    private CatalogRevision revision;
+    private StockAdjustmentService service;
+
+    @BeforeEach
+    void setUp() {
+        movements = mock(StockMovementJdbcRepository.class);
+        rawMaterialJdbc = mock(RawMaterialJdbcRepository.class);
+        revision = new CatalogRevision();
+        service = new StockAdjustmentService(movements, rawMaterialJdbc,
+                new StockLedgerService(movements, rawMaterialJdbc, mock(WarehouseRepository.class), revision),
+                revision, Validation.buildDefaultValidatorFactory().getValidator());
+
+        when(rawMaterialJdbc.findExistingIds(anyCollection())).thenReturn(Set.of(steel));
+        when(rawMaterialJdbc.findIdsByCodes(anyCollection())).thenReturn(Map.of("RM-WOOD", wood));
+        when(movements.insertAllIdempotent(anyMap())).thenAnswer(inv -> Set.copyOf(inv.<Map<String, ?>>getArgument(0).keySet()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldApplyBatchInOneInsertSkippingRepeatedKeys() {
+        // Arrange
+        when(movements.findExistingKeys(anyCollection())).thenReturn(Set.of("scan-3"));
+        when(movements.findBalances(anyCollection(), eq(Warehouse.DEFAULT_ID))).thenReturn(Map.of(steel, new BigDecimal("5.000")));
+
+        List<StockAdjustmentRequest> rows = List.of(
+                new StockAdjustmentRequest(steel, null, new BigDecimal("10.000"), "scan-1", null, null),
+                new StockAdjustmentRequest(null, " RM-WOOD ", new BigDecimal("2.500"), "scan-2", null, " dock 4 "),
+                new StockAdjustmentRequest(steel, null, new BigDecimal("10.000"), "scan-1", null, null),
+                new StockAdjustmentRequest(steel, null, new BigDecimal("-1.000"), "scan-3", null, null),
+                new StockAdjustmentRequest(steel, null, new BigDecimal("-12.000"), "scan-4", null, null)
+        );
+
+        // Act
+        StockAdjustmentBatchResponse resp = service.apply(rows);
+
+        // Assert: saldo 5 + 10 - 12 cobre o débito; scan-1 repetido no lote e scan-3 já gravado
+        assertEquals(5, resp.received());
+        assertEquals(3, resp.applied());
+        assertEquals(List.of("scan-1", "scan-3"), resp.duplicateKeys());
+        assertTrue(resp.errors().isEmpty());
+
+        ArgumentCaptor<Map<String, StockMovement>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(movements, times(1)).insertAllIdempotent(captor.capture());
+        Map<String, StockMovement> inserted = captor.getValue();
+        assertEquals(List.of("scan-1", "scan-2", "scan-4"), List.copyOf(inserted.keySet()));
+        assertEquals(StockMovementKind.RECEIPT, inserted.get("scan-2").kind());
+        assertEquals(wood, inserted.get("scan-2").rawMaterialId());
+        assertEquals("dock 4", inserted.get("scan-2").reference());
+        assertEquals(StockMovementKind.CONSUMPTION, inserted.get("scan-4").kind());
+        assertEquals(new BigDecimal("-12.000"), inserted.get("scan-4").quantity());
+        verify(movements).lock(Set.of(steel));
+        assertEquals(1, revision.current());
+        assertEquals(1, revision.currentStock(Warehouse.DEFAULT_ID));
+    }
+
+    @Test
+    void shouldReportInvalidRowsAndRejectDebitsBeyondTheBalance() {
+        // Arrange
+        when(movements.findExistingKeys(anyCollection())).thenReturn(Set.of());
+        when(movements.findBalances(anyCollection(), eq(Warehouse.DEFAULT_ID))).thenReturn(Map.of(steel, new BigDecimal("3.000")));
+
+        List<StockAdjustmentRequest> rows = List.of(
+                new StockAdjustmentRequest(steel, null, new BigDecimal("-2.000"), "a", null, null),
+                new StockAdjustmentRequest(steel, null, new BigDecimal("-2.000"), "b", null, null),
+                new StockAdjustmentRequest(null, null, BigDecimal.ONE, "c", null, null),
+                new StockAdjustmentRequest(UUID.randomUUID(), null, BigDecimal.ONE, "d", null, null),
+                new StockAdjustmentRequest(null, "RM-WOOD", BigDecimal.ZERO, "e", null, null),
+                new StockAdjustmentRequest(null, "RM-WOOD", BigDecimal.ONE, " ", null, null),
+                new StockAdjustmentRequest(null, "RM-WOOD", BigDecimal.ONE, "f", null, null)
+        );
+
+        // Act
+        StockAdjustmentBatchResponse resp = service.apply(rows);
+
+        // Assert: os dois débitos de aço somam 4 e o saldo é 3, então os dois são recusados
+        assertEquals(1, resp.applied());
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), resp.errors().stream().map(e -> e.row()).toList());
+        assertTrue(resp.errors().get(0).message().startsWith("Insufficient stock"));
+        assertEquals("rawMaterialId or code is required", resp.errors().get(2).message());
+        assertEquals("Raw material not found", resp.errors().get(3).message());
+        assertEquals("delta must not be zero", resp.errors().get(4).message());
+        assertTrue(resp.errors().get(5).message().startsWith("idempotencyKey"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldApplyReceiptsAndRejectOnlyDebitsOfASiteShortOfStock() {
+        // Arrange
+        when(movements.findExistingKeys(anyCollection())).thenReturn(Set.of());
+        when(movements.findBalances(anyCollection(), eq(Warehouse.DEFAULT_ID))).thenReturn(Map.of(steel, new BigDecimal("3.000")));
+
+        List<StockAdjustmentRequest> rows = List.of(
+                new StockAdjustmentRequest(steel, null, new BigDecimal("2.000"), "in", null, null),
+                new StockAdjustmentRequest(steel, null, new BigDecimal("-6.000"), "out", null, null),
+                new StockAdjustmentRequest(steel, null, new BigDecimal("0.0004"), "tiny", null, null),
+                new StockAdjustmentRequest(steel, null, new BigDecimal("1E+12"), "huge", null, null)
+        );
+
+        // Act
+        StockAdjustmentBatchResponse resp = service.apply(rows);
+
+        // Assert: 3 + 2 não cobre 6, então só o débito é recusado; valores fora da coluna viram erro da linha
+        assertEquals(1, resp.applied());
+        assertEquals(List.of(2, 3, 4), resp.errors().stream().map(e -> e.row()).toList());
+        assertTrue(resp.errors().get(0).message().startsWith("Insufficient stock"));
+        assertTrue(resp.errors().get(1).message().startsWith("delta"));
+        assertTrue(resp.errors().get(2).message().startsWith("delta"));
+
+        ArgumentCaptor<Map<String, StockMovement>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(movements, times(1)).insertAllIdempotent(captor.capture());
+        assertEquals(List.of("in"), List.copyOf(captor.getValue().keySet()));
+    }
+}
@@ -0,0 +1,158 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.StockMovementRequest;
+import com.autoflex.backend.exception.BadRequestException;
+import com.autoflex.backend.exception.InsufficientStockException;
+import com.autoflex.backend.exception.NotFoundException;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.model.StockMovementKind;
+import com.autoflex.backend.model.Warehouse;
+import com.autoflex.backend.repository.RawMaterialJdbcRepository;
+import com.autoflex.backend.repository.StockMovement;
+import com.autoflex.backend.repository.StockMovementJdbcRepository;
+import com.autoflex.backend.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StockLedgerServiceTest {
+
+    private StockMovementJdbcRepository movements;
+    private RawMaterialJdbcRepository rawMaterialJdbc;
+    private WarehouseRepository warehouseRepo;
+    private CatalogRevision revision;
+    private StockLedgerService service;
+
+    private final RawMaterial wood = RawMaterial.builder()
+            .id(UUID.randomUUID()).code("RM001").name("Wood").stockQuantity(new BigDecimal("10.000")).build();
+    private final RawMaterial screw = RawMaterial.builder()
+            .id(UUID.randomUUID()).code("RM002").name("Screw").stockQuantity(new BigDecimal("50.000")).build();
+
+    @BeforeEach
+    void setUp() {
+        movements = mock(StockMovementJdbcRepository.class);
+        rawMaterialJdbc = mock(RawMaterialJdbcRepository.class);
+        warehouseRepo = mock(WarehouseRepository.class);
+        revision = new CatalogRevision();
+        service = new StockLedgerService(movements, rawMaterialJdbc, warehouseRepo, revision);
+
+        when(rawMaterialJdbc.findStock(anyCollection())).thenReturn(Map.of(wood.getId(), wood, screw.getId(), screw));
+        when(movements.insert(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void shouldRecordReceiptAsPlainInsert() {
+        // Act
+        var resp = service.record(wood.getId(),
+                new StockMovementRequest(StockMovementKind.RECEIPT, new BigDecimal("5.000"), " NF 123 "));
+
+        // Assert
+        assertEquals(0, new BigDecimal("5.000").compareTo(resp.quantity()));
+        assertEquals("NF 123", resp.reference());
+        verify(movements, never()).lockBalances(any(), any());
+        assertEquals(1, revision.current());
+    }
+
+    @Test
+    void shouldRejectDebitBeyondBalance() {
+        // Arrange
+        when(movements.lockBalances(any(), any())).thenReturn(Map.of(wood.getId(), new BigDecimal("2.000")));
+
+        // Act
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class, () -> service.record(wood.getId(),
+                new StockMovementRequest(StockMovementKind.CONSUMPTION, new BigDecimal("3.000"), null)));
+
+        // Assert
+        assertEquals("RM001", ex.getShortages().get(0).rawMaterialCode());
+        verify(movements, never()).insert(any());
+        assertEquals(0, revision.current());
+        assertThrows(BadRequestException.class, () -> service.record(wood.getId(),
+                new StockMovementRequest(StockMovementKind.RECEIPT, new BigDecimal("-1.000"), null)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldConsumeAllOrNothing() {
+        // Arrange
+        when(movements.lockBalances(any(), any())).thenReturn(Map.of(
+                wood.getId(), new BigDecimal("4.000"),
+                screw.getId(), new BigDecimal("50.000")));
+        SortedMap<UUID, BigDecimal> tooMuch = new TreeMap<>(Map.of(
+                wood.getId(), new BigDecimal("6.000"),
+                screw.getId(), new BigDecimal("8.000")));
+        SortedMap<UUID, BigDecimal> enough = new TreeMap<>(Map.of(
+                wood.getId(), new BigDecimal("4.000"),
+                screw.getId(), new BigDecimal("8.000")));
+
+        // Act
+        Set<UUID> rejected = service.consume(tooMuch, Warehouse.DEFAULT_ID, "Plan");
+        Set<UUID> accepted = service.consume(enough, Warehouse.DEFAULT_ID, "Plan");
+
+        // Assert
+        assertEquals(Set.of(wood.getId()), rejected);
+        assertTrue(accepted.isEmpty());
+        ArgumentCaptor<List<StockMovement>> debits = ArgumentCaptor.forClass(List.class);
+        verify(movements, times(1)).insertAll(debits.capture());
+        assertEquals(2, debits.getValue().size());
+        assertTrue(debits.getValue().stream()
+                .allMatch(m -> m.kind() == StockMovementKind.CONSUMPTION && m.quantity().signum() < 0));
+        assertEquals(1, revision.current());
+    }
+
+    @Test
+    void shouldAdjustToCountedStock() {
+        // Arrange
+        when(movements.lockBalances(any(), any())).thenReturn(Map.of(wood.getId(), new BigDecimal("10.000")));
+        when(movements.findBalances(any(), eq(Warehouse.DEFAULT_ID))).thenReturn(Map.of(wood.getId(), new BigDecimal("10.000")));
+
+        // Act
+        BigDecimal delta = service.adjustTo(wood.getId(), new BigDecimal("7.500"));
+        BigDecimal unchanged = service.adjustTo(wood.getId(), new BigDecimal("10.000"));
+
+        // Assert
+        assertEquals(0, new BigDecimal("-2.500").compareTo(delta));
+        assertEquals(0, unchanged.signum());
+        verify(movements, times(1)).insert(argThat(m ->
+                m.kind() == StockMovementKind.ADJUSTMENT && m.quantity().compareTo(new BigDecimal("-2.500")) == 0));
+        assertEquals(1, revision.current());
+    }
+
+    @Test
+    void shouldRecordMovementsPerWarehouse() {
+        // Arrange
+        UUID plant = UUID.randomUUID();
+        when(warehouseRepo.existsById(plant)).thenReturn(true);
+        when(movements.lockBalances(any(), eq(plant))).thenReturn(Map.of(wood.getId(), new BigDecimal("1.000")));
+
+        // Act
+        var receipt = service.record(wood.getId(),
+                new StockMovementRequest(StockMovementKind.RECEIPT, new BigDecimal("5.000"), null, plant));
+
+        // Assert: débito acima do saldo daquele depósito é recusado, mesmo com saldo global maior
+        assertEquals(plant, receipt.warehouseId());
+        assertEquals(1, revision.currentStock(plant));
+        assertEquals(0, revision.currentStock(Warehouse.DEFAULT_ID));
+        assertThrows(InsufficientStockException.class, () -> service.record(wood.getId(),
+                new StockMovementRequest(StockMovementKind.CONSUMPTION, new BigDecimal("2.000"), null, plant)));
+        assertThrows(NotFoundException.class, () -> service.record(wood.getId(),
+                new StockMovementRequest(StockMovementKind.RECEIPT, BigDecimal.ONE, null, UUID.randomUUID())));
+    }
+
+    @Test
+    void shouldRejectCountThatWouldDriveMainWarehouseNegative() {
+        // Arrange: 10 no total, mas só 2 no depósito principal
+        when(movements.lockBalances(any(), isNull())).thenReturn(Map.of(wood.getId(), new BigDecimal("10.000")));
+        when(movements.findBalances(any(), eq(Warehouse.DEFAULT_ID))).thenReturn(Map.of(wood.getId(), new BigDecimal("2.000")));
+
+        // Act + Assert
+        assertThrows(BadRequestException.class, () -> service.adjustTo(wood.getId(), new BigDecimal("5.000")));
+        verify(movements, never()).insert(any());
+    }
+}
@@ -0,0 +1,112 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.RawMaterialRequest;
+import com.autoflex.backend.model.StockMovementKind;
+import com.autoflex.backend.model.Warehouse;
+import com.autoflex.backend.repository.StockMovement;
+import com.autoflex.backend.repository.StockMovementJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Snapshot do razão com um movimento ainda não commitado contra um PostgreSQL real: o snapshot
+ * não espera a transação aberta e o movimento, commitado depois, entra no saldo. Roda só com
+ * {@code DATABASE_URL} definido (use um banco descartável).
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+class StockSnapshotConcurrencyTest {
+
+    @Autowired
+    private StockLedgerService stockLedger;
+    @Autowired
+    private StockMovementJdbcRepository movements;
+    @Autowired
+    private RawMaterialService rawMaterialService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID rawMaterialId;
+    private UUID otherId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        rawMaterialId = rawMaterialService.create(
+                new RawMaterialRequest("SNAP-RM-" + suffix, "Snapshot material", new BigDecimal("10"))).id();
+        otherId = rawMaterialService.create(
+                new RawMaterialRequest("SNAP-RM2-" + suffix, "Other snapshot material", new BigDecimal("10"))).id();
+    }
+
+    @AfterEach
+    void tearDown() {
+        rawMaterialService.delete(rawMaterialId);
+        rawMaterialService.delete(otherId);
+    }
+
+    @Test
+    void shouldSnapshotWithoutWaitingForOpenMovementsAndKeepThemInBalance() throws Exception {
+        // Arrange: entrada com id menor fica aberta enquanto outra, com id maior, é commitada.
+        // A segunda é de outra matéria-prima: na mesma, esperaria a linha do saldo materializado
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        Future<?> open = writer.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            movements.insert(receipt(rawMaterialId, "5"));
+            inserted.countDown();
+            await(release);
+        }));
+        assertTrue(inserted.await(10, TimeUnit.SECONDS));
+        movements.insert(receipt(otherId, "2"));
+
+        try {
+            // Act
+            assertTimeoutPreemptively(Duration.ofSeconds(10), stockLedger::snapshot, "snapshot esperou a transação aberta");
+            BigDecimal whileOpen = balance(rawMaterialId);
+            release.countDown();
+            open.get(10, TimeUnit.SECONDS);
+            BigDecimal afterCommit = balance(rawMaterialId);
+            stockLedger.snapshot();
+            BigDecimal afterNextSnapshot = balance(rawMaterialId);
+
+            // Assert
+            assertEquals(0, new BigDecimal("10").compareTo(whileOpen));
+            assertEquals(0, new BigDecimal("15").compareTo(afterCommit));
+            assertEquals(0, new BigDecimal("15").compareTo(afterNextSnapshot));
+            assertEquals(0, new BigDecimal("12").compareTo(balance(otherId)));
+        } finally {
+            release.countDown();
+            writer.shutdownNow();
+        }
+    }
+
+    private StockMovement receipt(UUID id, String quantity) {
+        return StockMovement.of(id, Warehouse.DEFAULT_ID, StockMovementKind.RECEIPT, new BigDecimal(quantity), "snapshot test");
+    }
+
+    private BigDecimal balance(UUID id) {
+        return movements.findBalances(List.of(id), Warehouse.DEFAULT_ID).get(id);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.autoflex.backend.service;
+
+import com.autoflex.backend.dto.ProductionSuggestionResponse;
+import com.autoflex.backend.dto.SuggestionJobResponse;
+import com.autoflex.backend.dto.SuggestionJobStatus;
+import com.autoflex.backend.dto.SuggestionMode;
+import com.autoflex.backend.exception.NotFoundException;
+import com.autoflex.backend.solver.SearchProgress;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SuggestionJobServiceTest {
+
+    private ProductionSuggestionService suggestion;
+    private CatalogRevision revision;
+    private SuggestionJobService service;
+
+    private final ProductionSuggestionResponse plan = new ProductionSuggestionResponse(List.of(), new BigDecimal("10.00"));
+
+    @BeforeEach
+    void setUp() {
+        suggestion = mock(ProductionSuggestionService.class);
+        revision = new CatalogRevision();
+        service = new SuggestionJobService(suggestion, mock(SiteSuggestionService.class), revision,
+                new SimpleMeterRegistry(), 1, 4, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private SuggestionJobResponse await(UUID id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            SuggestionJobResponse job = service.get(id);
+            if (job.status().finished()) return job;
+            Thread.sleep(10);
+        }
+        fail("Job did not finish");
+        return null;
+    }
+
+    @Test
+    void shouldReuseIdenticalJobWithinCatalogRevision() throws Exception {
+        // Arrange
+        when(suggestion.suggest(eq(SuggestionMode.OPTIMAL), any(), any())).thenReturn(plan);
+
+        // Act
+        SuggestionJobResponse first = service.submit(SuggestionMode.OPTIMAL, Duration.ofSeconds(5), null);
+        SuggestionJobResponse same = service.submit(SuggestionMode.OPTIMAL, Duration.ofSeconds(5), null);
+        SuggestionJobResponse otherBudget = service.submit(SuggestionMode.OPTIMAL, Duration.ofSeconds(9), null);
+        SuggestionJobResponse done = await(first.id());
+        revision.bump();
+        SuggestionJobResponse afterWrite = service.submit(SuggestionMode.OPTIMAL, Duration.ofSeconds(5), null);
+
+        // Assert
+        assertEquals(first.id(), same.id());
+        assertNotEquals(first.id(), otherBudget.id());
+        assertNotEquals(first.id(), afterWrite.id());
+        assertEquals(SuggestionJobStatus.SUCCEEDED, done.status());
+        assertEquals(1.0, done.progress());
+        assertSame(plan, done.result());
+        assertEquals(1, afterWrite.catalogVersion());
+    }
+
+    @Test
+    void shouldCancelRunningJobCooperatively() throws Exception {
+        // Arrange: a busca só termina quando o cancelamento é pedido
+        when(suggestion.suggest(eq(SuggestionMode.OPTIMAL), any(), any())).thenAnswer(inv -> {
+            SearchProgress progress = inv.getArgument(2);
+            long nodes = 0;
+            while (!progress.cancelled()) {
+                progress.update(++nodes, 1_000);
+                Thread.sleep(1);
+            }
+            return plan;
+        });
+        SuggestionJobResponse job = service.submit(SuggestionMode.OPTIMAL, Duration.ofMinutes(1), null);
+        // RUNNING sai antes da busca começar; espera o primeiro progresso
+        while (service.get(job.id()).bestValue() == null) Thread.sleep(5);
+
+        // Act
+        service.cancel(job.id());
+        SuggestionJobResponse cancelled = await(job.id());
+        SuggestionJobResponse resubmitted = service.submit(SuggestionMode.OPTIMAL, Duration.ofMinutes(1), null);
+        service.cancel(resubmitted.id());
+
+        // Assert
+        assertEquals(SuggestionJobStatus.CANCELLED, cancelled.status());
+        assertNull(cancelled.result());
+        assertEquals(new BigDecimal("10.00"), cancelled.bestValue());
+        assertNotEquals(job.id(), resubmitted.id());
+    }
+
+    @Test
+    void shouldEvictFinishedJobsAfterTtl() throws Exception {
+        // Arrange
+        when(suggestion.suggest(eq(SuggestionMode.GREEDY), any(), any())).thenReturn(plan);
+        SuggestionJobResponse job = service.submit(SuggestionMode.GREEDY, Duration.ofSeconds(1), null);
+        await(job.id());
+
+        // Act
+        service.evictExpired(Instant.now());
+        SuggestionJobResponse kept = service.get(job.id());
+        service.evictExpired(Instant.now().plusSeconds(61));
+
+        // Assert
+        assertEquals(SuggestionJobStatus.SUCCEEDED, kept.status());
+        assertThrows(NotFoundException.class, () -> service.get(job.id()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.autoflex.backend.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BomExplosionTest {
+
+    private final UUID table = UUID.randomUUID();
+    private final UUID chair = UUID.randomUUID();
+    private final UUID leg = UUID.randomUUID();
+    private final UUID stool = UUID.randomUUID();
+    private final UUID wood = UUID.randomUUID();
+    private final UUID screw = UUID.randomUUID();
+
+    @Test
+    void shouldExplodeSharedSubAssemblyOnce() {
+        // Arrange
+        BomExplosion explosion = new BomExplosion();
+        Map<UUID, Map<UUID, BigDecimal>> direct = Map.of(
+                leg, Map.of(wood, new BigDecimal("2.000"), screw, new BigDecimal("4.000")),
+                table, Map.of(wood, new BigDecimal("10.000")));
+        Map<UUID, Map<UUID, Integer>> components = Map.of(
+                table, Map.of(leg, 4),
+                chair, Map.of(leg, 4));
+
+        // Act
+        explosion.update(direct, components);
+
+        // Assert
+        assertEquals(0, new BigDecimal("18.000").compareTo(explosion.requirements(table).get(wood)));
+        assertEquals(0, new BigDecimal("16.000").compareTo(explosion.requirements(table).get(screw)));
+        assertEquals(0, new BigDecimal("8.000").compareTo(explosion.requirements(chair).get(wood)));
+        assertSame(explosion.requirements(leg), direct.get(leg));
+    }
+
+    @Test
+    void shouldInvalidateOnlyPathsThroughChangedProduct() {
+        // Arrange
+        BomExplosion explosion = new BomExplosion();
+        Map<UUID, Map<UUID, Integer>> components = Map.of(
+                table, Map.of(leg, 4),
+                chair, Map.of(stool, 1));
+        explosion.update(Map.of(
+                leg, Map.of(wood, new BigDecimal("2.000")),
+                stool, Map.of(screw, new BigDecimal("3.000"))), components);
+        Map<UUID, BigDecimal> chairBefore = explosion.requirements(chair);
+        Map<UUID, BigDecimal> tableBefore = explosion.requirements(table);
+
+        // Act
+        explosion.update(Map.of(
+                leg, Map.of(wood, new BigDecimal("3.000")),
+                stool, Map.of(screw, new BigDecimal("3.000"))), components);
+
+        // Assert
+        assertSame(chairBefore, explosion.requirements(chair));
+        assertNotSame(tableBefore, explosion.requirements(table));
+        assertEquals(0, new BigDecimal("12.000").compareTo(explosion.requirements(table).get(wood)));
+    }
+
+    @Test
+    void shouldRejectCycle() {
+        // Arrange
+        BomExplosion explosion = new BomExplosion();
+
+        // Act + Assert
+        assertThrows(IllegalStateException.class, () -> explosion.update(
+                Map.of(leg, Map.of(wood, BigDecimal.ONE)),
+                Map.of(table, Map.of(leg, 1), leg, Map.of(table, 1))));
+    }
+}
@@ -0,0 +1,168 @@
+package com.autoflex.backend.solver;
+
+import com.autoflex.backend.dto.ProductionSuggestionItemResponse;
+import com.autoflex.backend.dto.ProductionSuggestionResponse;
+import com.autoflex.backend.model.Product;
+import com.autoflex.backend.model.ProductMaterial;
+import com.autoflex.backend.model.RawMaterial;
+import com.autoflex.backend.repository.ProductMaterialRepository;
+import com.autoflex.backend.repository.SolverLines;
+import com.autoflex.backend.service.CatalogRevision;
+import com.autoflex.backend.service.ProductionSuggestionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GreedySolverTest {
+
+    @Test
+    void shouldMatchBigDecimalImplementationOnRandomCatalogs() {
+        Random random = new Random(42);
+
+        for (int round = 0; round < 200; round++) {
+            List<ProductMaterial> rows = randomCatalog(random, 1 + random.nextInt(60), 1 + random.nextInt(25));
+
+            ProductMaterialRepository repo = mock(ProductMaterialRepository.class);
+            when(repo.findAllSolverLines()).thenReturn(SolverLines.of(rows));
+
+            ProductionSuggestionResponse expected = ReferenceGreedy.suggest(rows);
+            ProductionSuggestionResponse actual = new ProductionSuggestionService(repo, new CatalogRevision(), new SimpleMeterRegistry()).suggest();
+
+            assertEquals(expected, actual, "round " + round);
+        }
+    }
+
+    @Test
+    void shouldCompileBomAsContiguousRanges() {
+        RawMaterial rm1 = material("RM1", "10.000");
+        RawMaterial rm2 = material("RM2", "4.500");
+        Product a = product("A", "10.00");
+        Product b = product("B", "20.00");
+
+        // Linhas intercaladas devem ser agrupadas por produto no CSR
+        SolverModel model = SolverModel.compile(List.of(
+                line(a, rm1, "1.000"),
+                line(b, rm2, "0.250"),
+                line(a, rm2, "2.000")
+        ));
+
+        assertEquals(2, model.productCount());
+        assertEquals(2, model.materialCount());
+        assertEquals(3, model.lineCount());
+
+        assertEquals(2, model.bomEnd(0) - model.bomStart(0));
+        assertEquals(1, model.bomEnd(1) - model.bomStart(1));
+        assertEquals(250, model.bomRequired(model.bomStart(1)));
+        assertArrayEquals(new long[]{10_000, 4_500}, model.newStock());
+        assertEquals(2000, model.priceCents(1));
+    }
+
+    @Test
+    void shouldConsumeStockInFixedPoint() {
+        RawMaterial rm = material("RM1", "10.000");
+        Product p = product("A", "10.00");
+        SolverModel model = SolverModel.compile(List.of(line(p, rm, "0.333")));
+
+        long[] stock = model.newStock();
+        int units = GreedySolver.maxProducibleUnits(model, 0, stock);
+        GreedySolver.consumeStock(model, 0, stock, units);
+
+        assertEquals(30, units);
+        assertEquals(new BigDecimal("0.010"), SolverModel.fromQuantityUnits(stock[0]));
+    }
+
+    private static List<ProductMaterial> randomCatalog(Random random, int productCount, int materialCount) {
+        List<RawMaterial> materials = new ArrayList<>();
+        for (int i = 0; i < materialCount; i++) {
+            materials.add(material("RM" + i, BigDecimal.valueOf(random.nextInt(500_000), 3).toPlainString()));
+        }
+
+        List<ProductMaterial> rows = new ArrayList<>();
+        for (int i = 0; i < productCount; i++) {
+            // Poucos preços distintos para forçar empates na ordenação
+            Product product = product("P" + i, BigDecimal.valueOf(100 + random.nextInt(8) * 250L, 2).toPlainString());
+            List<RawMaterial> shuffled = new ArrayList<>(materials);
+            Collections.shuffle(shuffled, random);
+            int lines = 1 + random.nextInt(Math.min(5, materialCount));
+            for (int l = 0; l < lines; l++) {
+                // Eventualmente gera quantidade 0 (inválida) para cobrir o bloqueio do produto
+                long required = random.nextInt(20) == 0 ? 0 : 1 + random.nextInt(20_000);
+                rows.add(line(product, shuffled.get(l), BigDecimal.valueOf(required, 3).toPlainString()));
+            }
+        }
+        Collections.shuffle(rows, random);
+        return rows;
+    }
+
+    private static Product product(String code, String price) {
+        return Product.builder().id(UUID.randomUUID()).code(code).name("Product " + code).price(new BigDecimal(price)).build();
+    }
+
+    private static RawMaterial material(String code, String stock) {
+        return RawMaterial.builder().id(UUID.randomUUID()).code(code).name("Material " + code).stockQuantity(new BigDecimal(stock)).build();
+    }
+
+    private static ProductMaterial line(Product p, RawMaterial rm, String required) {
+        return ProductMaterial.builder().id(UUID.randomUUID()).product(p).rawMaterial(rm).requiredQuantity(new BigDecimal(required)).build();
+    }
+
+    // Implementação original em BigDecimal, mantida como referência de comportamento
+    private static final class ReferenceGreedy {
+
+        static ProductionSuggestionResponse suggest(List<ProductMaterial> all) {
+            Map<UUID, List<ProductMaterial>> bomByProduct = new HashMap<>();
+            for (ProductMaterial pm : all) {
+                bomByProduct.computeIfAbsent(pm.getProduct().getId(), k -> new ArrayList<>()).add(pm);
+            }
+
+            List<Product> products = bomByProduct.values().stream()
+                    .map(list -> list.get(0).getProduct())
+                    .sorted(Comparator.comparing(Product::getPrice).reversed())
+                    .toList();
+
+            Map<UUID, BigDecimal> availableStock = new HashMap<>();
+            for (ProductMaterial pm : all) {
+                availableStock.putIfAbsent(pm.getRawMaterial().getId(), pm.getRawMaterial().getStockQuantity());
+            }
+
+            List<ProductionSuggestionItemResponse> items = new ArrayList<>();
+            BigDecimal grandTotal = BigDecimal.ZERO;
+
+            for (Product product : products) {
+                List<ProductMaterial> bom = bomByProduct.get(product.getId());
+                int maxPossible = maxProducibleUnits(bom, availableStock);
+                if (maxPossible <= 0) continue;
+
+                BigDecimal u = BigDecimal.valueOf(maxPossible);
+                for (ProductMaterial pm : bom) {
+                    UUID rmId = pm.getRawMaterial().getId();
+                    availableStock.put(rmId, availableStock.get(rmId).subtract(pm.getRequiredQuantity().multiply(u)));
+                }
+
+                BigDecimal totalValue = product.getPrice().multiply(u);
+                grandTotal = grandTotal.add(totalValue);
+                items.add(new ProductionSuggestionItemResponse(product.getId(), product.getCode(), product.getName(),
+                        product.getPrice(), maxPossible, totalValue));
+            }
+
+            return new ProductionSuggestionResponse(items, grandTotal);
+        }
+
+        private static int maxProducibleUnits(List<ProductMaterial> bom, Map<UUID, BigDecimal> stock) {
+            int max = Integer.MAX_VALUE;
+            for (ProductMaterial pm : bom) {
+                BigDecimal required = pm.getRequiredQuantity();
+                if (required.compareTo(BigDecimal.ZERO) <= 0) return 0;
+                int possible = stock.get(pm.getRawMaterial().getId()).divide(required, 0, RoundingMode.FLOOR).intValueExact();
+                max = Math.min(max, possible);
+            }
+            return max == Integer.MAX_VALUE ? 0 : max;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.autoflex.backend.solver;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimalSolverTest {
+
+    @Test
+    void shouldBeatGreedyWhenCheaperProductUsesBottleneckBetter() {
+        UUID steel = UUID.randomUUID();
+        // Estoque 10: o guloso faz 1 mesa (10,00, usa 6) e sobra 4; o ótimo faz 2 cadeiras (12,00)
+        SolverModel model = SolverModel.builder()
+                .addLine(UUID.randomUUID(), "TABLE", "Table", new BigDecimal("10.00"), steel, new BigDecimal("10.000"), new BigDecimal("6.000"))
+                .addLine(UUID.randomUUID(), "CHAIR", "Chair", new BigDecimal("6.00"), steel, new BigDecimal("10.000"), new BigDecimal("5.000"))
+                .build();
+
+        assertEquals(1000, GreedySolver.solve(model).totalValueCents());
+
+        OptimizationResult result = OptimalSolver.solve(model, Duration.ofSeconds(5));
+
+        assertTrue(result.provenOptimal());
+        assertEquals(1200, result.plan().totalValueCents());
+        assertEquals(0, result.plan().unitsOf(0));
+        assertEquals(2, result.plan().unitsOf(1));
+        assertEquals(0, result.gap().signum());
+    }
+
+    @Test
+    void shouldPriceMaterialsFromLinearRelaxationDuals() {
+        UUID steel = UUID.randomUUID();
+        UUID wood = UUID.randomUUID();
+        UUID glue = UUID.randomUUID();
+        UUID table = UUID.randomUUID();
+        UUID lamp = UUID.randomUUID();
+        // Relaxação: 10/6 mesas (16,67); o aço é a restrição ativa, a madeira sobra e a cola está zerada
+        SolverModel model = SolverModel.builder()
+                .addLine(table, "TABLE", "Table", new BigDecimal("10.00"), steel, new BigDecimal("10.000"), new BigDecimal("6.000"))
+                .addLine(table, "TABLE", "Table", new BigDecimal("10.00"), wood, new BigDecimal("100.000"), new BigDecimal("1.000"))
+                .addLine(UUID.randomUUID(), "CHAIR", "Chair", new BigDecimal("6.00"), steel, new BigDecimal("10.000"), new BigDecimal("5.000"))
+                .addLine(lamp, "LAMP", "Lamp", new BigDecimal("20.00"), glue, BigDecimal.ZERO, new BigDecimal("1.000"))
+                .addLine(lamp, "LAMP", "Lamp", new BigDecimal("20.00"), steel, new BigDecimal("10.000"), new BigDecimal("2.000"))
+                .build();
+
+        double[] prices = OptimalSolver.shadowPrices(model, Duration.ofSeconds(5));
+
+        assertNotNull(prices);
+        assertEquals(1000.0 / 6, prices[model.materialIndexOf(steel)], 1e-6);
+        assertEquals(0, prices[model.materialIndexOf(wood)], 1e-9);
+        // Uma unidade de cola vira uma luminária (20,00) pagando 2 de aço pelo preço-sombra
+        assertEquals(2000 - 2 * 1000.0 / 6, prices[model.materialIndexOf(glue)], 1e-6);
+    }
+
+    @Test
+    void shouldMatchExhaustiveSearchOnSmallCatalogs() {
+        Random random = new Random(7);
+
+        for (int round = 0; round < 150; round++) {
+            int products = 1 + random.nextInt(4);
+            int materials = 1 + random.nextInt(3);
+            UUID[] materialIds = new UUID[materials];
+            long[] stock = new long[materials];
+            for (int m = 0; m < materials; m++) {
+                materialIds[m] = UUID.randomUUID();
+                stock[m] = 1_000 + random.nextInt(30_000);
+            }
+
+            SolverModel.Builder builder = SolverModel.builder();
+            for (int p = 0; p < products; p++) {
+                UUID id = UUID.randomUUID();
+                BigDecimal price = BigDecimal.valueOf(100 + random.nextInt(10_000), 2);
+                for (int m = 0; m < materials; m++) {
+                    if (m > 0 && random.nextBoolean()) continue;
+                    builder.addLine(id, "P" + p, "P" + p, price, materialIds[m],
+                            BigDecimal.valueOf(stock[m], 3), BigDecimal.valueOf(500 + random.nextInt(6_000), 3));
+                }
+            }
+            SolverModel model = builder.build();
+
+            OptimizationResult result = OptimalSolver.solve(model, Duration.ofSeconds(5));
+
+            assertTrue(result.provenOptimal(), "round " + round);
+            assertEquals(exhaustive(model, 0, model.newStock()), result.plan().totalValueCents(), "round " + round);
+            assertTrue(result.plan().totalValueCents() >= GreedySolver.solve(model).totalValueCents());
+        }
+    }
+
+    @Test
+    void shouldReturnGreedyPlanAndOpenGapWhenBudgetIsExhausted() {
+        SolverModel model = SolverModel.builder()
+                .addLine(UUID.randomUUID(), "A", "A", new BigDecimal("10.00"), UUID.randomUUID(), new BigDecimal("10.000"), new BigDecimal("6.000"))
+                .build();
+
+        OptimizationResult result = OptimalSolver.solve(model, Duration.ZERO);
+
+        assertFalse(result.provenOptimal());
+        assertEquals(GreedySolver.solve(model).totalValueCents(), result.plan().totalValueCents());
+        assertTrue(result.upperBoundCents() >= result.plan().totalValueCents());
+    }
+
+    @Test
+    void shouldStopWhenCancelledAndKeepGreedyIncumbent() {
+        UUID steel = UUID.randomUUID();
+        SolverModel model = SolverModel.builder()
+                .addLine(UUID.randomUUID(), "TABLE", "Table", new BigDecimal("10.00"), steel, new BigDecimal("10.000"), new BigDecimal("6.000"))
+                .addLine(UUID.randomUUID(), "CHAIR", "Chair", new BigDecimal("6.00"), steel, new BigDecimal("10.000"), new BigDecimal("5.000"))
+                .build();
+        long[] seen = {-1, -1};
+        SearchProgress cancelAfterRoot = new SearchProgress() {
+            @Override
+            public boolean cancelled() {
+                return seen[0] >= 1;
+            }
+
+            @Override
+            public void update(long nodes, long incumbentCents) {
+                seen[0] = nodes;
+                seen[1] = incumbentCents;
+            }
+        };
+
+        OptimizationResult result = OptimalSolver.solve(model, Duration.ofSeconds(5), cancelAfterRoot);
+
+        assertFalse(result.provenOptimal());
+        assertEquals(1, seen[0]);
+        assertEquals(1000, seen[1]);
+        assertTrue(result.upperBoundCents() >= 1200);
+    }
+
+    private static long exhaustive(SolverModel model, int p, long[] stock) {
+        if (p == model.productCount()) return 0;
+        long best = 0;
+        int max = GreedySolver.maxProducibleUnits(model, p, stock);
+        for (int units = 0; units <= max; units++) {
+            long[] residual = stock.clone();
+            GreedySolver.consumeStock(model, p, residual, units);
+            best = Math.max(best, model.priceCents(p) * units + exhaustive(model, p + 1, residual));
+        }
+        return best;
+    }
+}
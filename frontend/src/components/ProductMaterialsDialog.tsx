@@ -34,6 +34,8 @@ interface Props {
 export default function ProductMaterialsDialog({ open, product, onClose }: Props) {
   const dispatch = useAppDispatch();
   const [rows, setRows] = useState<Row[]>([]);
+  // Submontagens nao sao editadas aqui, mas voltam no PUT para nao serem apagadas
+  const [components, setComponents] = useState<ProductMaterialItemRequest[]>([]);
   const [allMaterials, setAllMaterials] = useState<RawMaterial[]>([]);
   const [loading, setLoading] = useState(false);
   const [saving, setSaving] = useState(false);
@@ -49,10 +51,20 @@ export default function ProductMaterialsDialog({ open, product, onClose }: Props
       .then(([bom, materials]) => {
         setAllMaterials(materials);
         setRows(
-          bom.map((item) => ({
-            rawMaterialId: item.rawMaterialId,
-            requiredQuantity: item.requiredQuantity,
-          }))
+          bom
+            .filter((item) => item.rawMaterialId)
+            .map((item) => ({
+              rawMaterialId: item.rawMaterialId as string,
+              requiredQuantity: item.requiredQuantity,
+            }))
+        );
+        setComponents(
+          bom
+            .filter((item) => item.componentProductId)
+            .map((item) => ({
+              componentProductId: item.componentProductId as string,
+              requiredQuantity: item.requiredQuantity,
+            }))
         );
       })
       .finally(() => setLoading(false));
@@ -82,7 +94,8 @@ export default function ProductMaterialsDialog({ open, product, onClose }: Props
     try {
       const items: ProductMaterialItemRequest[] = rows
         .filter((r) => r.rawMaterialId && r.requiredQuantity > 0)
-        .map((r) => ({ rawMaterialId: r.rawMaterialId, requiredQuantity: r.requiredQuantity }));
+        .map((r): ProductMaterialItemRequest => ({ rawMaterialId: r.rawMaterialId, requiredQuantity: r.requiredQuantity }))
+        .concat(components);
 
       await productMaterialsApi.replace(product.id, items);
       dispatch(showNotification({ message: "Materias-primas atualizadas com sucesso", severity: "success" }));
@@ -32,14 +32,18 @@ export interface RawMaterialRequest {
 
 export interface ProductMaterialItem {
   id: string;
-  rawMaterialId: string;
-  rawMaterialCode: string;
-  rawMaterialName: string;
+  rawMaterialId: string | null;
+  rawMaterialCode: string | null;
+  rawMaterialName: string | null;
   requiredQuantity: number;
+  componentProductId?: string | null;
+  componentProductCode?: string | null;
+  componentProductName?: string | null;
 }
 
 export interface ProductMaterialItemRequest {
-  rawMaterialId: string;
+  rawMaterialId?: string;
+  componentProductId?: string;
   requiredQuantity: number;
 }
 